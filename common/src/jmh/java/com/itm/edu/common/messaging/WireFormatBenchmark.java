@@ -0,0 +1,100 @@
+package com.itm.edu.common.messaging;
+
+import com.itm.edu.common.dto.AddressShippingDTO;
+import com.itm.edu.common.dto.ClientDTO;
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.ProductOrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara tamaño y costo de codificar/decodificar un {@link OrderMessageDTO}
+ * en JSON y en Smile, con el mismo conversor AMQP que usan los servicios.
+ * <p>
+ * Ejecutar con {@code gradle jmh}; el resumen queda en
+ * {@code build/reports/jmh/results.json}, donde {@code encode} trae el tamaño del
+ * payload como la métrica secundaria {@code encodedBytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final String TRUSTED_PACKAGE = "com.itm.edu.common.dto";
+
+    @Param({"1", "10", "100"})
+    public int products;
+
+    @Param({"JSON", "SMILE_V1"})
+    public WireFormat format;
+
+    private MessageConverter converter;
+    private OrderMessageDTO order;
+    private Message encoded;
+
+    @Setup
+    public void setUp() {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(TRUSTED_PACKAGE);
+        SmileMessageConverter smile = new SmileMessageConverter(TRUSTED_PACKAGE);
+        converter = WireFormatMessageConverters.negotiating(format, json, smile);
+        order = sampleOrder(products);
+        encoded = converter.toMessage(order, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message encode(PayloadSize size) {
+        Message message = converter.toMessage(order, new MessageProperties());
+        size.encodedBytes = message.getBody().length;
+        return message;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(encoded);
+    }
+
+    // Se asigna, no se acumula: JMH lo reporta tal cual junto al tiempo de encode
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long encodedBytes;
+    }
+
+    private static OrderMessageDTO sampleOrder(int products) {
+        List<ProductOrderDTO> lines = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            lines.add(ProductOrderDTO.builder()
+                    .productId(UUID.randomUUID())
+                    .quantity(i + 1)
+                    .build());
+        }
+        return OrderMessageDTO.builder()
+                .orderId(UUID.randomUUID())
+                .client(ClientDTO.builder()
+                        .id(UUID.randomUUID())
+                        .name("John Doe")
+                        .email("john@example.com")
+                        .phone("1234567890")
+                        .build())
+                .shippingAddress(AddressShippingDTO.builder()
+                        .street("Calle 123")
+                        .city("Medellín")
+                        .state("Antioquia")
+                        .zipCode("050001")
+                        .country("Colombia")
+                        .build())
+                .products(lines)
+                .build();
+    }
+}
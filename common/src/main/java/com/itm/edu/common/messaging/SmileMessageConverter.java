@@ -0,0 +1,61 @@
+package com.itm.edu.common.messaging;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversor AMQP que escribe y lee Smile. Comparte el mapeo de tipos de
+ * {@code Jackson2JsonMessageConverter}, así que los listeners no cambian.
+ */
+public class SmileMessageConverter extends AbstractJackson2MessageConverter {
+
+    public static final MimeType CONTENT_TYPE = MimeType.valueOf(WireFormat.SMILE_V1.getContentType());
+
+    public SmileMessageConverter(String... trustedPackages) {
+        this(SmileMapper.builder().findAndAddModules().build(), trustedPackages);
+    }
+
+    public SmileMessageConverter(ObjectMapper smileMapper, String... trustedPackages) {
+        // Con charset en el tipo soportado la clase base lee el cuerpo como bytes y no como String,
+        // que es lo único que acepta el parser de Smile; el charset no se publica
+        super(smileMapper, withCharset(CONTENT_TYPE), trustedPackages);
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties, Type genericType) {
+        // La clase base serializa a String cuando hay charset; aquí el cuerpo siempre se escribe como bytes
+        byte[] bytes;
+        try {
+            bytes = this.objectMapper.writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new MessageConversionException("No se pudo convertir el objeto a Smile", e);
+        }
+        messageProperties.setContentType(CONTENT_TYPE.toString());
+        messageProperties.setContentLength(bytes.length);
+        if (getClassMapper() == null) {
+            JavaType type = this.objectMapper.constructType(genericType == null ? object.getClass() : genericType);
+            getJavaTypeMapper().fromJavaType(type, messageProperties);
+        } else {
+            getClassMapper().fromClass(object.getClass(), messageProperties);
+        }
+        return new Message(bytes, messageProperties);
+    }
+
+    private static MimeType withCharset(MimeType type) {
+        Map<String, String> parameters = new HashMap<>(type.getParameters());
+        parameters.put("charset", StandardCharsets.UTF_8.name());
+        return new MimeType(type.getType(), type.getSubtype(), parameters);
+    }
+}
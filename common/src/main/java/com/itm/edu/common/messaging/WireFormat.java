@@ -0,0 +1,36 @@
+package com.itm.edu.common.messaging;
+
+/**
+ * Formatos de serialización de los mensajes entre servicios. El content-type
+ * viaja en cada mensaje, así que un consumidor sabe cuál leer sin importar con
+ * qué formato publique él.
+ */
+public enum WireFormat {
+    /** JSON de Jackson, el formato original */
+    JSON("application/json"),
+    /** Smile (JSON binario) versión 1: UUIDs como 16 bytes y nombres de campo compartidos */
+    SMILE_V1("application/x-jackson-smile;version=1");
+
+    private final String contentType;
+
+    WireFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Interpreta el valor de configuración ({@code json} o {@code smile}).
+     */
+    public static WireFormat fromProperty(String value) {
+        if (value == null || value.isBlank() || value.equalsIgnoreCase("json")) {
+            return JSON;
+        }
+        if (value.equalsIgnoreCase("smile") || value.equalsIgnoreCase("smile-v1")) {
+            return SMILE_V1;
+        }
+        throw new IllegalArgumentException("Formato de mensaje no soportado: " + value);
+    }
+}
@@ -0,0 +1,29 @@
+package com.itm.edu.common.messaging;
+
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Arma el conversor que usan los servicios durante la migración de formato:
+ * lee JSON y Smile según el content-type del mensaje y publica en el formato
+ * configurado.
+ */
+public final class WireFormatMessageConverters {
+
+    private static final String SMILE_UNVERSIONED = "application/x-jackson-smile";
+
+    private WireFormatMessageConverters() {
+    }
+
+    public static ContentTypeDelegatingMessageConverter negotiating(WireFormat outbound,
+                                                                    MessageConverter json,
+                                                                    MessageConverter smile) {
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(outbound == WireFormat.SMILE_V1 ? smile : json);
+        converter.addDelegate(WireFormat.JSON.getContentType(), json);
+        converter.addDelegate(WireFormat.SMILE_V1.getContentType(), smile);
+        // Smile sin versión se interpreta como la versión 1
+        converter.addDelegate(SMILE_UNVERSIONED, smile);
+        return converter;
+    }
+}
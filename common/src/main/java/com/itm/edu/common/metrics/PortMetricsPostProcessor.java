@@ -0,0 +1,34 @@
+package com.itm.edu.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+
+/**
+ * Decora todos los beans que implementan una interfaz del paquete de puertos
+ * (casos de uso y puertos de salida) con {@link PortTimingInterceptor}, sin
+ * modificar los servicios ni los adaptadores. Si el bean ya es un proxy (por
+ * ejemplo por {@code @Transactional}) el advisor se agrega por fuera, así que
+ * el tiempo medido incluye el commit.
+ */
+public class PortMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public static final String METRIC = "port.calls";
+
+    public PortMetricsPostProcessor(String portsPackage, ObjectProvider<MeterRegistry> meterRegistry) {
+        PortTimingInterceptor interceptor = new PortTimingInterceptor(portsPackage, meterRegistry);
+        this.advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return interceptor.portOf(method, targetClass) != null;
+            }
+        }, interceptor);
+        setBeforeExistingAdvisors(true);
+        // Los puertos se inyectan también por su clase concreta; un proxy de interfaz rompería esas inyecciones
+        setProxyTargetClass(true);
+    }
+}
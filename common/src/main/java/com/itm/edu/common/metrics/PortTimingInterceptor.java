@@ -0,0 +1,86 @@
+package com.itm.edu.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra el timer {@value PortMetricsPostProcessor#METRIC} por puerto, método y resultado. Los
+ * timers se resuelven una vez por método y publican percentiles e histograma
+ * para poder agregarlos en Prometheus.
+ */
+class PortTimingInterceptor implements MethodInterceptor {
+
+    private final String portsPackage;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, PortTimers> timers = new ConcurrentHashMap<>();
+
+    PortTimingInterceptor(String portsPackage, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.portsPackage = portsPackage + ".";
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        PortTimers portTimers = timers.computeIfAbsent(invocation.getMethod(),
+                method -> timersFor(method, AopUtils.getTargetClass(invocation.getThis())));
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            portTimers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            portTimers.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Interfaz de puerto que declara el método, o {@code null} si el método no pertenece a ningún puerto.
+     */
+    Class<?> portOf(Method method, Class<?> targetClass) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (candidate.getName().startsWith(portsPackage)
+                    && ClassUtils.hasMethod(candidate, method.getName(), method.getParameterTypes())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private PortTimers timersFor(Method method, Class<?> targetClass) {
+        Class<?> port = portOf(method, targetClass);
+        String portName = port != null ? port.getSimpleName() : targetClass.getSimpleName();
+        String direction = port != null && port.getName().substring(portsPackage.length()).startsWith("output")
+                ? "output" : "input";
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        return new PortTimers(
+                timer(registry, portName, method.getName(), direction, "success"),
+                timer(registry, portName, method.getName(), direction, "error"));
+    }
+
+    private Timer timer(MeterRegistry registry, String port, String method, String direction, String outcome) {
+        return Timer.builder(PortMetricsPostProcessor.METRIC)
+                .description("Duración de las llamadas a los puertos de la aplicación")
+                .tag("port", port)
+                .tag("method", method)
+                .tag("direction", direction)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record PortTimers(Timer success, Timer error) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.itm.edu.common.perf;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Sustituto de RabbitMQ dentro de la JVM para el perfil perf. Se inyecta donde el
+ * código espera un {@link RabbitTemplate}: la conversión a bytes y las cabeceras se
+ * hacen igual que contra el broker, pero {@link #send} entrega el mensaje a los
+ * suscriptores del par exchange/routing key en un pool de hilos propio, como lo
+ * harían los consumidores de una cola, y confirma el envío de inmediato.
+ */
+@Slf4j
+public class InJvmMessageBus extends RabbitTemplate {
+
+    private final Map<String, List<Consumer<Message>>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService consumers;
+
+    public InJvmMessageBus(MessageConverter messageConverter, int consumerThreads) {
+        setMessageConverter(messageConverter);
+        AtomicInteger threads = new AtomicInteger();
+        this.consumers = Executors.newFixedThreadPool(consumerThreads, task -> {
+            Thread thread = new Thread(task, "in-jvm-bus-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Suscribe un consumidor a los mensajes publicados con este exchange y routing
+     * key. El cuerpo se convierte al tipo indicado, como haría un {@code @RabbitListener}.
+     */
+    public <T> void subscribe(String exchange, String routingKey, Class<T> type, BiConsumer<T, Message> listener) {
+        subscribers.computeIfAbsent(key(exchange, routingKey), k -> new CopyOnWriteArrayList<>())
+            .add(message -> {
+                message.getMessageProperties().setInferredArgumentType(type);
+                listener.accept(type.cast(getMessageConverter().fromMessage(message)), message);
+            });
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+        String destination = key(exchange, routingKey);
+        for (Consumer<Message> subscriber : subscribers.getOrDefault(destination, List.of())) {
+            consumers.execute(() -> {
+                try {
+                    subscriber.accept(message);
+                } catch (RuntimeException e) {
+                    log.error("Error entregando mensaje en {}: {}", destination, e.getMessage());
+                }
+            });
+        }
+        if (correlationData != null) {
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+    }
+
+    // Sin canal que reservar: las operaciones del lote se publican una a una en el bus
+    @Override
+    public <T> T invoke(OperationsCallback<T> action, com.rabbitmq.client.ConfirmCallback acks,
+                        com.rabbitmq.client.ConfirmCallback nacks) {
+        return action.doInRabbit(this);
+    }
+
+    // El bus confirma cada envío al hacerlo
+    @Override
+    public void waitForConfirmsOrDie(long timeout) {
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Sin ConnectionFactory: no hay broker al que conectarse
+    }
+
+    @Override
+    public void destroy() {
+        consumers.shutdownNow();
+        super.destroy();
+    }
+
+    private static String key(String exchange, String routingKey) {
+        return (exchange != null ? exchange : "") + "/" + (routingKey != null ? routingKey : "");
+    }
+}
@@ -0,0 +1,107 @@
+package com.itm.edu.common.perf;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Gestor de transacciones sin recurso para el perfil perf. No hay nada que
+ * confirmar: cada transacción lleva un registro de deshacer donde los adaptadores
+ * en memoria anotan cómo revertir sus escrituras, y un rollback lo ejecuta en
+ * orden inverso. Así una orden rechazada no deja escrituras a medias en ningún servicio.
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    private static final Object RESOURCE_KEY = InMemoryTransactionManager.class;
+
+    /**
+     * Registra cómo deshacer una escritura si la transacción en curso se revierte.
+     * Fuera de una transacción la escritura es definitiva y no se registra nada.
+     */
+    public static void onRollback(Runnable undo) {
+        UndoLog log = (UndoLog) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (log != null) {
+            log.actions.push(undo);
+        }
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new InMemoryTransaction((UndoLog) TransactionSynchronizationManager.getResource(RESOURCE_KEY));
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((InMemoryTransaction) transaction).log != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        InMemoryTransaction tx = (InMemoryTransaction) transaction;
+        tx.log = new UndoLog();
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, tx.log);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((InMemoryTransaction) transaction).log = null;
+        return TransactionSynchronizationManager.unbindResource(RESOURCE_KEY);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        ((InMemoryTransaction) status.getTransaction()).log.actions.clear();
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        Deque<Runnable> actions = ((InMemoryTransaction) status.getTransaction()).log.actions;
+        // Las acciones de deshacer reutilizan las escrituras del adaptador: no deben volver a registrarse
+        TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+        while (!actions.isEmpty()) {
+            actions.pop().run();
+        }
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((InMemoryTransaction) status.getTransaction()).log.rollbackOnly = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+    }
+
+    private static final class UndoLog {
+        private final Deque<Runnable> actions = new ArrayDeque<>();
+        private boolean rollbackOnly;
+    }
+
+    private static final class InMemoryTransaction implements SmartTransactionObject {
+        private UndoLog log;
+
+        private InMemoryTransaction(UndoLog log) {
+            this.log = log;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return log != null && log.rollbackOnly;
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.itm.edu.order.benchmark;
+
+import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.OrderItem;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class BenchmarkOrders {
+
+    private BenchmarkOrders() {
+    }
+
+    static Client client() {
+        return Client.builder()
+                .id(UUID.randomUUID())
+                .name("John Doe")
+                .email("john@example.com")
+                .phone("1234567890")
+                .build();
+    }
+
+    static AddressShipping address() {
+        return AddressShipping.builder()
+                .street("Calle 123")
+                .city("Medellín")
+                .state("Antioquia")
+                .zipCode("050001")
+                .country("Colombia")
+                .build();
+    }
+
+    static Product product(int index) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name("Producto " + index)
+                .description("Descripción del producto " + index)
+                .price(new BigDecimal("12.50").add(BigDecimal.valueOf(index)))
+                .stock(100)
+                .build();
+    }
+
+    static List<OrderItem> items(int count) {
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(OrderItem.create(product(i), i % 5 + 1));
+        }
+        return items;
+    }
+}
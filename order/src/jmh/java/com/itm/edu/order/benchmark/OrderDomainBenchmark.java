@@ -0,0 +1,79 @@
+package com.itm.edu.order.benchmark;
+
+import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderItem;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo y asignaciones de crear la orden y de cada {@code with*}, que
+ * reconstruyen el agregado completo. El total se calcula dentro de
+ * {@code Order.create}, {@code withAddedProduct} y {@code withRemovedProduct}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDomainBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private Client client;
+    private Client otherClient;
+    private AddressShipping address;
+    private AddressShipping otherAddress;
+    private List<OrderItem> orderItems;
+    private Product extraProduct;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        client = BenchmarkOrders.client();
+        otherClient = BenchmarkOrders.client();
+        address = BenchmarkOrders.address();
+        otherAddress = BenchmarkOrders.address();
+        orderItems = BenchmarkOrders.items(items);
+        extraProduct = BenchmarkOrders.product(items);
+        order = Order.create(UUID.randomUUID(), client, orderItems, address);
+    }
+
+    @Benchmark
+    public Order create() {
+        return Order.create(UUID.randomUUID(), client, orderItems, address);
+    }
+
+    @Benchmark
+    public Order withUpdatedStatus() {
+        return order.withUpdatedStatus(OrderStatus.STOCK_CONFIRMED.name());
+    }
+
+    @Benchmark
+    public Order withUpdatedClient() {
+        return order.withUpdatedClient(otherClient);
+    }
+
+    @Benchmark
+    public Order withUpdatedDeliveryAddress() {
+        return order.withUpdatedDeliveryAddress(otherAddress);
+    }
+
+    @Benchmark
+    public Order withAddedProduct() {
+        return order.withAddedProduct(extraProduct, 1);
+    }
+
+    @Benchmark
+    public Order withRemovedProduct() {
+        return order.withRemovedProduct(orderItems.get(0).getProduct());
+    }
+}
@@ -0,0 +1,66 @@
+package com.itm.edu.order.benchmark;
+
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.infrastructure.persistence.entities.OrderEntity;
+import com.itm.edu.order.infrastructure.persistence.mapper.ClientMapper;
+import com.itm.edu.order.infrastructure.persistence.mapper.OrderItemMapper;
+import com.itm.edu.order.infrastructure.persistence.mapper.OrderMapper;
+import com.itm.edu.order.infrastructure.persistence.mapper.ProductEntityMapper;
+import com.itm.edu.order.infrastructure.rest.dto.OrderDto;
+import com.itm.edu.order.infrastructure.rest.mapper.OrderDtoMapper;
+import com.itm.edu.order.infrastructure.rest.mapper.ProductDtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadena entidad ↔ dominio ↔ DTO tal como la recorren el adaptador de
+ * persistencia y el controlador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private OrderMapper orderMapper;
+    private OrderDtoMapper orderDtoMapper;
+    private Order order;
+    private OrderEntity entity;
+
+    @Setup
+    public void setUp() {
+        orderMapper = new OrderMapper(new OrderItemMapper(new ProductEntityMapper()), new ClientMapper());
+        orderDtoMapper = new OrderDtoMapper(new ProductDtoMapper());
+        order = Order.create(UUID.randomUUID(), BenchmarkOrders.client(), BenchmarkOrders.items(items),
+                BenchmarkOrders.address());
+        entity = orderMapper.toEntity(order);
+    }
+
+    @Benchmark
+    public OrderEntity domainToEntity() {
+        return orderMapper.toEntity(order);
+    }
+
+    @Benchmark
+    public Order entityToDomain() {
+        return orderMapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public OrderDto domainToDto() {
+        return orderDtoMapper.toDto(order);
+    }
+
+    // Lectura completa de GET /orders/{id} sin proyección: entidad → dominio → DTO
+    @Benchmark
+    public OrderDto entityToDto() {
+        return orderDtoMapper.toDto(orderMapper.toDomain(entity));
+    }
+}
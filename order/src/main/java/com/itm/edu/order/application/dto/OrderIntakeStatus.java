@@ -0,0 +1,33 @@
+package com.itm.edu.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeStatus {
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+
+    private UUID orderId;
+    private String orderStatus;
+    private String reason;
+
+    public static OrderIntakeStatus accepted(UUID orderId) {
+        return new OrderIntakeStatus(orderId, ACCEPTED, null);
+    }
+
+    public static OrderIntakeStatus rejected(UUID orderId, String reason) {
+        return new OrderIntakeStatus(orderId, REJECTED, reason);
+    }
+
+    public boolean isRejected() {
+        return REJECTED.equals(orderStatus);
+    }
+}
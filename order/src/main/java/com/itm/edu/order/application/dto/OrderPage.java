@@ -0,0 +1,22 @@
+package com.itm.edu.order.application.dto;
+
+import com.itm.edu.order.domain.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+    private List<Order> orders;
+    private boolean hasNext;
+    private LocalDateTime nextOrderDate;
+    private UUID nextOrderId;
+}
@@ -0,0 +1,28 @@
+package com.itm.edu.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filtros y posición de una página de órdenes. Las órdenes se recorren por
+ * (orderDate, orderId) descendente; {@code afterOrderDate}/{@code afterOrderId}
+ * son la clave de la última orden de la página anterior.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+    private String status;
+    private String clientEmail;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime afterOrderDate;
+    private UUID afterOrderId;
+    private int size;
+}
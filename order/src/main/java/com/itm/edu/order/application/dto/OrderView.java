@@ -0,0 +1,99 @@
+package com.itm.edu.order.application.dto;
+
+import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderItem;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.domain.valueobjects.OrderTotalValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Vista plana de una orden para las consultas. Se mantiene al escribir la orden,
+ * de modo que leerla no requiere reconstruir el agregado ni recalcular totales.
+ * La proyección guarda solo lo que pertenece a la orden; los datos del catálogo y
+ * del cliente que pueden cambiar (nombre, precio, stock, teléfono) se completan al leerla.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+    private UUID orderId;
+    private String orderStatus;
+    private LocalDateTime orderDate;
+    private UUID clientId;
+    private String clientName;
+    private String clientEmail;
+    private String clientPhone;
+    private String street;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String country;
+    private BigDecimal totalAmount;
+    private String totalCurrency;
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private UUID productId;
+        private String productName;
+        private String productDescription;
+        private BigDecimal productPrice;
+        private Integer productStock;
+        private int quantity;
+    }
+
+    public static OrderView from(Order order) {
+        OrderViewBuilder view = OrderView.builder()
+                .orderId(order.getOrderId())
+                .orderStatus(order.getOrderStatus())
+                .orderDate(order.getOrderDate())
+                .items(order.getProducts().stream().map(OrderView::toItem).collect(Collectors.toList()));
+        Client client = order.getClient();
+        if (client != null) {
+            view.clientId(client.getId())
+                    .clientName(client.getName())
+                    .clientEmail(client.getEmail())
+                    .clientPhone(client.getPhone());
+        }
+        AddressShipping address = order.getDeliveryAddress();
+        if (address != null) {
+            view.street(address.getStreet())
+                    .city(address.getCity())
+                    .state(address.getState())
+                    .zipCode(address.getZipCode())
+                    .country(address.getCountry());
+        }
+        OrderTotalValue total = order.getTotal();
+        if (total != null) {
+            view.totalAmount(total.getAmount()).totalCurrency(total.getCurrency());
+        }
+        return view.build();
+    }
+
+    private static Item toItem(OrderItem item) {
+        Product product = item.getProduct();
+        return Item.builder()
+                .productId(product.getId())
+                .productName(product.getName())
+                .productDescription(product.getDescription())
+                .productPrice(product.getPrice())
+                .productStock(product.getStock())
+                .quantity(item.getQuantity())
+                .build();
+    }
+}
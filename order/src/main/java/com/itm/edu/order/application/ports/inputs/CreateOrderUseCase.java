@@ -10,4 +10,6 @@ import java.util.UUID;
 
 public interface CreateOrderUseCase {
     Order createOrder(CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping);
+
+    Order createOrder(UUID orderId, CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping);
 } 
@@ -0,0 +1,14 @@
+package com.itm.edu.order.application.ports.inputs;
+
+import com.itm.edu.order.domain.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface ExportOrdersUseCase {
+    /**
+     * Recorre las órdenes desde {@code since} (todas si es nulo) en orden de fecha
+     * y entrega cada una a {@code sink} a medida que se lee, sin acumularlas.
+     */
+    void exportOrders(LocalDateTime since, Consumer<Order> sink);
+}
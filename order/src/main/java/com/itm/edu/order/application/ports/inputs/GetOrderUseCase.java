@@ -1,11 +1,14 @@
 package com.itm.edu.order.application.ports.inputs;
 
+import com.itm.edu.order.application.dto.OrderPage;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.application.dto.OrderView;
 import com.itm.edu.order.domain.model.Order;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface GetOrderUseCase {
     Optional<Order> getOrder(UUID id);
-    List<Order> getAllOrders();
+    Optional<OrderView> getOrderView(UUID id);
+    OrderPage searchOrders(OrderSearchCriteria criteria);
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.itm.edu.order.application.ports.inputs;
+
+import com.itm.edu.order.application.dto.OrderIntakeStatus;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Recepción asíncrona de órdenes: la orden se acepta con un ID asignado y se
+ * persiste después, fuera del hilo de la petición.
+ */
+public interface SubmitOrderUseCase {
+    UUID submitOrder(CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping);
+
+    Optional<OrderIntakeStatus> getIntakeStatus(UUID orderId);
+}
@@ -8,4 +8,5 @@ public interface ClientRepositoryPort {
     Client save(Client client);
     Optional<Client> findById(UUID id);
     Optional<Client> findByEmail(String email);
+    Client upsertByEmail(Client client);
 } 
\ No newline at end of file
@@ -1,16 +1,45 @@
 package com.itm.edu.order.application.ports.outputs;
 
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.common.dto.ProductOrderDTO;
 import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface OrderRepositoryPort {
     Order save(Order order);
     Optional<Order> findById(UUID orderId);
-    List<Order> findAll();
+    List<Order> findPage(OrderSearchCriteria criteria, int limit);
+    void forEachSince(LocalDateTime since, Consumer<Order> action);
     void deleteById(UUID orderId);
     Order update(Order order);
     void flush();
+
+    boolean existsById(UUID orderId);
+
+    /**
+     * Cambia el estado solo si la orden sigue en {@code expected}, en una sola sentencia.
+     * Devuelve {@code false} si la orden no existe o ya no estaba en ese estado.
+     */
+    boolean transitionStatus(UUID orderId, OrderStatus expected, OrderStatus target);
+
+    List<ProductOrderDTO> findProductLines(UUID orderId);
+
+    /**
+     * Aplica varias transiciones desde {@code expected} en un solo lote.
+     * Devuelve los IDs de las órdenes que sí cambiaron de estado.
+     */
+    Set<UUID> transitionStatuses(Map<UUID, OrderStatus> targets, OrderStatus expected);
+
+    Set<UUID> findExistingIds(Collection<UUID> orderIds);
+
+    Map<UUID, List<ProductOrderDTO>> findProductLinesByOrderIds(Collection<UUID> orderIds);
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.itm.edu.order.application.ports.outputs;
+
+import com.itm.edu.order.domain.model.OrderStatusChange;
+
+import java.util.List;
+
+public interface OrderStatusHistoryPort {
+    void append(List<OrderStatusChange> changes);
+}
@@ -0,0 +1,10 @@
+package com.itm.edu.order.application.ports.outputs;
+
+import com.itm.edu.order.application.dto.OrderView;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderViewRepositoryPort {
+    Optional<OrderView> findById(UUID orderId);
+}
@@ -2,13 +2,28 @@ package com.itm.edu.order.application.ports.outputs;
 
 import com.itm.edu.order.domain.model.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ProductRepositoryPort {
     Product save(Product product);
     Optional<Product> findById(UUID id);
+    List<Product> findAllById(Collection<UUID> ids);
     List<Product> findAll();
     void deleteById(UUID id);
+
+    /**
+     * Descuenta el stock de cada producto solo si alcanza para la cantidad pedida.
+     * Devuelve los IDs de las líneas que no se pudieron descontar.
+     */
+    List<UUID> reserveStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Devuelve al stock de cada producto las unidades descontadas por
+     * {@link #reserveStock}, en un solo lote.
+     */
+    void releaseStock(Map<UUID, Integer> quantities);
 } 
\ No newline at end of file
@@ -5,10 +5,13 @@ import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
 import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
 import com.itm.edu.order.application.ports.outputs.ClientRepositoryPort;
 import com.itm.edu.order.application.ports.outputs.OrderPublisherPort;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
 import com.itm.edu.order.domain.model.Order;
 import com.itm.edu.order.domain.model.Product;
 import com.itm.edu.order.domain.model.OrderItem;
 import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.OrderStatusChange;
 import com.itm.edu.order.domain.valueobjects.AddressShipping;
 import com.itm.edu.order.domain.exception.BusinessException;
 import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
@@ -26,20 +29,29 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CreateOrderService implements CreateOrderUseCase {
+    private static final String SOURCE = "order-service";
+
     private final OrderRepositoryPort orderRepository;
     private final ProductRepositoryPort productRepository;
     private final ClientRepositoryPort clientRepository;
     private final OrderPublisherPort orderPublisher;
+    private final OrderStatusHistoryPort statusHistory;
 
     @Override
     @Transactional
     public Order createOrder(CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping) {
+        return createOrder(UUID.randomUUID(), clientDto, productQuantities, addressShipping);
+    }
+
+    @Override
+    @Transactional
+    public Order createOrder(UUID orderId, CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping) {
         validateOrderData(clientDto, productQuantities, addressShipping);
         
         // Crear y guardar el cliente
@@ -49,48 +61,38 @@ public class CreateOrderService implements CreateOrderUseCase {
         List<OrderItem> orderItems = createOrderItems(productQuantities);
         
         // Crear la orden usando el método de fábrica del dominio
-        Order order = Order.create(client, orderItems, addressShipping);
+        Order order = Order.create(orderId, client, orderItems, addressShipping);
         
         // Persistir la orden
         order = orderRepository.save(order);
+        statusHistory.append(List.of(OrderStatusChange.builder()
+            .orderId(order.getOrderId())
+            .toStatus(OrderStatus.PENDING_VALIDATION)
+            .changedAt(order.getOrderDate())
+            .source(SOURCE)
+            .build()));
         
-        // Forzar el flush de la transacción para asegurar que la orden se guarde
-        orderRepository.flush();
-        
-        // Publicar el evento de orden creada
+        // Registrar el evento de orden creada; se confirma junto con la orden
         publishOrderMessage(order);
 
+        // Reservar el stock al final, justo antes del commit, para retener lo mínimo los bloqueos de fila
+        orderRepository.flush();
+        reserveStock(order.getProducts());
+
         return order;
     }
 
     private Client createClient(CreateClientDto clientDto) {
-        // Primero buscar si ya existe un cliente con el mismo email
-        Optional<Client> existingClient = clientRepository.findByEmail(clientDto.getEmail());
-        
-        if (existingClient.isPresent()) {
-            // Si existe, actualizar los datos si es necesario
-            Client client = existingClient.get();
-            if (!client.getName().equals(clientDto.getName()) || !client.getPhone().equals(clientDto.getPhone())) {
-                client = Client.builder()
-                    .id(client.getId())
-                    .name(clientDto.getName())
-                    .email(clientDto.getEmail())
-                    .phone(clientDto.getPhone())
-                    .build();
-                return clientRepository.save(client);
-            }
-            return client;
-        }
-        
-        // Si no existe, crear uno nuevo
+        // Insertar o actualizar el cliente por email en una sola sentencia;
+        // si el email ya existe se conserva su ID
         Client client = Client.builder()
             .id(UUID.randomUUID())
             .name(clientDto.getName())
             .email(clientDto.getEmail())
             .phone(clientDto.getPhone())
             .build();
-            
-        return clientRepository.save(client);
+
+        return clientRepository.upsertByEmail(client);
     }
 
     private void validateOrderData(CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping) {
@@ -109,12 +111,18 @@ public class CreateOrderService implements CreateOrderUseCase {
         List<OrderItem> orderItems = new ArrayList<>();
         List<String> errors = new ArrayList<>();
 
+        // Cargar todos los productos de la orden en una sola consulta
+        Map<UUID, Product> products = productRepository.findAllById(productQuantities.keySet()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
         for (Map.Entry<UUID, BigDecimal> entry : productQuantities.entrySet()) {
             try {
-                Product product = productRepository.findById(entry.getKey())
-                    .orElseThrow(() -> new BusinessException("Producto no encontrado con ID: " + entry.getKey()));
+                Product product = products.get(entry.getKey());
+                if (product == null) {
+                    throw new BusinessException("Producto no encontrado con ID: " + entry.getKey());
+                }
 
-                validateProductStock(product, entry.getValue());
+                validateQuantity(product, entry.getValue());
                 
                 OrderItem orderItem = OrderItem.create(product, entry.getValue().intValue());
                 orderItems.add(orderItem);
@@ -130,13 +138,25 @@ public class CreateOrderService implements CreateOrderUseCase {
         return orderItems;
     }
 
-    private void validateProductStock(Product product, BigDecimal quantity) {
+    // El stock del producto puede venir de la caché local; el que decide es reserveStock
+    private void validateQuantity(Product product, BigDecimal quantity) {
         if (quantity.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException("La cantidad debe ser mayor a 0 para el producto: " + product.getId());
         }
-        
-        if (product.getStock() < quantity.intValue()) {
-            throw new BusinessException("Stock insuficiente para el producto: " + product.getName());
+    }
+
+    private void reserveStock(List<OrderItem> items) {
+        Map<UUID, Integer> quantities = items.stream()
+            .collect(Collectors.toMap(item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum));
+        Map<UUID, String> names = items.stream()
+            .collect(Collectors.toMap(item -> item.getProduct().getId(), item -> item.getProduct().getName(), (a, b) -> a));
+
+        List<UUID> failed = productRepository.reserveStock(quantities);
+        if (!failed.isEmpty()) {
+            String errors = failed.stream()
+                .map(id -> "Stock insuficiente para el producto: " + names.get(id))
+                .collect(Collectors.joining(", "));
+            throw new BusinessException("Errores en la validación de productos: " + errors);
         }
     }
 
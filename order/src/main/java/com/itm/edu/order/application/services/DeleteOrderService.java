@@ -2,19 +2,28 @@ package com.itm.edu.order.application.services;
 
 import com.itm.edu.order.application.ports.inputs.DeleteOrderUseCase;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
 import com.itm.edu.order.domain.exception.OrderNotFoundException;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderItem;
+import com.itm.edu.order.domain.model.OrderStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class DeleteOrderService implements DeleteOrderUseCase {
 
     private final OrderRepositoryPort orderRepositoryPort;
+    private final ProductRepositoryPort productRepositoryPort;
 
-    public DeleteOrderService(OrderRepositoryPort orderRepositoryPort) {
+    public DeleteOrderService(OrderRepositoryPort orderRepositoryPort, ProductRepositoryPort productRepositoryPort) {
         this.orderRepositoryPort = orderRepositoryPort;
+        this.productRepositoryPort = productRepositoryPort;
     }
 
     @Override
@@ -24,10 +33,21 @@ public class DeleteOrderService implements DeleteOrderUseCase {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
 
-        if (!orderRepositoryPort.findById(id).isPresent()) {
-            throw new OrderNotFoundException("Order not found with id: " + id);
+        Order order = orderRepositoryPort.findById(id)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
+
+        // Si la orden aún conservaba sus unidades, vuelven al catálogo con el borrado
+        if (holdsProductStock(order.getOrderStatus()) && order.getProducts() != null && !order.getProducts().isEmpty()) {
+            Map<UUID, Integer> quantities = order.getProducts().stream()
+                    .collect(Collectors.toMap(item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum));
+            productRepositoryPort.releaseStock(quantities);
         }
 
         orderRepositoryPort.deleteById(id);
     }
+
+    private static boolean holdsProductStock(String status) {
+        return Arrays.stream(OrderStatus.values())
+                .anyMatch(known -> known.name().equals(status) && known.holdsProductStock());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.itm.edu.order.application.services;
+
+import com.itm.edu.order.application.ports.inputs.ExportOrdersUseCase;
+import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.domain.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class ExportOrdersService implements ExportOrdersUseCase {
+
+    private final OrderRepositoryPort orderRepositoryPort;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDateTime since, Consumer<Order> sink) {
+        // Todas las páginas del export se leen en la misma transacción de solo lectura
+        orderRepositoryPort.forEachSince(since, sink);
+    }
+}
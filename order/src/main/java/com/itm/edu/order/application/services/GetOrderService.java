@@ -1,21 +1,43 @@
 package com.itm.edu.order.application.services;
 
+import com.itm.edu.order.application.dto.OrderPage;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.application.dto.OrderView;
 import com.itm.edu.order.application.ports.inputs.GetOrderUseCase;
+import com.itm.edu.order.application.ports.outputs.ClientRepositoryPort;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderViewRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
+import com.itm.edu.order.domain.exception.BusinessException;
 import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.Product;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class GetOrderService implements GetOrderUseCase {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepositoryPort orderRepositoryPort;
+    private final OrderViewRepositoryPort orderViewRepositoryPort;
+    private final ProductRepositoryPort productRepositoryPort;
+    private final ClientRepositoryPort clientRepositoryPort;
 
-    public GetOrderService(OrderRepositoryPort orderRepositoryPort) {
+    public GetOrderService(OrderRepositoryPort orderRepositoryPort, OrderViewRepositoryPort orderViewRepositoryPort,
+                           ProductRepositoryPort productRepositoryPort, ClientRepositoryPort clientRepositoryPort) {
         this.orderRepositoryPort = orderRepositoryPort;
+        this.orderViewRepositoryPort = orderViewRepositoryPort;
+        this.productRepositoryPort = productRepositoryPort;
+        this.clientRepositoryPort = clientRepositoryPort;
     }
 
     @Override
@@ -27,7 +49,63 @@ public class GetOrderService implements GetOrderUseCase {
     }
 
     @Override
-    public List<Order> getAllOrders() {
-        return orderRepositoryPort.findAll();
+    public Optional<OrderView> getOrderView(UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+        Optional<OrderView> view = orderViewRepositoryPort.findById(id);
+        if (view.isPresent()) {
+            return view.map(this::withCurrentDetails);
+        }
+        // Órdenes anteriores a la proyección: se arman desde el agregado hasta su próxima escritura
+        return orderRepositoryPort.findById(id).map(OrderView::from);
+    }
+
+    @Override
+    public OrderPage searchOrders(OrderSearchCriteria criteria) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        int size = criteria.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(criteria.getSize(), MAX_PAGE_SIZE);
+
+        // Se pide una fila extra para saber si hay una página siguiente
+        List<Order> rows = orderRepositoryPort.findPage(criteria, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Order> orders = hasNext ? rows.subList(0, size) : rows;
+
+        OrderPage.OrderPageBuilder page = OrderPage.builder()
+                .orders(orders)
+                .hasNext(hasNext);
+        if (hasNext) {
+            Order last = orders.get(orders.size() - 1);
+            page.nextOrderDate(last.getOrderDate()).nextOrderId(last.getOrderId());
+        }
+        return page.build();
+    }
+
+    // Producto y cliente actuales, como los muestra el listado que arma el agregado
+    private OrderView withCurrentDetails(OrderView view) {
+        List<OrderView.Item> items = view.getItems() != null ? view.getItems() : List.of();
+        Set<UUID> productIds = items.stream().map(OrderView.Item::getProductId).collect(Collectors.toSet());
+        if (!productIds.isEmpty()) {
+            Map<UUID, Product> products = productRepositoryPort.findAllById(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            for (OrderView.Item item : items) {
+                Product product = products.get(item.getProductId());
+                if (product != null) {
+                    item.setProductName(product.getName());
+                    item.setProductDescription(product.getDescription());
+                    item.setProductPrice(product.getPrice());
+                    item.setProductStock(product.getStock());
+                }
+            }
+        }
+        if (view.getClientId() != null) {
+            clientRepositoryPort.findById(view.getClientId()).ifPresent(client -> {
+                view.setClientName(client.getName());
+                view.setClientPhone(client.getPhone());
+            });
+        }
+        return view;
     }
-} 
\ No newline at end of file
+}
@@ -2,18 +2,31 @@ package com.itm.edu.order.application.services;
 
 import com.itm.edu.order.application.ports.inputs.UpdateOrderUseCase;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
 import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderItem;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.OrderStatusChange;
 import com.itm.edu.order.domain.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UpdateOrderService implements UpdateOrderUseCase {
+    private static final String SOURCE = "order-api";
+
     private final OrderRepositoryPort orderRepository;
+    private final ProductRepositoryPort productRepository;
+    private final OrderStatusHistoryPort statusHistory;
 
     @Override
     @Transactional
@@ -24,7 +37,7 @@ public class UpdateOrderService implements UpdateOrderUseCase {
         Order updatedOrder = existingOrder;
         
         if (orderDetails.getOrderStatus() != null) {
-            updatedOrder = updatedOrder.withUpdatedStatus(orderDetails.getOrderStatus());
+            updatedOrder = changeStatus(updatedOrder, orderDetails.getOrderStatus());
         }
         
         if (orderDetails.getClient() != null) {
@@ -37,4 +50,47 @@ public class UpdateOrderService implements UpdateOrderUseCase {
 
         return orderRepository.save(updatedOrder);
     }
-} 
\ No newline at end of file
+
+    // El cambio pasa por la máquina de estados y por la misma actualización condicional que usan
+    // las respuestas de stock: si una respuesta movió la orden entre la lectura y aquí, no se pisa
+    private Order changeStatus(Order order, String requested) {
+        OrderStatus current = parseStatus(order.getOrderStatus());
+        OrderStatus target = parseStatus(requested);
+        if (current == target) {
+            return order;
+        }
+        try {
+            current.requireTransitionTo(target);
+        } catch (IllegalStateException e) {
+            throw new BusinessException(e.getMessage());
+        }
+        if (!orderRepository.transitionStatus(order.getOrderId(), current, target)) {
+            throw new BusinessException("La orden " + order.getOrderId()
+                    + " cambió de estado mientras se actualizaba; intente de nuevo");
+        }
+        statusHistory.append(List.of(OrderStatusChange.builder()
+                .orderId(order.getOrderId())
+                .fromStatus(current)
+                .toStatus(target)
+                .changedAt(LocalDateTime.now())
+                .source(SOURCE)
+                .build()));
+
+        // Si la orden deja de seguir adelante, las unidades que descontó del catálogo vuelven
+        if (current.holdsProductStock() && !target.holdsProductStock()
+                && order.getProducts() != null && !order.getProducts().isEmpty()) {
+            Map<UUID, Integer> quantities = order.getProducts().stream()
+                    .collect(Collectors.toMap(item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum));
+            productRepository.releaseStock(quantities);
+        }
+        return order.withUpdatedStatus(target.name());
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Estado de orden desconocido: " + status);
+        }
+    }
+}
@@ -48,4 +48,9 @@ public class HttpStatusException extends RuntimeException {
     public static HttpStatusException internalServerError(String message) {
         return new HttpStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message);
     }
+
+    // 503 Service Unavailable
+    public static HttpStatusException serviceUnavailable(String message) {
+        return new HttpStatusException(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
 } 
\ No newline at end of file
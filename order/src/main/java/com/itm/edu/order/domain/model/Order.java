@@ -57,8 +57,12 @@ public class Order {
     }
 
     public static Order create(Client client, List<OrderItem> products, AddressShipping deliveryAddress) {
+        return create(UUID.randomUUID(), client, products, deliveryAddress);
+    }
+
+    public static Order create(UUID orderId, Client client, List<OrderItem> products, AddressShipping deliveryAddress) {
         return Order.builder()
-            .orderId(UUID.randomUUID())
+            .orderId(orderId)
             .client(client)
             .products(products)
             .deliveryAddress(deliveryAddress)
@@ -0,0 +1,39 @@
+package com.itm.edu.order.domain.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Estados de la orden y las transiciones permitidas entre ellos.
+ */
+public enum OrderStatus {
+    PENDING_VALIDATION,
+    STOCK_CONFIRMED,
+    CANCELLED_NO_STOCK,
+    UNAVAILABLE;
+
+    public Set<OrderStatus> allowedTransitions() {
+        return switch (this) {
+            case PENDING_VALIDATION -> EnumSet.of(STOCK_CONFIRMED, CANCELLED_NO_STOCK, UNAVAILABLE);
+            case STOCK_CONFIRMED, CANCELLED_NO_STOCK, UNAVAILABLE -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    /**
+     * Indica si en este estado la orden conserva las unidades que descontó del
+     * catálogo al crearse; al salir hacia uno que no las conserva se devuelven.
+     */
+    public boolean holdsProductStock() {
+        return this == PENDING_VALIDATION || this == STOCK_CONFIRMED;
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return allowedTransitions().contains(target);
+    }
+
+    public void requireTransitionTo(OrderStatus target) {
+        if (!canTransitionTo(target)) {
+            throw new IllegalStateException("Transición de estado no permitida: " + this + " -> " + target);
+        }
+    }
+}
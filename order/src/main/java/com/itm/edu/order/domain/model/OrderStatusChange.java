@@ -0,0 +1,22 @@
+package com.itm.edu.order.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Un cambio de estado de la orden tal como se registra en el historial. El
+ * estado de origen es nulo en la creación.
+ */
+@Getter
+@Builder
+public class OrderStatusChange {
+    private final UUID orderId;
+    private final OrderStatus fromStatus;
+    private final OrderStatus toStatus;
+    private final LocalDateTime changedAt;
+    private final String source;
+    private final String correlationId;
+}
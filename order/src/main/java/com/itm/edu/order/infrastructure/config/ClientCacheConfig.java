@@ -0,0 +1,31 @@
+package com.itm.edu.order.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itm.edu.order.domain.model.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ClientCacheConfig {
+
+    // Clientes vistos recientemente por email, para evitar reescribir clientes recurrentes
+    @Bean
+    public Cache<String, Client> recentClients(
+            @Value("${order.client-cache.maximum-size:5000}") long maximumSize,
+            @Value("${order.client-cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        Cache<String, Client> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "clients");
+        return cache;
+    }
+}
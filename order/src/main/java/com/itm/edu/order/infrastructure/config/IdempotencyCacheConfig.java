@@ -0,0 +1,31 @@
+package com.itm.edu.order.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itm.edu.order.infrastructure.idempotency.IdempotentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyCacheConfig {
+
+    // Respuestas completadas recientemente; los reintentos se resuelven sin ir a la base de datos
+    @Bean
+    public Cache<String, IdempotentResponse> idempotentResponses(
+            @Value("${order.idempotency.cache.maximum-size:10000}") long maximumSize,
+            @Value("${order.idempotency.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        Cache<String, IdempotentResponse> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+        return cache;
+    }
+}
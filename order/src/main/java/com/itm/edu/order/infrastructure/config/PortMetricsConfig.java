@@ -0,0 +1,19 @@
+package com.itm.edu.order.infrastructure.config;
+
+import com.itm.edu.common.metrics.PortMetricsPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "order.metrics.ports.enabled", havingValue = "true", matchIfMissing = true)
+public class PortMetricsConfig {
+
+    // Estático: los BeanPostProcessor se crean antes que el resto de la configuración
+    @Bean
+    public static PortMetricsPostProcessor portMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PortMetricsPostProcessor("com.itm.edu.order.application.ports", meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.itm.edu.order.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itm.edu.order.domain.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+public class ProductCacheConfig {
+
+    @Bean
+    public Cache<UUID, Product> productCache(
+            @Value("${order.product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${order.product-cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        Cache<UUID, Product> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Expone cache.gets{result=hit|miss}, cache.evictions y cache.size con cache=products
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+        return cache;
+    }
+}
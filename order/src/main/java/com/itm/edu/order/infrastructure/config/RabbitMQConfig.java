@@ -1,17 +1,28 @@
 package com.itm.edu.order.infrastructure.config;
 
+import com.itm.edu.common.messaging.SmileMessageConverter;
+import com.itm.edu.common.messaging.WireFormat;
+import com.itm.edu.common.messaging.WireFormatMessageConverters;
+import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.support.converter.DefaultClassMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 
+import java.util.Map;
+
 @Configuration
 @EnableRabbit
+@Profile("!perf")
 public class RabbitMQConfig {
 
     // Exchange y cola para creación de órdenes
@@ -23,12 +34,17 @@ public class RabbitMQConfig {
     public static final String STOCK_RESPONSE_QUEUE = "stock.response.queue";
     public static final String STOCK_RESPONSE_EXCHANGE = "stock.response.exchange";
     public static final String STOCK_RESPONSE_ROUTING_KEY = "stock.response.key";
+    // __TypeId__ con el que stock publica sus respuestas
+    public static final String STOCK_RESPONSE_TYPE_ID = "com.itm.edu.common.dto.events.StockUpdateResponseEvent";
 
     // Exchange y cola para actualizaciones de inventario
     public static final String STOCK_UPDATE_QUEUE = "stock.update.queue";
     public static final String STOCK_UPDATE_EXCHANGE = "stock.update.exchange";
     public static final String STOCK_UPDATE_ROUTING_KEY = "stock.update.key";
 
+    // Fanout para invalidar la caché de productos en todas las réplicas
+    public static final String PRODUCT_CACHE_EXCHANGE = "product.cache.exchange";
+
     // Colas
     @Bean
     public Queue orderQueue() {
@@ -45,6 +61,12 @@ public class RabbitMQConfig {
         return new Queue(STOCK_UPDATE_QUEUE, true);
     }
 
+    // Cola exclusiva por réplica, se elimina al cerrar la conexión
+    @Bean
+    public Queue productCacheQueue() {
+        return new AnonymousQueue();
+    }
+
     // Exchanges
     @Bean
     public DirectExchange orderExchange() {
@@ -61,6 +83,11 @@ public class RabbitMQConfig {
         return new DirectExchange(STOCK_UPDATE_EXCHANGE);
     }
 
+    @Bean
+    public FanoutExchange productCacheExchange() {
+        return new FanoutExchange(PRODUCT_CACHE_EXCHANGE);
+    }
+
     // Bindings
     @Bean
     public Binding orderBinding(Queue orderQueue, DirectExchange orderExchange) {
@@ -86,25 +113,82 @@ public class RabbitMQConfig {
             .with(STOCK_UPDATE_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding productCacheBinding(Queue productCacheQueue, FanoutExchange productCacheExchange) {
+        return BindingBuilder
+            .bind(productCacheQueue)
+            .to(productCacheExchange);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+        converter.setClassMapper(trustedClassMapper());
+        return converter;
     }
 
+    // Configuración de mensajes Smile, con los mismos paquetes de confianza
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public MessageConverter smileMessageConverter() {
+        SmileMessageConverter converter = new SmileMessageConverter();
+        converter.setClassMapper(trustedClassMapper());
+        return converter;
+    }
+
+    // Lee JSON y Smile según el content-type de cada mensaje y publica en order.messaging.wire-format
+    @Bean
+    @Primary
+    public MessageConverter messageConverter(@Value("${order.messaging.wire-format:json}") String wireFormat) {
+        return WireFormatMessageConverters.negotiating(
+            WireFormat.fromProperty(wireFormat), jsonMessageConverter(), smileMessageConverter());
+    }
+
+    // spring.rabbitmq.template.mandatory solo llega a plantillas armadas con RabbitTemplateConfigurer:
+    // sin mandatory el broker confirma los mensajes sin ruta y el outbox los daría por entregados
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(messageConverter);
+        template.setMandatory(true);
         return template;
     }
 
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
-            ConnectionFactory connectionFactory) {
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(jsonMessageConverter());
+        factory.setMessageConverter(messageConverter);
         return factory;
     }
-}
 
+    // Entrega hasta batch-size mensajes por invocación, o los que lleguen en receive-timeout-ms.
+    // El listener confirma a mano para poder rechazar solo el mensaje que falla
+    @Bean
+    public SimpleRabbitListenerContainerFactory stockResponseBatchContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            @Value("${order.stock-response.batch.size:100}") int batchSize,
+            @Value("${order.stock-response.batch.receive-timeout-ms:200}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setPrefetchCount(Math.max(batchSize, 250));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    // Los mismos paquetes de confianza que stock; su respuesta llega con el tipo de common
+    // y se lee con el evento propio de órdenes
+    private DefaultClassMapper trustedClassMapper() {
+        DefaultClassMapper classMapper = new DefaultClassMapper();
+        classMapper.setTrustedPackages("java.util", "java.lang", "com.itm.edu.common.dto", "com.itm.edu.common.dto.events");
+        classMapper.setIdClassMapping(Map.of(STOCK_RESPONSE_TYPE_ID, StockUpdateResponseEvent.class));
+        return classMapper;
+    }
+}
@@ -0,0 +1,284 @@
+package com.itm.edu.order.infrastructure.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.itm.edu.order.domain.exception.HttpStatusException;
+import com.itm.edu.order.infrastructure.persistence.entities.IdempotencyKeyEntity;
+import com.itm.edu.order.infrastructure.persistence.repository.JpaIdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta como mucho una vez cada solicitud con {@code Idempotency-Key}.
+ * <p>
+ * La clave se reclama con un INSERT sobre una tabla con clave única; quien la
+ * obtiene ejecuta la solicitud y, si responde 2xx, guarda la respuesta en la
+ * misma transacción que la orden. Los duplicados concurrentes del mismo nodo
+ * esperan el future del primero; los de otros nodos esperan a que la fila pase
+ * a COMPLETED. Los reintentos posteriores se sirven desde la caché en memoria o
+ * desde la tabla sin tocar productos, clientes ni RabbitMQ.
+ */
+@Slf4j
+@Component
+@Profile("!perf")
+public class IdempotentRequestHandler {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final JpaIdempotencyKeyRepository repository;
+    private final Cache<String, IdempotentResponse> responses;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final Duration waitTimeout;
+    private final long pollIntervalMs;
+    private final Duration staleAfter;
+    private final Duration retention;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentRequestHandler(JpaIdempotencyKeyRepository repository,
+                                    Cache<String, IdempotentResponse> idempotentResponses,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${order.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                    @Value("${order.idempotency.poll-interval-ms:100}") long pollIntervalMs,
+                                    @Value("${order.idempotency.stale-after:30s}") Duration staleAfter,
+                                    @Value("${order.idempotency.retention:24h}") Duration retention) {
+        this.repository = repository;
+        this.responses = idempotentResponses;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.waitTimeout = waitTimeout;
+        this.pollIntervalMs = pollIntervalMs;
+        this.staleAfter = staleAfter;
+        this.retention = retention;
+    }
+
+    public ResponseEntity<?> execute(String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw HttpStatusException.badRequest("Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String requestHash = fingerprint(request);
+
+        IdempotentResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return replay(key, requestHash, cached);
+        }
+
+        CompletableFuture<IdempotentResponse> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            IdempotentResponse first = awaitLocal(key, running);
+            // Sin respuesta guardada el primero falló y liberó la clave: esta solicitud puede intentarlo
+            return first != null ? replay(key, requestHash, first) : execute(key, request, action);
+        }
+
+        try {
+            return executeOnce(key, requestHash, action, mine);
+        } finally {
+            mine.complete(null);
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private ResponseEntity<?> executeOnce(String key, String requestHash, Supplier<ResponseEntity<?>> action,
+                                          CompletableFuture<IdempotentResponse> mine) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (!claim(key, requestHash)) {
+            Optional<IdempotentResponse> stored = findCompleted(key);
+            if (stored.isPresent()) {
+                responses.put(key, stored.get());
+                mine.complete(stored.get());
+                return replay(key, requestHash, stored.get());
+            }
+            if (takeOverStale(key, requestHash)) {
+                log.warn("Clave de idempotencia {} abandonada por otra solicitud; se retoma", key);
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                throw HttpStatusException.conflict("Ya hay una solicitud en curso con la misma Idempotency-Key");
+            }
+            sleep();
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                ResponseEntity<?> result = action.get();
+                if (result.getStatusCode().is2xxSuccessful()) {
+                    // Se confirma junto con la orden: no puede quedar una orden creada sin su respuesta
+                    store(key, requestHash, result);
+                } else {
+                    status.setRollbackOnly();
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+
+        HttpStatusCode statusCode = response.getStatusCode();
+        if (statusCode.is4xxClientError()) {
+            newTransactionTemplate.executeWithoutResult(status -> store(key, requestHash, response));
+        } else if (!statusCode.is2xxSuccessful()) {
+            // Los errores de servidor no se memorizan: el cliente puede reintentar
+            release(key);
+            return response;
+        }
+
+        IdempotentResponse stored = toStored(requestHash, response);
+        responses.put(key, stored);
+        mine.complete(stored);
+        return response;
+    }
+
+    private boolean claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyKeyEntity entity = IdempotencyKeyEntity.builder()
+                .idempotencyKey(key)
+                .requestHash(requestHash)
+                .status(IdempotencyKeyEntity.IN_PROGRESS)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> repository.saveAndFlush(entity));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private Optional<IdempotentResponse> findCompleted(String key) {
+        return newTransactionTemplate.execute(status -> repository.findById(key)
+                .filter(entity -> IdempotencyKeyEntity.COMPLETED.equals(entity.getStatus()))
+                .map(entity -> IdempotentResponse.builder()
+                        .requestHash(entity.getRequestHash())
+                        .status(entity.getResponseStatus())
+                        .location(entity.getResponseLocation())
+                        .body(entity.getResponseBody())
+                        .build()));
+    }
+
+    private boolean takeOverStale(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = newTransactionTemplate.execute(status ->
+                repository.takeOverStale(key, requestHash, now, now.minus(staleAfter)));
+        return updated != null && updated == 1;
+    }
+
+    private void store(String key, String requestHash, ResponseEntity<?> response) {
+        IdempotentResponse stored = toStored(requestHash, response);
+        repository.complete(key, stored.getStatus(), stored.getLocation(), stored.getBody(), LocalDateTime.now());
+    }
+
+    private void release(String key) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> repository.release(key));
+        } catch (RuntimeException e) {
+            // Si tampoco se puede liberar, la clave se podrá retomar cuando venza stale-after
+            log.error("No se pudo liberar la clave de idempotencia {}: {}", key, e.getMessage());
+        }
+    }
+
+    private IdempotentResponse awaitLocal(String key, CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HttpStatusException.conflict("Ya hay una solicitud en curso con la misma Idempotency-Key");
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Tiempo de espera agotado para la clave de idempotencia {}", key);
+            throw HttpStatusException.conflict("Ya hay una solicitud en curso con la misma Idempotency-Key");
+        }
+    }
+
+    private ResponseEntity<?> replay(String key, String requestHash, IdempotentResponse stored) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw HttpStatusException.unprocessableEntity("La Idempotency-Key ya se usó con una solicitud distinta");
+        }
+        log.info("Solicitud repetida con Idempotency-Key {}; se devuelve la respuesta original", key);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.getStatus())
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON);
+        if (stored.getLocation() != null) {
+            builder.location(URI.create(stored.getLocation()));
+        }
+        try {
+            return builder.body(stored.getBody() != null ? objectMapper.readTree(stored.getBody()) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta idempotente corrupta para la clave " + key, e);
+        }
+    }
+
+    private IdempotentResponse toStored(String requestHash, ResponseEntity<?> response) {
+        try {
+            URI location = response.getHeaders().getLocation();
+            return IdempotentResponse.builder()
+                    .requestHash(requestHash)
+                    .status(response.getStatusCode().value())
+                    .location(location != null ? location.toString() : null)
+                    .body(response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta: " + e.getMessage(), e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud: " + e.getMessage(), e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HttpStatusException.conflict("Ya hay una solicitud en curso con la misma Idempotency-Key");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Eliminadas {} claves de idempotencia vencidas", deleted);
+        }
+    }
+}
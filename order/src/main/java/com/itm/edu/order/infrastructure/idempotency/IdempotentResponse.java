@@ -0,0 +1,19 @@
+package com.itm.edu.order.infrastructure.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Respuesta original de una solicitud con {@code Idempotency-Key}, tal como se
+ * repite a los reintentos. El cuerpo se guarda ya serializado en JSON.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class IdempotentResponse {
+    private final String requestHash;
+    private final int status;
+    private final String location;
+    private final String body;
+}
@@ -0,0 +1,173 @@
+package com.itm.edu.order.infrastructure.intake;
+
+import com.itm.edu.order.application.dto.OrderIntakeStatus;
+import com.itm.edu.order.application.ports.inputs.CreateOrderUseCase;
+import com.itm.edu.order.application.ports.inputs.SubmitOrderUseCase;
+import com.itm.edu.order.domain.exception.HttpStatusException;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola acotada de órdenes aceptadas con 202. Un grupo fijo de hilos toma las
+ * órdenes por lotes y las persiste en una sola transacción; si el lote falla,
+ * cada orden se reintenta en su propia transacción para aislar la que falla.
+ * Se activa con {@code order.intake.async.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "order.intake.async.enabled", havingValue = "true")
+public class AsyncOrderIntake implements SubmitOrderUseCase {
+
+    private final CreateOrderUseCase createOrderUseCase;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<IntakeRequest> queue;
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, String> rejected;
+    private final int workers;
+    private final int batchSize;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    public AsyncOrderIntake(CreateOrderUseCase createOrderUseCase,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${order.intake.async.queue-capacity:1000}") int queueCapacity,
+                            @Value("${order.intake.async.workers:4}") int workers,
+                            @Value("${order.intake.async.batch-size:20}") int batchSize,
+                            @Value("${order.intake.async.rejected-retention:10000}") int rejectedRetention) {
+        this.createOrderUseCase = createOrderUseCase;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.rejected = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+                return size() > rejectedRetention;
+            }
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread worker = new Thread(this::runWorker, "order-intake-" + i);
+            worker.start();
+            workerThreads.add(worker);
+        }
+        log.info("Recepción asíncrona de órdenes activa con {} hilos y lotes de {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workerThreads) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} órdenes aceptadas quedaron sin procesar al detener el servicio", queue.size());
+        }
+    }
+
+    @Override
+    public UUID submitOrder(CreateClientDto clientDto, Map<UUID, BigDecimal> productQuantities, AddressShipping addressShipping) {
+        UUID orderId = UUID.randomUUID();
+        pending.add(orderId);
+        if (!queue.offer(new IntakeRequest(orderId, clientDto, productQuantities, addressShipping))) {
+            pending.remove(orderId);
+            throw HttpStatusException.serviceUnavailable("La cola de órdenes está llena, intente más tarde");
+        }
+        return orderId;
+    }
+
+    @Override
+    public Optional<OrderIntakeStatus> getIntakeStatus(UUID orderId) {
+        if (pending.contains(orderId)) {
+            return Optional.of(OrderIntakeStatus.accepted(orderId));
+        }
+        String reason = rejected.get(orderId);
+        return reason != null ? Optional.of(OrderIntakeStatus.rejected(orderId, reason)) : Optional.empty();
+    }
+
+    private void runWorker() {
+        List<IntakeRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                IntakeRequest first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error inesperado procesando el lote de órdenes: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void processBatch(List<IntakeRequest> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::create));
+            batch.forEach(request -> pending.remove(request.getOrderId()));
+            log.debug("Lote de {} órdenes persistido", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Falló el lote de {} órdenes, se procesan una a una: {}", batch.size(), e.getMessage());
+            batch.forEach(this::processSingle);
+        }
+    }
+
+    private void processSingle(IntakeRequest request) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> create(request));
+        } catch (RuntimeException e) {
+            log.error("Orden {} rechazada: {}", request.getOrderId(), e.getMessage());
+            rejected.put(request.getOrderId(), e.getMessage());
+        } finally {
+            pending.remove(request.getOrderId());
+        }
+    }
+
+    private void create(IntakeRequest request) {
+        createOrderUseCase.createOrder(request.getOrderId(), request.getClientDto(),
+            request.getProductQuantities(), request.getAddressShipping());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class IntakeRequest {
+        private final UUID orderId;
+        private final CreateClientDto clientDto;
+        private final Map<UUID, BigDecimal> productQuantities;
+        private final AddressShipping addressShipping;
+    }
+}
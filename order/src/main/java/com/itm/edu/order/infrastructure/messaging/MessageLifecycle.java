@@ -0,0 +1,55 @@
+package com.itm.edu.order.infrastructure.messaging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Marcas de tiempo que acompañan a una orden en su viaje hasta stock y de vuelta.
+ * Viajan como cabeceras AMQP en milisegundos epoch (la propiedad {@code timestamp}
+ * de AMQP solo tiene resolución de segundos) y stock las devuelve en la respuesta
+ * junto con el id de correlación.
+ */
+@Getter
+@Builder
+public class MessageLifecycle {
+    public static final String CREATED_AT_HEADER = "x-order-created-at";
+    public static final String PUBLISHED_AT_HEADER = "x-order-published-at";
+    public static final String STOCK_RECEIVED_AT_HEADER = "x-stock-received-at";
+    public static final String STOCK_REPLIED_AT_HEADER = "x-stock-replied-at";
+    // Orden a la que pertenece una actualización de stock
+    public static final String ORDER_ID_HEADER = "x-order-id";
+
+    public static final MessageLifecycle NONE = MessageLifecycle.builder().build();
+
+    private final String correlationId;
+    private final Long createdAt;
+    private final Long publishedAt;
+    private final Long stockReceivedAt;
+    private final Long stockRepliedAt;
+
+    public static MessageLifecycle from(Map<String, ?> headers, String correlationId) {
+        return MessageLifecycle.builder()
+                .correlationId(correlationId)
+                .createdAt(epochMillis(headers.get(CREATED_AT_HEADER)))
+                .publishedAt(epochMillis(headers.get(PUBLISHED_AT_HEADER)))
+                .stockReceivedAt(epochMillis(headers.get(STOCK_RECEIVED_AT_HEADER)))
+                .stockRepliedAt(epochMillis(headers.get(STOCK_REPLIED_AT_HEADER)))
+                .build();
+    }
+
+    private static Long epochMillis(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
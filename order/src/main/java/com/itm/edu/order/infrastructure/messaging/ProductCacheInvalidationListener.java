@@ -0,0 +1,24 @@
+package com.itm.edu.order.infrastructure.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.itm.edu.order.domain.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidationListener {
+
+    private final Cache<UUID, Product> productCache;
+
+    @RabbitListener(queues = "#{productCacheQueue.name}")
+    public void handleInvalidation(UUID productId) {
+        log.debug("Invalidando producto {} en la caché local", productId);
+        productCache.invalidate(productId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.itm.edu.order.infrastructure.messaging;
+
+import com.itm.edu.order.infrastructure.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidationPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publish(UUID productId) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PRODUCT_CACHE_EXCHANGE, "", productId);
+        } catch (AmqpException e) {
+            // Las demás réplicas verán el cambio cuando expire el TTL de su caché
+            log.warn("No se pudo difundir la invalidación del producto {}: {}", productId, e.getMessage());
+        }
+    }
+}
@@ -1,34 +1,127 @@
 package com.itm.edu.order.infrastructure.messaging;
 
 import com.itm.edu.common.dto.OrderMessageDTO;
-import com.itm.edu.order.application.ports.outputs.OrderPublisherPort;
 import com.itm.edu.order.infrastructure.config.RabbitMQConfig;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica en el exchange de órdenes sin esperar cada confirmación del broker.
+ * Como mucho {@code order.publisher.max-in-flight} mensajes pueden estar sin
+ * confirmar; al llenarse la ventana el siguiente envío espera a que llegue un ack.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class RabbitOrderPublisher implements OrderPublisherPort {
+public class RabbitOrderPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Timer confirmLatency;
+    private final Counter acks;
+    private final Counter nacks;
+    private final Counter returns;
+
+    public RabbitOrderPublisher(RabbitTemplate rabbitTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${order.publisher.max-in-flight:256}") int maxInFlight) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        Gauge.builder("order.publisher.in-flight", this, RabbitOrderPublisher::inFlightCount)
+            .description("Mensajes de orden enviados y pendientes de confirmación")
+            .register(meterRegistry);
+        this.confirmLatency = Timer.builder("order.publisher.confirm.latency")
+            .description("Tiempo entre el envío y la confirmación del broker")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.acks = meterRegistry.counter("order.publisher.confirms", "result", "ack");
+        this.nacks = meterRegistry.counter("order.publisher.confirms", "result", "nack");
+        this.returns = meterRegistry.counter("order.publisher.confirms", "result", "returned");
+    }
+
+    /**
+     * Envía el mensaje y devuelve un future que se completa cuando el broker lo
+     * confirma. Se completa con error si el broker responde nack o devuelve el
+     * mensaje por no poder enrutarlo; reintentar o aparcar queda a cargo del llamador.
+     * El id de correlación y la hora de creación viajan en el mensaje para medir el
+     * ciclo de validación completo (ver {@link MessageLifecycle}).
+     */
+    public CompletableFuture<Void> publishAsync(OrderMessageDTO orderMessage, String correlationId, LocalDateTime createdAt) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        long start = System.nanoTime();
+        CorrelationData correlation = new CorrelationData(correlationId);
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            inFlight.release();
+            confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else if (!confirm.isAck()) {
+                nacks.increment();
+                result.completeExceptionally(new AmqpException("nack: " + confirm.getReason()));
+            } else if (correlation.getReturned() != null) {
+                // El return llega antes que el ack: el broker aceptó el mensaje pero no lo enrutó
+                returns.increment();
+                result.completeExceptionally(
+                    new AmqpException("mensaje devuelto: " + correlation.getReturned().getReplyText()));
+            } else {
+                acks.increment();
+                result.complete(null);
+            }
+        });
 
-    @Override
-    public void publish(OrderMessageDTO orderMessage) {
         try {
             rabbitTemplate.convertAndSend(
                 RabbitMQConfig.ORDER_EXCHANGE,
                 RabbitMQConfig.ORDER_ROUTING_KEY,
-                orderMessage
+                orderMessage,
+                lifecycleHeaders(correlationId, createdAt),
+                correlation
             );
-            log.info("✅ Mensaje de orden enviado a {}: {}", RabbitMQConfig.ORDER_EXCHANGE, orderMessage);
+            log.debug("Mensaje de orden {} enviado a {}", orderMessage.getOrderId(), RabbitMQConfig.ORDER_EXCHANGE);
         } catch (Exception e) {
             log.error("❌ Error enviando mensaje: {}", e.getMessage());
-            e.printStackTrace();
-            throw e;
+            correlation.getFuture().completeExceptionally(e);
         }
+        return result;
+    }
+
+    private MessagePostProcessor lifecycleHeaders(String correlationId, LocalDateTime createdAt) {
+        long createdAtMillis = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return message -> {
+            MessageProperties properties = message.getMessageProperties();
+            properties.setCorrelationId(correlationId);
+            properties.setHeader(MessageLifecycle.CREATED_AT_HEADER, createdAtMillis);
+            properties.setHeader(MessageLifecycle.PUBLISHED_AT_HEADER, System.currentTimeMillis());
+            return message;
+        };
     }
-}
 
+    int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+}
@@ -1,32 +1,65 @@
 package com.itm.edu.order.infrastructure.messaging;
 
-import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.OrderStatusChange;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
 import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
 import com.itm.edu.order.application.dto.events.StockValidationStatus;
 import com.itm.edu.order.domain.exception.BusinessException;
 import com.itm.edu.order.infrastructure.config.RabbitMQConfig;
+import com.itm.edu.order.infrastructure.metrics.ValidationLatencyRecorder;
 import com.itm.edu.common.dto.ProductOrderDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StockEventListenerService {
+    private static final String SOURCE = "stock-service";
+
     private final OrderRepositoryPort orderRepository;
     private final RabbitTemplate rabbitTemplate;
+    private final OrderStatusHistoryPort statusHistory;
+    private final ValidationLatencyRecorder latencyRecorder;
+    private final ProductRepositoryPort productRepository;
+
+    // En modo lote la cola la consume StockResponseBatchListener; este método queda como fallback por mensaje
+    @RabbitListener(queues = "${rabbitmq.queues.stock-response}",
+            autoStartup = "#{!${order.stock-response.batch.enabled:false}}")
+    @Transactional
+    public void onStockValidationResponse(StockUpdateResponseEvent event, Message message) {
+        handleStockValidationResponse(event, MessageLifecycle.from(
+                message.getMessageProperties().getHeaders(), message.getMessageProperties().getCorrelationId()));
+    }
 
-    @RabbitListener(queues = "${rabbitmq.queues.stock-response}")
     @Transactional
     public void handleStockValidationResponse(StockUpdateResponseEvent event) {
+        handleStockValidationResponse(event, MessageLifecycle.NONE);
+    }
+
+    @Transactional
+    public void handleStockValidationResponse(StockUpdateResponseEvent event, MessageLifecycle lifecycle) {
         log.info("Recibida respuesta de validación de stock para orden: {}", event);
 
         if (event == null || event.getOrderId() == null || event.getStatus() == null) {
@@ -34,57 +67,163 @@ public class StockEventListenerService {
             return;
         }
 
-        Order order = orderRepository.findById(event.getOrderId())
-                .orElseThrow(() -> new BusinessException("Orden no encontrada: " + event.getOrderId()));
+        OrderStatus target = determineOrderStatus(event.getStatus());
+        boolean applied = orderRepository.transitionStatus(event.getOrderId(), OrderStatus.PENDING_VALIDATION, target);
+        if (!applied) {
+            if (!orderRepository.existsById(event.getOrderId())) {
+                throw new BusinessException("Orden no encontrada: " + event.getOrderId());
+            }
+            // Respuesta duplicada o tardía: la orden ya salió de PENDING_VALIDATION
+            log.warn("La orden {} no está en estado PENDING_VALIDATION; se ignora la respuesta {}",
+                    event.getOrderId(), event.getStatus());
+            return;
+        }
+        log.info("Estado de la orden {} actualizado a: {}", event.getOrderId(), target);
+        long handledAt = System.currentTimeMillis();
+        statusHistory.append(List.of(statusChange(event.getOrderId(), target, lifecycle, handledAt)));
+        latencyRecorder.record(lifecycle, handledAt);
 
-        if (!"PENDING_VALIDATION".equals(order.getOrderStatus())) {
-            log.warn("La orden {} no está en estado PENDING_VALIDATION (estado actual: {})", 
-                    order.getOrderId(), order.getOrderStatus());
+        if (event.getStatus() == StockValidationStatus.RESERVED) {
+            sendStockUpdateAfterCommit(event.getOrderId(), orderRepository.findProductLines(event.getOrderId()));
+        } else if (!target.holdsProductStock()) {
+            releaseProductStock(orderRepository.findProductLines(event.getOrderId()));
+        }
+    }
+
+    /**
+     * Aplica las respuestas de un lote en una sola transacción: un lote JDBC con todas
+     * las transiciones, una consulta de existencia para las que no aplicaron y otra
+     * para las líneas de las órdenes reservadas.
+     */
+    @Transactional
+    public void handleStockValidationResponses(List<StockUpdateResponseEvent> events) {
+        handleStockValidationResponses(events, Map.of());
+    }
+
+    @Transactional
+    public void handleStockValidationResponses(List<StockUpdateResponseEvent> events,
+                                               Map<UUID, MessageLifecycle> lifecycles) {
+        Map<UUID, StockUpdateResponseEvent> byOrder = new LinkedHashMap<>();
+        for (StockUpdateResponseEvent event : events) {
+            if (event == null || event.getOrderId() == null || event.getStatus() == null) {
+                log.error("Evento de stock inválido recibido en lote: {}", event);
+            } else if (byOrder.putIfAbsent(event.getOrderId(), event) != null) {
+                log.warn("Respuesta de stock repetida en el lote para la orden {}; se ignora", event.getOrderId());
+            }
+        }
+        if (byOrder.isEmpty()) {
             return;
         }
 
-        try {
-            String newStatus = determineOrderStatus(event.getStatus());
-            Order updatedOrder = order.withUpdatedStatus(newStatus);
-            orderRepository.save(updatedOrder);
-            log.info("Estado de la orden {} actualizado a: {}", updatedOrder.getOrderId(), updatedOrder.getOrderStatus());
-            
-            if (event.getStatus() == StockValidationStatus.RESERVED) {
-                sendStockUpdateMessage(updatedOrder);
+        Map<UUID, OrderStatus> targets = new LinkedHashMap<>();
+        byOrder.forEach((orderId, event) -> targets.put(orderId, determineOrderStatus(event.getStatus())));
+        Set<UUID> applied = orderRepository.transitionStatuses(targets, OrderStatus.PENDING_VALIDATION);
+
+        List<UUID> notApplied = targets.keySet().stream()
+                .filter(orderId -> !applied.contains(orderId))
+                .collect(Collectors.toList());
+        if (!notApplied.isEmpty()) {
+            Set<UUID> existing = orderRepository.findExistingIds(notApplied);
+            for (UUID orderId : notApplied) {
+                if (existing.contains(orderId)) {
+                    log.warn("La orden {} no está en estado PENDING_VALIDATION; se ignora la respuesta {}",
+                            orderId, byOrder.get(orderId).getStatus());
+                } else {
+                    log.error("Orden no encontrada: {}; se descarta la respuesta de stock", orderId);
+                }
             }
-        } catch (Exception e) {
-            log.error("Error al actualizar el estado de la orden {}: {}", order.getOrderId(), e.getMessage());
-            throw new BusinessException("Error al procesar la respuesta de stock: " + e.getMessage());
         }
+
+        long handledAt = System.currentTimeMillis();
+        List<OrderStatusChange> changes = new ArrayList<>(applied.size());
+        for (UUID orderId : applied) {
+            MessageLifecycle lifecycle = lifecycles.getOrDefault(orderId, MessageLifecycle.NONE);
+            changes.add(statusChange(orderId, targets.get(orderId), lifecycle, handledAt));
+            latencyRecorder.record(lifecycle, handledAt);
+        }
+        statusHistory.append(changes);
+
+        List<UUID> reserved = applied.stream()
+                .filter(orderId -> byOrder.get(orderId).getStatus() == StockValidationStatus.RESERVED)
+                .collect(Collectors.toList());
+        List<UUID> released = applied.stream()
+                .filter(orderId -> !targets.get(orderId).holdsProductStock())
+                .collect(Collectors.toList());
+        List<UUID> withLines = new ArrayList<>(reserved);
+        withLines.addAll(released);
+        Map<UUID, List<ProductOrderDTO>> lines = orderRepository.findProductLinesByOrderIds(withLines);
+        for (UUID orderId : reserved) {
+            sendStockUpdateAfterCommit(orderId, lines.getOrDefault(orderId, List.of()));
+        }
+        releaseProductStock(released.stream()
+                .flatMap(orderId -> lines.getOrDefault(orderId, List.of()).stream())
+                .collect(Collectors.toList()));
+        log.info("Lote de respuestas de stock procesado: {} eventos, {} transiciones aplicadas",
+                events.size(), applied.size());
     }
 
-    private String determineOrderStatus(StockValidationStatus status) {
+    private OrderStatusChange statusChange(UUID orderId, OrderStatus target, MessageLifecycle lifecycle, long handledAt) {
+        return OrderStatusChange.builder()
+            .orderId(orderId)
+            .fromStatus(OrderStatus.PENDING_VALIDATION)
+            .toStatus(target)
+            .changedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(handledAt), ZoneId.systemDefault()))
+            .source(SOURCE)
+            .correlationId(lifecycle.getCorrelationId())
+            .build();
+    }
+
+    // La orden no sigue adelante: las unidades que descontó del catálogo al crearse vuelven en un solo lote
+    private void releaseProductStock(List<ProductOrderDTO> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Map<UUID, Integer> quantities = lines.stream()
+                .collect(Collectors.toMap(ProductOrderDTO::getProductId, ProductOrderDTO::getQuantity, Integer::sum));
+        productRepository.releaseStock(quantities);
+    }
+
+    private OrderStatus determineOrderStatus(StockValidationStatus status) {
         return switch (status) {
-            case RESERVED -> "STOCK_CONFIRMED";
-            case CANCELLED_NO_STOCK -> "CANCELLED_NO_STOCK";
-            case UNAVAILABLE -> "UNAVAILABLE";
+            case RESERVED -> OrderStatus.STOCK_CONFIRMED;
+            case CANCELLED_NO_STOCK -> OrderStatus.CANCELLED_NO_STOCK;
+            case UNAVAILABLE -> OrderStatus.UNAVAILABLE;
         };
     }
 
-    private void sendStockUpdateMessage(Order order) {
-        try {
-            List<ProductOrderDTO> products = order.getProducts().stream()
-                .map(item -> ProductOrderDTO.builder()
-                    .productId(item.getProduct().getId())
-                    .quantity(item.getQuantity())
-                    .build())
-                .collect(Collectors.toList());
+    // RabbitTemplate no participa de la transacción: si el envío saliera antes del commit y luego
+    // se revirtiera, stock confirmaría la reserva de una orden que sigue en PENDING_VALIDATION
+    private void sendStockUpdateAfterCommit(UUID orderId, List<ProductOrderDTO> products) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendStockUpdateMessage(orderId, products);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sendStockUpdateMessage(orderId, products);
+            }
+        });
+    }
 
+    // La transición ya está confirmada, así que un fallo no se propaga: cortaría los envíos
+    // pendientes del lote. Sin confirmación, la reserva vence en stock y la libera su reaper
+    private void sendStockUpdateMessage(UUID orderId, List<ProductOrderDTO> products) {
+        try {
             rabbitTemplate.convertAndSend(
                 RabbitMQConfig.STOCK_UPDATE_EXCHANGE,
                 RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY,
-                products
+                products,
+                message -> {
+                    // Stock confirma la reserva de la orden; el cuerpo conserva la lista de productos
+                    message.getMessageProperties().setHeader(MessageLifecycle.ORDER_ID_HEADER, orderId.toString());
+                    return message;
+                }
             );
-            log.info("Mensaje de actualización de stock enviado para orden: {}", order.getOrderId());
+            log.info("Mensaje de actualización de stock enviado para orden: {}", orderId);
         } catch (Exception e) {
             log.error("Error enviando mensaje de actualización de stock para orden {}: {}", 
-                order.getOrderId(), e.getMessage());
-            throw new BusinessException("Error al enviar actualización de stock: " + e.getMessage());
+                orderId, e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.itm.edu.order.infrastructure.messaging;
+
+import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.order.domain.exception.BusinessException;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consume {@code stock.response.queue} por lotes con confirmación manual. Si la
+ * transacción del lote confirma, todo el lote se confirma al broker de una vez; si
+ * falla, se reintenta mensaje por mensaje y solo se rechaza el que vuelve a fallar,
+ * para que un evento problemático no bloquee al resto ni devuelva el lote entero.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "order.stock-response.batch.enabled", havingValue = "true")
+public class StockResponseBatchListener {
+
+    private final StockEventListenerService stockEventListenerService;
+
+    @RabbitListener(queues = "${rabbitmq.queues.stock-response}", containerFactory = "stockResponseBatchContainerFactory")
+    public void handleStockValidationResponses(List<Message<StockUpdateResponseEvent>> messages, Channel channel)
+            throws IOException {
+        List<StockUpdateResponseEvent> events = new ArrayList<>(messages.size());
+        Map<UUID, MessageLifecycle> lifecycles = new HashMap<>();
+        for (Message<StockUpdateResponseEvent> message : messages) {
+            StockUpdateResponseEvent event = message.getPayload();
+            events.add(event);
+            if (event.getOrderId() != null) {
+                lifecycles.putIfAbsent(event.getOrderId(), MessageLifecycle.from(message.getHeaders(),
+                        message.getHeaders().get(AmqpHeaders.CORRELATION_ID, String.class)));
+            }
+        }
+
+        try {
+            stockEventListenerService.handleStockValidationResponses(events, lifecycles);
+        } catch (Exception e) {
+            log.warn("Falló el lote de {} respuestas de stock, se procesan una a una: {}", events.size(), e.getMessage());
+            processOneByOne(messages, lifecycles, channel);
+            return;
+        }
+        // Las entregas de un lote llegan en orden por el mismo canal: la última confirma todas
+        channel.basicAck(deliveryTag(messages.get(messages.size() - 1)), true);
+    }
+
+    private void processOneByOne(List<Message<StockUpdateResponseEvent>> messages,
+                                 Map<UUID, MessageLifecycle> lifecycles, Channel channel) throws IOException {
+        for (Message<StockUpdateResponseEvent> message : messages) {
+            StockUpdateResponseEvent event = message.getPayload();
+            try {
+                stockEventListenerService.handleStockValidationResponse(event,
+                        lifecycles.getOrDefault(event.getOrderId(), MessageLifecycle.NONE));
+            } catch (BusinessException e) {
+                // Mismo desenlace que en el modo por mensaje: el evento no se puede aplicar y se descarta
+                log.error("Respuesta de stock descartada {}: {}", event, e.getMessage());
+            } catch (RuntimeException e) {
+                // Un fallo de infraestructura se reintenta una vez; si vuelve a fallar se descarta
+                // en lugar de devolver la respuesta a la cola indefinidamente
+                boolean requeue = !Boolean.TRUE.equals(message.getHeaders().get(AmqpHeaders.REDELIVERED, Boolean.class));
+                log.error("Respuesta de stock rechazada {} (reencolar: {}): {}", event, requeue, e.getMessage());
+                channel.basicReject(deliveryTag(message), requeue);
+                continue;
+            }
+            channel.basicAck(deliveryTag(message), false);
+        }
+    }
+
+    private static long deliveryTag(Message<?> message) {
+        return message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+    }
+}
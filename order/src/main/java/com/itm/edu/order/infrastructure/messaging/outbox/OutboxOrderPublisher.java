@@ -0,0 +1,49 @@
+package com.itm.edu.order.infrastructure.messaging.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.order.application.ports.outputs.OrderPublisherPort;
+import com.itm.edu.order.domain.exception.BusinessException;
+import com.itm.edu.order.infrastructure.persistence.entities.OutboxEventEntity;
+import com.itm.edu.order.infrastructure.persistence.repository.JpaOutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Publica la orden escribiendo una fila en el outbox dentro de la transacción
+ * de la orden. El envío real al broker lo hace {@link OutboxRelay}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Profile("!perf")
+public class OutboxOrderPublisher implements OrderPublisherPort {
+
+    private final JpaOutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OrderMessageDTO message) {
+        try {
+            OutboxEventEntity event = OutboxEventEntity.builder()
+                .id(UUID.randomUUID())
+                .aggregateId(message.getOrderId())
+                .payload(objectMapper.writeValueAsString(message))
+                .createdAt(LocalDateTime.now())
+                .build();
+            outboxRepository.save(event);
+            log.debug("Evento de orden {} registrado en el outbox", message.getOrderId());
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("No se pudo serializar el mensaje de la orden: " + e.getMessage());
+        }
+    }
+}
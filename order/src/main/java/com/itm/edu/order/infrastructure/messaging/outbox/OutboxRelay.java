@@ -0,0 +1,161 @@
+package com.itm.edu.order.infrastructure.messaging.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.order.infrastructure.messaging.RabbitOrderPublisher;
+import com.itm.edu.order.infrastructure.persistence.entities.OutboxEventEntity;
+import com.itm.edu.order.infrastructure.persistence.repository.JpaOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drena el outbox por lotes hacia {@code order.exchange}. Todos los mensajes del
+ * lote se envían antes de esperar las confirmaciones del broker, de modo que el
+ * costo por lote es aproximadamente un round trip y no uno por mensaje. Los
+ * eventos con nack o devueltos se reintentan con espera exponencial desde
+ * {@code order.outbox.retry-backoff-ms} y quedan aparcados en la tabla al superar
+ * {@code order.outbox.max-attempts}; cada {@code order.outbox.redrive-interval-ms}
+ * los aparcados reciben una nueva tanda de intentos.
+ */
+@Slf4j
+@Component
+@Profile("!perf")
+public class OutboxRelay {
+
+    private final JpaOutboxEventRepository outboxRepository;
+    private final RabbitOrderPublisher rabbitOrderPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long confirmTimeoutMs;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+    private final Counter parked;
+
+    public OutboxRelay(JpaOutboxEventRepository outboxRepository,
+                       RabbitOrderPublisher rabbitOrderPublisher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${order.outbox.batch-size:100}") int batchSize,
+                       @Value("${order.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${order.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${order.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${order.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitOrderPublisher = rabbitOrderPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.parked = Counter.builder("order.outbox.parked")
+            .description("Eventos del outbox que agotaron sus intentos y esperan el re-drive")
+            .register(meterRegistry);
+    }
+
+    // Sigue drenando solo mientras los lotes salen completos y confirmados
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:500}")
+    public void drain() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.redrive-interval-ms:900000}",
+               initialDelayString = "${order.outbox.redrive-interval-ms:900000}")
+    public void redriveParked() {
+        Integer redriven = transactionTemplate.execute(status -> outboxRepository.redriveParked(maxAttempts));
+        if (redriven != null && redriven > 0) {
+            log.warn("Outbox: {} eventos aparcados vuelven a reintentarse", redriven);
+        }
+    }
+
+    /**
+     * Publica un lote y devuelve cuántos eventos confirmó el broker. Los que fallan
+     * esperan su turno de reintento y no vuelven a tomarse en esta pasada.
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEventEntity> batch = outboxRepository.lockNextBatch(batchSize, maxAttempts, now);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> confirmations = new ArrayList<>(batch.size());
+        for (OutboxEventEntity event : batch) {
+            try {
+                OrderMessageDTO message = objectMapper.readValue(event.getPayload(), OrderMessageDTO.class);
+                confirmations.add(rabbitOrderPublisher.publishAsync(message, event.getId().toString(), event.getCreatedAt()));
+            } catch (Exception e) {
+                confirmations.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        List<OutboxEventEntity> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEventEntity event = batch.get(i);
+            String failure = awaitConfirm(confirmations.get(i), deadline);
+            if (failure == null) {
+                published.add(event);
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(failure.length() > 1000 ? failure.substring(0, 1000) : failure);
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                if (event.getAttempts() >= maxAttempts) {
+                    parked.increment();
+                    log.error("❌ Evento {} de la orden {} aparcado tras {} intentos: {}",
+                        event.getId(), event.getAggregateId(), event.getAttempts(), failure);
+                } else {
+                    log.warn("Evento {} de la orden {} no confirmado (intento {}): {}",
+                        event.getId(), event.getAggregateId(), event.getAttempts(), failure);
+                }
+            }
+        }
+
+        outboxRepository.deleteAllInBatch(published);
+        log.debug("Outbox: {} de {} eventos confirmados por el broker", published.size(), batch.size());
+        return published.size();
+    }
+
+    // Espera exponencial: retry-backoff-ms, el doble en cada intento, hasta max-backoff-ms
+    private Duration backoff(int attempts) {
+        long delay = retryBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    private String awaitConfirm(CompletableFuture<Void> confirmation, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            confirmation.get(remaining, TimeUnit.NANOSECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrumpido";
+        } catch (ExecutionException e) {
+            return e.getCause().getMessage();
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.itm.edu.order.infrastructure.metrics;
+
+import com.itm.edu.order.infrastructure.messaging.MessageLifecycle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra el timer {@value #METRIC} del viaje de validación de una orden,
+ * separado por etapa: espera en el outbox, espera en la cola de stock,
+ * procesamiento en stock, manejo de la respuesta en órdenes y el total desde la
+ * creación. Cada etapa se registra solo si llegaron las dos marcas que la acotan;
+ * las diferencias negativas por desfase de relojes entre servicios cuentan como cero.
+ */
+@Component
+public class ValidationLatencyRecorder {
+
+    static final String METRIC = "order.validation.roundtrip";
+
+    private final Timer outbox;
+    private final Timer queue;
+    private final Timer stock;
+    private final Timer response;
+    private final Timer total;
+
+    public ValidationLatencyRecorder(MeterRegistry meterRegistry) {
+        this.outbox = timer(meterRegistry, "outbox");
+        this.queue = timer(meterRegistry, "queue");
+        this.stock = timer(meterRegistry, "stock");
+        this.response = timer(meterRegistry, "response");
+        this.total = timer(meterRegistry, "total");
+    }
+
+    public void record(MessageLifecycle lifecycle, long handledAt) {
+        record(outbox, lifecycle.getCreatedAt(), lifecycle.getPublishedAt());
+        record(queue, lifecycle.getPublishedAt(), lifecycle.getStockReceivedAt());
+        record(stock, lifecycle.getStockReceivedAt(), lifecycle.getStockRepliedAt());
+        record(response, lifecycle.getStockRepliedAt(), handledAt);
+        record(total, lifecycle.getCreatedAt(), handledAt);
+    }
+
+    private void record(Timer timer, Long from, Long to) {
+        if (from != null && to != null) {
+            timer.record(Math.max(0, to - from), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(METRIC)
+                .description("Tiempo de validación de una orden por etapa")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
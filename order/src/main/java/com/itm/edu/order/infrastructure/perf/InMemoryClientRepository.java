@@ -0,0 +1,65 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.order.application.ports.outputs.ClientRepositoryPort;
+import com.itm.edu.order.domain.model.Client;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clientes en memoria para el perfil perf, indexados por ID y por email. El
+ * upsert conserva el ID del email existente, como el ON CONFLICT de la base.
+ */
+@Component
+@Profile("perf")
+public class InMemoryClientRepository implements ClientRepositoryPort {
+
+    private final Map<UUID, Client> byId = new ConcurrentHashMap<>();
+    private final Map<String, Client> byEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public Client save(Client client) {
+        Client previous = byEmail.put(client.getEmail(), client);
+        byId.put(client.getId(), client);
+        InMemoryTransactionManager.onRollback(() -> restore(client, previous));
+        return client;
+    }
+
+    @Override
+    public Optional<Client> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public Optional<Client> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email));
+    }
+
+    @Override
+    public Client upsertByEmail(Client client) {
+        Client[] previous = new Client[1];
+        Client saved = byEmail.compute(client.getEmail(), (email, existing) -> {
+            previous[0] = existing;
+            return new Client(existing != null ? existing.getId() : client.getId(),
+                    client.getName(), client.getEmail(), client.getPhone());
+        });
+        byId.put(saved.getId(), saved);
+        InMemoryTransactionManager.onRollback(() -> restore(saved, previous[0]));
+        return saved;
+    }
+
+    private void restore(Client written, Client previous) {
+        if (previous != null) {
+            byEmail.put(previous.getEmail(), previous);
+            byId.put(previous.getId(), previous);
+        } else {
+            byEmail.remove(written.getEmail(), written);
+            byId.remove(written.getId(), written);
+        }
+    }
+}
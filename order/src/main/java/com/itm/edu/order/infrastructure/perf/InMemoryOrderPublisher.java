@@ -0,0 +1,44 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.order.application.ports.outputs.OrderPublisherPort;
+import com.itm.edu.order.infrastructure.messaging.RabbitOrderPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sustituye al outbox en el perfil perf: publica en el bus de la JVM al confirmarse
+ * la transacción de la orden, que es cuando el relay lo haría con la base real.
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryOrderPublisher implements OrderPublisherPort {
+
+    private final RabbitOrderPublisher rabbitOrderPublisher;
+
+    @Override
+    public void publish(OrderMessageDTO message) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(message, createdAt);
+                }
+            });
+        } else {
+            send(message, createdAt);
+        }
+    }
+
+    private void send(OrderMessageDTO message, LocalDateTime createdAt) {
+        rabbitOrderPublisher.publishAsync(message, UUID.randomUUID().toString(), createdAt);
+    }
+}
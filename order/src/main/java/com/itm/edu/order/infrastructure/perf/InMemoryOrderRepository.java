@@ -0,0 +1,199 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.common.dto.ProductOrderDTO;
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderItem;
+import com.itm.edu.order.domain.model.OrderStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Órdenes en memoria para el perfil perf. Un índice ordenado por
+ * (orderDate, orderId) sirve la paginación por clave y la exportación igual que
+ * las consultas de la base; las transiciones de estado son compare-and-set sobre
+ * el mapa, con la misma semántica que el UPDATE condicional.
+ */
+@Component
+@Profile("perf")
+public class InMemoryOrderRepository implements OrderRepositoryPort {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final Map<UUID, Order> orders = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<OrderKey> byDate = new ConcurrentSkipListSet<>();
+
+    @Override
+    public Order save(Order order) {
+        put(order);
+        return order;
+    }
+
+    @Override
+    public Optional<Order> findById(UUID orderId) {
+        return Optional.ofNullable(orders.get(orderId));
+    }
+
+    @Override
+    public List<Order> findPage(OrderSearchCriteria criteria, int limit) {
+        NavigableSet<OrderKey> candidates = criteria.getAfterOrderDate() != null && criteria.getAfterOrderId() != null
+                ? byDate.headSet(new OrderKey(criteria.getAfterOrderDate(), criteria.getAfterOrderId()), false)
+                : byDate;
+        List<Order> page = new ArrayList<>(limit);
+        for (OrderKey key : candidates.descendingSet()) {
+            if (page.size() == limit || (criteria.getFrom() != null && key.orderDate().isBefore(criteria.getFrom()))) {
+                break;
+            }
+            Order order = orders.get(key.orderId());
+            if (order != null && matches(order, criteria)) {
+                page.add(order);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void forEachSince(LocalDateTime since, Consumer<Order> action) {
+        Set<OrderKey> keys = since != null ? byDate.tailSet(new OrderKey(since, MIN_ID)) : byDate;
+        for (OrderKey key : keys) {
+            Order order = orders.get(key.orderId());
+            if (order != null) {
+                action.accept(order);
+            }
+        }
+    }
+
+    @Override
+    public void deleteById(UUID orderId) {
+        Order removed = orders.remove(orderId);
+        if (removed != null) {
+            byDate.remove(OrderKey.of(removed));
+            InMemoryTransactionManager.onRollback(() -> put(removed));
+        }
+    }
+
+    @Override
+    public Order update(Order order) {
+        put(order);
+        return order;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public boolean existsById(UUID orderId) {
+        return orders.containsKey(orderId);
+    }
+
+    @Override
+    public boolean transitionStatus(UUID orderId, OrderStatus expected, OrderStatus target) {
+        expected.requireTransitionTo(target);
+        Order current = orders.get(orderId);
+        if (current == null || !expected.name().equals(current.getOrderStatus())) {
+            return false;
+        }
+        boolean applied = orders.replace(orderId, current, current.withUpdatedStatus(target.name()));
+        if (applied) {
+            InMemoryTransactionManager.onRollback(() -> orders.computeIfPresent(orderId, (id, order) -> current));
+        }
+        return applied;
+    }
+
+    @Override
+    public List<ProductOrderDTO> findProductLines(UUID orderId) {
+        return findById(orderId).map(this::productLines).orElse(List.of());
+    }
+
+    @Override
+    public Set<UUID> transitionStatuses(Map<UUID, OrderStatus> targets, OrderStatus expected) {
+        Set<UUID> applied = new HashSet<>();
+        targets.forEach((orderId, target) -> {
+            if (transitionStatus(orderId, expected, target)) {
+                applied.add(orderId);
+            }
+        });
+        return applied;
+    }
+
+    @Override
+    public Set<UUID> findExistingIds(Collection<UUID> orderIds) {
+        return orderIds.stream().filter(orders::containsKey).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Map<UUID, List<ProductOrderDTO>> findProductLinesByOrderIds(Collection<UUID> orderIds) {
+        Map<UUID, List<ProductOrderDTO>> lines = new HashMap<>();
+        for (UUID orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order != null) {
+                lines.put(orderId, productLines(order));
+            }
+        }
+        return lines;
+    }
+
+    private void put(Order order) {
+        Order previous = orders.put(order.getOrderId(), order);
+        byDate.add(OrderKey.of(order));
+        InMemoryTransactionManager.onRollback(() -> {
+            if (previous != null) {
+                orders.put(previous.getOrderId(), previous);
+            } else {
+                orders.remove(order.getOrderId());
+                byDate.remove(OrderKey.of(order));
+            }
+        });
+    }
+
+    private boolean matches(Order order, OrderSearchCriteria criteria) {
+        return (criteria.getStatus() == null || criteria.getStatus().equals(order.getOrderStatus()))
+                && (criteria.getClientEmail() == null || criteria.getClientEmail().equals(order.getClient().getEmail()))
+                && (criteria.getTo() == null || order.getOrderDate().isBefore(criteria.getTo()));
+    }
+
+    private List<ProductOrderDTO> productLines(Order order) {
+        List<ProductOrderDTO> lines = new ArrayList<>(order.getProducts().size());
+        for (OrderItem item : order.getProducts()) {
+            lines.add(ProductOrderDTO.builder()
+                    .productId(item.getProduct().getId())
+                    .quantity(item.getQuantity())
+                    .build());
+        }
+        return lines;
+    }
+
+    private record OrderKey(LocalDateTime orderDate, UUID orderId) implements Comparable<OrderKey> {
+        private static final Comparator<OrderKey> ORDER =
+                Comparator.comparing(OrderKey::orderDate).thenComparing(OrderKey::orderId);
+
+        static OrderKey of(Order order) {
+            return new OrderKey(order.getOrderDate(), order.getOrderId());
+        }
+
+        @Override
+        public int compareTo(OrderKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
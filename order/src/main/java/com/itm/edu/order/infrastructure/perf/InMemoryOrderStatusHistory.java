@@ -0,0 +1,38 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.domain.model.OrderStatusChange;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Historial de estados en memoria para el perfil perf, de solo inserción.
+ */
+@Component
+@Profile("perf")
+public class InMemoryOrderStatusHistory implements OrderStatusHistoryPort {
+
+    private final Map<UUID, Queue<OrderStatusChange>> changes = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(List<OrderStatusChange> batch) {
+        for (OrderStatusChange change : batch) {
+            Queue<OrderStatusChange> history =
+                    changes.computeIfAbsent(change.getOrderId(), orderId -> new ConcurrentLinkedQueue<>());
+            history.add(change);
+            InMemoryTransactionManager.onRollback(() -> history.remove(change));
+        }
+    }
+
+    public List<OrderStatusChange> findByOrderId(UUID orderId) {
+        return List.copyOf(changes.getOrDefault(orderId, new ConcurrentLinkedQueue<>()));
+    }
+}
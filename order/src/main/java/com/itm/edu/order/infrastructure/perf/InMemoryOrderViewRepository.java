@@ -0,0 +1,27 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.order.application.dto.OrderView;
+import com.itm.edu.order.application.ports.outputs.OrderViewRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * En memoria la proyección no necesita almacenamiento propio: se arma a partir
+ * de la orden guardada en {@link InMemoryOrderRepository}.
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryOrderViewRepository implements OrderViewRepositoryPort {
+
+    private final InMemoryOrderRepository orders;
+
+    @Override
+    public Optional<OrderView> findById(UUID orderId) {
+        return orders.findById(orderId).map(OrderView::from);
+    }
+}
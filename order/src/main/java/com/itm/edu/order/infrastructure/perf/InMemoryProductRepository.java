@@ -0,0 +1,103 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
+import com.itm.edu.order.domain.model.Product;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo en memoria para el perfil perf. La reserva descuenta cada producto con
+ * un compare-and-set sobre el mapa, igual que el UPDATE condicional por stock.
+ */
+@Component
+@Profile("perf")
+public class InMemoryProductRepository implements ProductRepositoryPort {
+
+    private final Map<UUID, Product> products = new ConcurrentHashMap<>();
+
+    @Override
+    public Product save(Product product) {
+        Product previous = products.put(product.getId(), product);
+        InMemoryTransactionManager.onRollback(() -> restore(product.getId(), previous));
+        return product;
+    }
+
+    @Override
+    public Optional<Product> findById(UUID id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        List<Product> found = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return new ArrayList<>(products.values());
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        Product removed = products.remove(id);
+        if (removed != null) {
+            InMemoryTransactionManager.onRollback(() -> products.put(id, removed));
+        }
+    }
+
+    @Override
+    public List<UUID> reserveStock(Map<UUID, Integer> quantities) {
+        List<UUID> failed = new ArrayList<>();
+        quantities.forEach((id, quantity) -> {
+            if (!decrement(id, quantity)) {
+                failed.add(id);
+            }
+        });
+        return failed;
+    }
+
+    @Override
+    public void releaseStock(Map<UUID, Integer> quantities) {
+        // Un descuento negativo siempre alcanza; si el producto ya no existe no hay a dónde devolver
+        quantities.forEach((id, quantity) -> decrement(id, -quantity));
+    }
+
+    private boolean decrement(UUID id, int quantity) {
+        while (true) {
+            Product current = products.get(id);
+            if (current == null || current.getStock() < quantity) {
+                return false;
+            }
+            Product reserved = current.withUpdatedDetails(
+                    current.getName(), current.getDescription(), current.getPrice(), current.getStock() - quantity);
+            if (products.replace(id, current, reserved)) {
+                InMemoryTransactionManager.onRollback(() -> decrement(id, -quantity));
+                return true;
+            }
+        }
+    }
+
+    private void restore(UUID id, Product previous) {
+        if (previous != null) {
+            products.put(id, previous);
+        } else {
+            products.remove(id);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.messaging.SmileMessageConverter;
+import com.itm.edu.common.messaging.WireFormat;
+import com.itm.edu.common.messaging.WireFormatMessageConverters;
+import com.itm.edu.common.perf.InJvmMessageBus;
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.order.application.dto.events.StockValidationStatus;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.infrastructure.config.RabbitMQConfig;
+import com.itm.edu.order.infrastructure.messaging.MessageLifecycle;
+import com.itm.edu.order.infrastructure.messaging.StockEventListenerService;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+/**
+ * Perfil perf: la orden recorre el mismo camino (controlador, caso de uso,
+ * publicador, respuesta de stock) pero sin PostgreSQL ni RabbitMQ. Los puertos de
+ * salida son los adaptadores en memoria de este paquete y el broker lo reemplaza
+ * {@link InJvmMessageBus}, con un stock simulado que responde a cada orden con
+ * {@code order.perf.stock-reply}.
+ */
+@Configuration
+@Profile("perf")
+public class PerfConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+
+    @Bean
+    public MessageConverter messageConverter(@Value("${order.messaging.wire-format:json}") String wireFormat) {
+        return WireFormatMessageConverters.negotiating(
+            WireFormat.fromProperty(wireFormat), new Jackson2JsonMessageConverter(), new SmileMessageConverter());
+    }
+
+    @Bean
+    public InJvmMessageBus rabbitTemplate(MessageConverter messageConverter,
+                                          @Value("${order.perf.bus.consumer-threads:4}") int consumerThreads) {
+        return new InJvmMessageBus(messageConverter, consumerThreads);
+    }
+
+    // Se suscribe al terminar de crear los singletons: los listeners dependen a su vez del bus
+    @Bean
+    public SmartInitializingSingleton inJvmBusSubscriptions(
+            InJvmMessageBus bus,
+            StockEventListenerService stockEventListener,
+            Cache<UUID, Product> productCache,
+            @Value("${order.perf.stock-reply:RESERVED}") StockValidationStatus stockReply) {
+        return () -> {
+            bus.subscribe(RabbitMQConfig.ORDER_EXCHANGE, RabbitMQConfig.ORDER_ROUTING_KEY, OrderMessageDTO.class,
+                (order, message) -> replyFromStock(bus, order, message, stockReply));
+            bus.subscribe(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE, RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
+                StockUpdateResponseEvent.class, stockEventListener::onStockValidationResponse);
+            bus.subscribe(RabbitMQConfig.PRODUCT_CACHE_EXCHANGE, "", UUID.class,
+                (productId, message) -> productCache.invalidate(productId));
+        };
+    }
+
+    private static void replyFromStock(InJvmMessageBus bus, OrderMessageDTO order, Message inbound,
+                                       StockValidationStatus status) {
+        long receivedAt = System.currentTimeMillis();
+        MessageProperties request = inbound.getMessageProperties();
+        MessagePostProcessor lifecycle = message -> {
+            MessageProperties properties = message.getMessageProperties();
+            properties.setCorrelationId(request.getCorrelationId());
+            properties.setHeader(MessageLifecycle.CREATED_AT_HEADER, request.getHeader(MessageLifecycle.CREATED_AT_HEADER));
+            properties.setHeader(MessageLifecycle.PUBLISHED_AT_HEADER, request.getHeader(MessageLifecycle.PUBLISHED_AT_HEADER));
+            properties.setHeader(MessageLifecycle.STOCK_RECEIVED_AT_HEADER, receivedAt);
+            properties.setHeader(MessageLifecycle.STOCK_REPLIED_AT_HEADER, System.currentTimeMillis());
+            return message;
+        };
+        bus.convertAndSend(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE, RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
+            StockUpdateResponseEvent.builder().orderId(order.getOrderId()).status(status).build(), lifecycle);
+    }
+}
@@ -3,16 +3,23 @@ package com.itm.edu.order.infrastructure.persistence;
 import com.itm.edu.order.application.ports.outputs.ClientRepositoryPort;
 import com.itm.edu.order.domain.model.Client;
 import com.itm.edu.order.infrastructure.persistence.repository.JpaClientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
+@Profile("!perf")
 public class ClientRepositoryAdapter implements ClientRepositoryPort {
     private final JpaClientRepository clientRepository;
+    private final Cache<String, Client> recentClients;
 
     @Override
     public Client save(Client client) {
@@ -28,4 +35,33 @@ public class ClientRepositoryAdapter implements ClientRepositoryPort {
     public Optional<Client> findByEmail(String email) {
         return clientRepository.findByEmail(email);
     }
+
+    @Override
+    public Client upsertByEmail(Client client) {
+        // Cliente recurrente sin cambios: no hace falta escribir
+        Client known = recentClients.getIfPresent(client.getEmail());
+        if (known != null
+                && Objects.equals(known.getName(), client.getName())
+                && Objects.equals(known.getPhone(), client.getPhone())) {
+            return known;
+        }
+
+        Client saved = clientRepository.upsertByEmail(client);
+        remember(saved);
+        return saved;
+    }
+
+    private void remember(Client client) {
+        // Solo se recuerda una vez confirmado, para no devolver un ID que se revirtió
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentClients.put(client.getEmail(), client);
+                }
+            });
+        } else {
+            recentClients.put(client.getEmail(), client);
+        }
+    }
 } 
\ No newline at end of file
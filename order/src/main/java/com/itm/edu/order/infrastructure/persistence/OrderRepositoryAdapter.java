@@ -1,30 +1,63 @@
 package com.itm.edu.order.infrastructure.persistence;
 
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.common.dto.ProductOrderDTO;
 import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.infrastructure.persistence.entities.ClientEntity;
 import com.itm.edu.order.infrastructure.persistence.entities.OrderEntity;
 import com.itm.edu.order.infrastructure.persistence.mapper.OrderMapper;
 import com.itm.edu.order.infrastructure.persistence.repository.JpaOrderRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
+@Profile("!perf")
 public class OrderRepositoryAdapter implements OrderRepositoryPort {
 
     private final JpaOrderRepository jpaOrderRepository;
     private final OrderMapper orderMapper;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderViewRepositoryAdapter orderViewRepository;
+
+    private static final String TRANSITION_STATUS_SQL =
+            "UPDATE orders SET order_status = ? WHERE order_id = ? AND order_status = ?";
 
     @Override
     public Order save(Order order) {
-        OrderEntity entity = orderMapper.toEntity(order);
+        OrderEntity entity = toEntity(order);
         OrderEntity savedEntity = jpaOrderRepository.save(entity);
-        return orderMapper.toDomain(savedEntity);
+        Order saved = orderMapper.toDomain(savedEntity);
+        orderViewRepository.project(saved);
+        return saved;
+    }
+
+    // El cliente ya existe: se enlaza por ID sin cargarlo ni fusionar sus datos con los de la orden
+    private OrderEntity toEntity(Order order) {
+        OrderEntity entity = orderMapper.toEntity(order);
+        if (order.getClient() != null) {
+            entity.setClient(entityManager.getReference(ClientEntity.class, order.getClient().getId()));
+        }
+        return entity;
     }
 
     @Override
@@ -34,26 +67,119 @@ public class OrderRepositoryAdapter implements OrderRepositoryPort {
     }
 
     @Override
-    public List<Order> findAll() {
-        return jpaOrderRepository.findAll().stream()
+    public List<Order> findPage(OrderSearchCriteria criteria, int limit) {
+        return jpaOrderRepository.findPage(criteria, limit).stream()
                 .map(orderMapper::toDomain)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void forEachSince(LocalDateTime since, Consumer<Order> action) {
+        forEachSince(since, action, JpaOrderRepository.EXPORT_PAGE_SIZE);
+    }
+
+    void forEachSince(LocalDateTime since, Consumer<Order> action, int pageSize) {
+        // Páginas por keyset con el grafo completo: dos consultas por página sin importar los ítems
+        LocalDateTime afterOrderDate = null;
+        UUID afterOrderId = null;
+        while (true) {
+            List<OrderEntity> page = jpaOrderRepository.findExportPage(since, afterOrderDate, afterOrderId, pageSize);
+            page.forEach(entity -> action.accept(orderMapper.toDomain(entity)));
+            if (page.size() < pageSize) {
+                return;
+            }
+            OrderEntity last = page.get(page.size() - 1);
+            afterOrderDate = last.getOrderDate();
+            afterOrderId = last.getOrderId();
+            // Vaciar el contexto de persistencia por página para que el heap no crezca con el export
+            entityManager.clear();
+        }
+    }
+
     @Override
     public void deleteById(UUID orderId) {
         jpaOrderRepository.deleteById(orderId);
+        orderViewRepository.delete(List.of(orderId));
     }
 
     @Override
     public Order update(Order order) {
-        OrderEntity entity = orderMapper.toEntity(order);
+        OrderEntity entity = toEntity(order);
         OrderEntity updatedEntity = jpaOrderRepository.save(entity);
-        return orderMapper.toDomain(updatedEntity);
+        Order updated = orderMapper.toDomain(updatedEntity);
+        orderViewRepository.project(updated);
+        return updated;
     }
 
     @Override
     public void flush() {
         jpaOrderRepository.flush();
     }
-} 
\ No newline at end of file
+
+    @Override
+    public boolean existsById(UUID orderId) {
+        return jpaOrderRepository.existsById(orderId);
+    }
+
+    @Override
+    public boolean transitionStatus(UUID orderId, OrderStatus expected, OrderStatus target) {
+        expected.requireTransitionTo(target);
+        boolean applied = jpaOrderRepository.transitionStatus(orderId, expected.name(), target.name()) == 1;
+        if (applied) {
+            orderViewRepository.updateStatus(orderId, target);
+        }
+        return applied;
+    }
+
+    @Override
+    public List<ProductOrderDTO> findProductLines(UUID orderId) {
+        return jpaOrderRepository.findProductLines(orderId);
+    }
+
+    @Override
+    public Set<UUID> transitionStatuses(Map<UUID, OrderStatus> targets, OrderStatus expected) {
+        if (targets.isEmpty()) {
+            return Set.of();
+        }
+        targets.values().forEach(expected::requireTransitionTo);
+        List<Map.Entry<UUID, OrderStatus>> transitions = new ArrayList<>(targets.entrySet());
+
+        // Todas las transiciones viajan en un solo lote JDBC
+        int[][] updated = jdbcTemplate.batchUpdate(TRANSITION_STATUS_SQL, transitions, transitions.size(), (ps, transition) -> {
+            ps.setString(1, transition.getValue().name());
+            ps.setObject(2, transition.getKey());
+            ps.setString(3, expected.name());
+        });
+
+        Set<UUID> applied = new HashSet<>();
+        for (int i = 0; i < transitions.size(); i++) {
+            if (updated[0][i] == 1) {
+                applied.add(transitions.get(i).getKey());
+            }
+        }
+
+        Map<UUID, OrderStatus> appliedStatuses = new HashMap<>();
+        applied.forEach(orderId -> appliedStatuses.put(orderId, targets.get(orderId)));
+        orderViewRepository.updateStatuses(appliedStatuses);
+        return applied;
+    }
+
+    @Override
+    public Set<UUID> findExistingIds(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jpaOrderRepository.findExistingIds(orderIds));
+    }
+
+    @Override
+    public Map<UUID, List<ProductOrderDTO>> findProductLinesByOrderIds(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        return jpaOrderRepository.findProductLinesByOrderIds(orderIds).stream()
+                .collect(Collectors.groupingBy(
+                        row -> (UUID) row[0],
+                        Collectors.mapping(row -> new ProductOrderDTO((UUID) row[1], (Integer) row[2]), Collectors.toList())));
+    }
+}
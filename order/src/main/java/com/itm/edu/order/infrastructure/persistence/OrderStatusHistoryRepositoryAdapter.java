@@ -0,0 +1,44 @@
+package com.itm.edu.order.infrastructure.persistence;
+
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.domain.model.OrderStatusChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserta en {@code order_status_history}. Nunca actualiza ni borra: cada cambio
+ * de estado es una fila nueva y todas las de una llamada viajan en un solo lote JDBC.
+ */
+@Component
+@RequiredArgsConstructor
+@Profile("!perf")
+public class OrderStatusHistoryRepositoryAdapter implements OrderStatusHistoryPort {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_status_history (id, order_id, from_status, to_status, changed_at, source, correlation_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(List<OrderStatusChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, change.getOrderId());
+            ps.setString(3, change.getFromStatus() != null ? change.getFromStatus().name() : null);
+            ps.setString(4, change.getToStatus().name());
+            ps.setTimestamp(5, Timestamp.valueOf(change.getChangedAt()));
+            ps.setString(6, change.getSource());
+            ps.setString(7, change.getCorrelationId());
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.itm.edu.order.infrastructure.persistence;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itm.edu.order.application.dto.OrderView;
+import com.itm.edu.order.application.ports.outputs.OrderViewRepositoryPort;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.infrastructure.persistence.entities.OrderViewEntity;
+import com.itm.edu.order.infrastructure.persistence.repository.JpaOrderViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Lee y mantiene {@code order_view}. Las escrituras las invoca
+ * {@link OrderRepositoryAdapter} en la misma transacción que el cambio de la orden.
+ */
+@Component
+@RequiredArgsConstructor
+@Profile("!perf")
+public class OrderViewRepositoryAdapter implements OrderViewRepositoryPort {
+
+    private static final TypeReference<List<StoredItem>> ITEMS = new TypeReference<>() {};
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE order_view SET order_status = ?, updated_at = ? WHERE order_id = ?";
+
+    private final JpaOrderViewRepository jpaOrderViewRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Optional<OrderView> findById(UUID orderId) {
+        return jpaOrderViewRepository.findById(orderId).map(this::toView);
+    }
+
+    void project(Order order) {
+        OrderView view = OrderView.from(order);
+        jpaOrderViewRepository.save(OrderViewEntity.builder()
+                .orderId(view.getOrderId())
+                .orderStatus(view.getOrderStatus())
+                .orderDate(view.getOrderDate())
+                .clientId(view.getClientId())
+                .clientEmail(view.getClientEmail())
+                .street(view.getStreet())
+                .city(view.getCity())
+                .state(view.getState())
+                .zipCode(view.getZipCode())
+                .country(view.getCountry())
+                .totalAmount(view.getTotalAmount())
+                .totalCurrency(view.getTotalCurrency())
+                .items(writeItems(view.getItems()))
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    void updateStatus(UUID orderId, OrderStatus status) {
+        jpaOrderViewRepository.updateStatus(orderId, status.name(), LocalDateTime.now());
+    }
+
+    void updateStatuses(Map<UUID, OrderStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<UUID, OrderStatus>> rows = new ArrayList<>(statuses.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getValue().name());
+            ps.setTimestamp(2, now);
+            ps.setObject(3, row.getKey());
+        });
+    }
+
+    void delete(Collection<UUID> orderIds) {
+        jpaOrderViewRepository.deleteAllByIdInBatch(orderIds);
+    }
+
+    private OrderView toView(OrderViewEntity entity) {
+        return OrderView.builder()
+                .orderId(entity.getOrderId())
+                .orderStatus(entity.getOrderStatus())
+                .orderDate(entity.getOrderDate())
+                .clientId(entity.getClientId())
+                .clientEmail(entity.getClientEmail())
+                .street(entity.getStreet())
+                .city(entity.getCity())
+                .state(entity.getState())
+                .zipCode(entity.getZipCode())
+                .country(entity.getCountry())
+                .totalAmount(entity.getTotalAmount())
+                .totalCurrency(entity.getTotalCurrency())
+                .items(readItems(entity.getItems()))
+                .build();
+    }
+
+    private String writeItems(List<OrderView.Item> items) {
+        try {
+            return objectMapper.writeValueAsString(items.stream()
+                    .map(item -> new StoredItem(item.getProductId(), item.getQuantity()))
+                    .collect(Collectors.toList()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los ítems de la orden", e);
+        }
+    }
+
+    private List<OrderView.Item> readItems(String items) {
+        if (items == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(items, ITEMS).stream()
+                    .map(item -> OrderView.Item.builder()
+                            .productId(item.productId())
+                            .quantity(item.quantity())
+                            .build())
+                    .collect(Collectors.toList());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ítems de la vista de orden ilegibles", e);
+        }
+    }
+
+    // Las filas escritas antes traen también los datos del producto; se ignoran
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record StoredItem(UUID productId, int quantity) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.itm.edu.order.infrastructure.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.infrastructure.messaging.ProductCacheInvalidationPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caché del catálogo delante de {@link ProductRepositoryAdapter}. Las escrituras
+ * invalidan la entrada local de inmediato y, tras el commit, de nuevo en local y
+ * en las demás réplicas por el fanout {@code product.cache.exchange}.
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+@Profile("!perf")
+public class CachingProductRepositoryAdapter implements ProductRepositoryPort {
+
+    private final ProductRepositoryAdapter delegate;
+    private final Cache<UUID, Product> productCache;
+    private final ProductCacheInvalidationPublisher invalidationPublisher;
+
+    @Override
+    public Product save(Product product) {
+        Product saved = delegate.save(product);
+        invalidate(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public Optional<Product> findById(UUID id) {
+        Product cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Product> product = delegate.findById(id);
+        product.ifPresent(found -> productCache.put(id, found));
+        return product;
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        Map<UUID, Product> products = productCache.getAll(ids, missing -> delegate.findAllById(toList(missing)).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity())));
+        return new ArrayList<>(products.values());
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        delegate.deleteById(id);
+        invalidate(id);
+    }
+
+    @Override
+    public List<UUID> reserveStock(Map<UUID, Integer> quantities) {
+        List<UUID> failed = delegate.reserveStock(quantities);
+        refreshStockLocally(quantities.keySet());
+        return failed;
+    }
+
+    @Override
+    public void releaseStock(Map<UUID, Integer> quantities) {
+        delegate.releaseStock(quantities);
+        refreshStockLocally(quantities.keySet());
+    }
+
+    // El stock en caché es solo orientativo; la reserva es la que decide. Se refresca
+    // localmente tras el commit sin difundir, para no inundar el fanout en cada orden.
+    private void refreshStockLocally(Collection<UUID> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productCache.invalidateAll(ids);
+                }
+            });
+        } else {
+            productCache.invalidateAll(ids);
+        }
+    }
+
+    private void invalidate(UUID id) {
+        productCache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Una lectura concurrente pudo volver a cargar el valor anterior antes del commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productCache.invalidate(id);
+                    invalidationPublisher.publish(id);
+                }
+            });
+        } else {
+            invalidationPublisher.publish(id);
+        }
+    }
+
+    private static List<UUID> toList(Iterable<? extends UUID> ids) {
+        List<UUID> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list;
+    }
+}
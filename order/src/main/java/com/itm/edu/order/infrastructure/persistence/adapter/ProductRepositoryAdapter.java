@@ -5,19 +5,31 @@ import com.itm.edu.order.domain.model.Product;
 import com.itm.edu.order.infrastructure.persistence.repository.JpaProductRepository;
 import com.itm.edu.order.infrastructure.persistence.mapper.ProductEntityMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
+@Profile("!perf")
 public class ProductRepositoryAdapter implements ProductRepositoryPort {
     
     private final JpaProductRepository jpaProductRepository;
     private final ProductEntityMapper productMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String RELEASE_STOCK_SQL =
+            "UPDATE products SET stock = stock + ? WHERE id = ?";
 
     @Override
     public Product save(Product product) {
@@ -32,6 +44,13 @@ public class ProductRepositoryAdapter implements ProductRepositoryPort {
                 .map(productMapper::toDomain);
     }
 
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        return jpaProductRepository.findAllById(ids).stream()
+                .map(productMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Product> findAll() {
         return jpaProductRepository.findAll().stream()
@@ -43,4 +62,40 @@ public class ProductRepositoryAdapter implements ProductRepositoryPort {
     public void deleteById(UUID id) {
         jpaProductRepository.deleteById(id);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public List<UUID> reserveStock(Map<UUID, Integer> quantities) {
+        List<Map.Entry<UUID, Integer>> lines = sortedById(quantities);
+
+        // Todas las líneas viajan en un solo lote JDBC
+        int[][] updated = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setObject(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+
+        List<UUID> failed = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (updated[0][i] == 0) {
+                failed.add(lines.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void releaseStock(Map<UUID, Integer> quantities) {
+        List<Map.Entry<UUID, Integer>> lines = sortedById(quantities);
+        jdbcTemplate.batchUpdate(RELEASE_STOCK_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setObject(2, line.getKey());
+        });
+    }
+
+    // Orden canónico por ID: órdenes concurrentes bloquean las filas en el mismo orden y no se interbloquean
+    private static List<Map.Entry<UUID, Integer>> sortedById(Map<UUID, Integer> quantities) {
+        List<Map.Entry<UUID, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        lines.sort(Map.Entry.comparingByKey());
+        return lines;
+    }
+}
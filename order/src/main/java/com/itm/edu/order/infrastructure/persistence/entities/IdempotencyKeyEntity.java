@@ -0,0 +1,63 @@
+package com.itm.edu.order.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de idempotencia de una creación de orden. La fila se reclama en estado
+ * IN_PROGRESS antes de ejecutar la solicitud y guarda la respuesta al completarse.
+ */
+@Entity
+@Table(name = "order_idempotency_keys", indexes = {
+    @Index(name = "idx_order_idempotency_keys_created_at", columnList = "createdAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKeyEntity implements Persistable<String> {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    private Integer responseStatus;
+
+    private String responseLocation;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    // Siempre se inserta: un duplicado debe fallar por la clave primaria, no convertirse en merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
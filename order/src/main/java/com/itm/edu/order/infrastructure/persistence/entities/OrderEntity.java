@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,7 +17,11 @@ import com.itm.edu.order.domain.valueobjects.AddressShipping;
 import com.itm.edu.order.domain.valueobjects.OrderTotalValue;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_order_date_order_id", columnList = "orderDate, orderId"),
+    @Index(name = "idx_orders_status_order_date", columnList = "orderStatus, orderDate, orderId"),
+    @Index(name = "idx_orders_client_order_date", columnList = "client_id, orderDate, orderId")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,7 +32,9 @@ public class OrderEntity {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID orderId;
 
+    // Los listados cargan los ítems de todas las órdenes de la página en lote
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<OrderItemEntity> products = new ArrayList<>();
 
@@ -40,7 +47,8 @@ public class OrderEntity {
     @Embedded
     private OrderTotalValue total;
 
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    // El cliente se registra antes con upsertByEmail; la orden solo guarda la referencia
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     private ClientEntity client;
 
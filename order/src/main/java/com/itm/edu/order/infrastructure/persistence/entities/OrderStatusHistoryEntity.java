@@ -0,0 +1,45 @@
+package com.itm.edu.order.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Historial de solo inserción con cada cambio de estado de una orden, el
+ * servicio que lo originó y el id de correlación del mensaje que lo provocó.
+ */
+@Entity
+@Table(name = "order_status_history", indexes = {
+    @Index(name = "idx_order_status_history_order", columnList = "orderId, changedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusHistoryEntity {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID orderId;
+
+    private String fromStatus;
+
+    @Column(nullable = false)
+    private String toStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(nullable = false)
+    private String source;
+
+    private String correlationId;
+}
@@ -0,0 +1,51 @@
+package com.itm.edu.order.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Proyección desnormalizada de una orden: una fila por orden con el cliente, la
+ * dirección y el total en columnas y los ítems serializados en JSON. Solo guarda
+ * datos propios de la orden: del cliente su id y correo, y de cada ítem el producto
+ * y la cantidad.
+ */
+@Entity
+@Table(name = "order_view")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderViewEntity {
+    @Id
+    private UUID orderId;
+
+    private String orderStatus;
+    private LocalDateTime orderDate;
+
+    private UUID clientId;
+    private String clientEmail;
+
+    private String street;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String country;
+
+    private BigDecimal totalAmount;
+    private String totalCurrency;
+
+    @Column(columnDefinition = "text")
+    private String items;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
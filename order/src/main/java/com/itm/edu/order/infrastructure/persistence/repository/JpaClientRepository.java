@@ -5,6 +5,9 @@ import com.itm.edu.order.domain.repository.ClientRepository;
 import com.itm.edu.order.infrastructure.persistence.entities.ClientEntity;
 import com.itm.edu.order.infrastructure.persistence.mapper.ClientMapper;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +15,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Repository
+@Profile("!perf")
 public class JpaClientRepository implements ClientRepository {
     private final SpringJpaClientRepository jpaRepository;
     private final ClientMapper clientMapper;
@@ -51,8 +55,25 @@ public class JpaClientRepository implements ClientRepository {
         return jpaRepository.findByEmail(email)
                 .map(clientMapper::toDomain);
     }
+
+    public Client upsertByEmail(Client client) {
+        UUID id = jpaRepository.upsertByEmail(client.getId(), client.getName(), client.getEmail(), client.getPhone());
+        return Client.builder()
+                .id(id)
+                .name(client.getName())
+                .email(client.getEmail())
+                .phone(client.getPhone())
+                .build();
+    }
 }
 
 interface SpringJpaClientRepository extends JpaRepository<ClientEntity, UUID> {
     Optional<ClientEntity> findByEmail(String email);
+
+    // Devuelve el ID existente si el email ya estaba registrado
+    @Query(value = "INSERT INTO clients (id, name, email, phone) VALUES (:id, :name, :email, :phone) "
+            + "ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name, phone = EXCLUDED.phone "
+            + "RETURNING id", nativeQuery = true)
+    UUID upsertByEmail(@Param("id") UUID id, @Param("name") String name,
+                       @Param("email") String email, @Param("phone") String phone);
 } 
\ No newline at end of file
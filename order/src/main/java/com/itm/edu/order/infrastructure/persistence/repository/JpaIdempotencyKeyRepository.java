@@ -0,0 +1,36 @@
+package com.itm.edu.order.infrastructure.persistence.repository;
+
+import com.itm.edu.order.infrastructure.persistence.entities.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JpaIdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = 'COMPLETED', k.responseStatus = :status, "
+            + "k.responseLocation = :location, k.responseBody = :body, k.updatedAt = :now "
+            + "WHERE k.idempotencyKey = :key AND k.status = 'IN_PROGRESS'")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("location") String location,
+                 @Param("body") String body, @Param("now") LocalDateTime now);
+
+    // Una solicitud que murió sin completar deja la clave reclamada; pasado el plazo otra puede tomarla
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.requestHash = :hash, k.updatedAt = :now "
+            + "WHERE k.idempotencyKey = :key AND k.status = 'IN_PROGRESS' AND k.updatedAt < :staleBefore")
+    int takeOverStale(@Param("key") String key, @Param("hash") String hash, @Param("now") LocalDateTime now,
+                      @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.idempotencyKey = :key AND k.status = 'IN_PROGRESS'")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
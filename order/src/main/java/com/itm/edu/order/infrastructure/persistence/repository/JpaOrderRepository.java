@@ -1,9 +1,41 @@
 package com.itm.edu.order.infrastructure.persistence.repository;
 
 import com.itm.edu.order.infrastructure.persistence.entities.OrderEntity;
+import com.itm.edu.common.dto.ProductOrderDTO;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface JpaOrderRepository extends JpaRepository<OrderEntity, UUID> {} 
\ No newline at end of file
+public interface JpaOrderRepository extends JpaRepository<OrderEntity, UUID>, JpaOrderRepositoryCustom {
+
+    int EXPORT_PAGE_SIZE = 500;
+
+    // Carga la orden con cliente, ítems y productos en una sola consulta
+    @Override
+    @EntityGraph(attributePaths = {"client", "products", "products.product"})
+    Optional<OrderEntity> findById(UUID orderId);
+
+    @Modifying
+    @Query("UPDATE OrderEntity o SET o.orderStatus = :target WHERE o.orderId = :orderId AND o.orderStatus = :expected")
+    int transitionStatus(@Param("orderId") UUID orderId, @Param("expected") String expected, @Param("target") String target);
+
+    @Query("SELECT new com.itm.edu.common.dto.ProductOrderDTO(i.product.id, i.quantity) "
+            + "FROM OrderItemEntity i WHERE i.order.orderId = :orderId")
+    List<ProductOrderDTO> findProductLines(@Param("orderId") UUID orderId);
+
+    @Query("SELECT o.orderId FROM OrderEntity o WHERE o.orderId IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT i.order.orderId, i.product.id, i.quantity "
+            + "FROM OrderItemEntity i WHERE i.order.orderId IN :orderIds")
+    List<Object[]> findProductLinesByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
+}
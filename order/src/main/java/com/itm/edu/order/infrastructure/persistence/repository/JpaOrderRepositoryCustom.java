@@ -0,0 +1,18 @@
+package com.itm.edu.order.infrastructure.persistence.repository;
+
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.infrastructure.persistence.entities.OrderEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface JpaOrderRepositoryCustom {
+    List<OrderEntity> findPage(OrderSearchCriteria criteria, int limit);
+
+    /**
+     * Siguiente página del export en orden ascendente por (orderDate, orderId),
+     * después de la última clave leída; sin clave, desde el principio.
+     */
+    List<OrderEntity> findExportPage(LocalDateTime since, LocalDateTime afterOrderDate, UUID afterOrderId, int limit);
+}
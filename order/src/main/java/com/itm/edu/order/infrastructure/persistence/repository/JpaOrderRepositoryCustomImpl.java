@@ -0,0 +1,130 @@
+package com.itm.edu.order.infrastructure.persistence.repository;
+
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.infrastructure.persistence.entities.ClientEntity;
+import com.itm.edu.order.infrastructure.persistence.entities.OrderEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consulta por keyset sobre (orderDate, orderId) descendente: cada página
+ * continúa después de la última clave leída en lugar de usar OFFSET, así el
+ * costo no crece con la profundidad de la página. La página se resuelve en dos
+ * consultas: primero los IDs con el límite aplicado en la base de datos y luego
+ * las órdenes con cliente, ítems y productos en un solo fetch join. El export
+ * recorre la tabla igual, en orden ascendente y por páginas.
+ */
+public class JpaOrderRepositoryCustomImpl implements JpaOrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderEntity> findPage(OrderSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<OrderEntity> order = query.from(OrderEntity.class);
+        Path<LocalDateTime> orderDate = order.get("orderDate");
+        Path<UUID> orderId = order.get("orderId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(order.get("orderStatus"), criteria.getStatus()));
+        }
+        if (criteria.getClientEmail() != null) {
+            Join<OrderEntity, ClientEntity> client = order.join("client");
+            predicates.add(cb.equal(client.get("email"), criteria.getClientEmail()));
+        }
+        if (criteria.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(orderDate, criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            predicates.add(cb.lessThan(orderDate, criteria.getTo()));
+        }
+        if (criteria.getAfterOrderDate() != null && criteria.getAfterOrderId() != null) {
+            predicates.add(cb.or(
+                cb.lessThan(orderDate, criteria.getAfterOrderDate()),
+                cb.and(
+                    cb.equal(orderDate, criteria.getAfterOrderDate()),
+                    cb.lessThan(orderId, criteria.getAfterOrderId()))));
+        }
+
+        query.select(orderId)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.desc(orderDate), cb.desc(orderId));
+
+        List<UUID> ids = entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return fetchGraphs(ids);
+    }
+
+    @Override
+    public List<OrderEntity> findExportPage(LocalDateTime since, LocalDateTime afterOrderDate, UUID afterOrderId,
+                                            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<OrderEntity> order = query.from(OrderEntity.class);
+        Path<LocalDateTime> orderDate = order.get("orderDate");
+        Path<UUID> orderId = order.get("orderId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (since != null) {
+            predicates.add(cb.greaterThanOrEqualTo(orderDate, since));
+        }
+        if (afterOrderDate != null && afterOrderId != null) {
+            predicates.add(cb.or(
+                cb.greaterThan(orderDate, afterOrderDate),
+                cb.and(
+                    cb.equal(orderDate, afterOrderDate),
+                    cb.greaterThan(orderId, afterOrderId))));
+        }
+
+        query.select(orderId)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.asc(orderDate), cb.asc(orderId));
+
+        List<UUID> ids = entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return fetchGraphs(ids);
+    }
+
+    // Cliente, ítems y productos de todas las órdenes en un solo fetch join, en el orden de las claves
+    private List<OrderEntity> fetchGraphs(List<UUID> ids) {
+        Map<UUID, OrderEntity> orders = entityManager.createQuery(
+                "SELECT DISTINCT o FROM OrderEntity o "
+                    + "LEFT JOIN FETCH o.client "
+                    + "LEFT JOIN FETCH o.products i "
+                    + "LEFT JOIN FETCH i.product "
+                    + "WHERE o.orderId IN :ids", OrderEntity.class)
+            .setParameter("ids", ids)
+            .getResultStream()
+            .collect(Collectors.toMap(OrderEntity::getOrderId, Function.identity()));
+
+        return ids.stream()
+            .map(orders::get)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,19 @@
+package com.itm.edu.order.infrastructure.persistence.repository;
+
+import com.itm.edu.order.infrastructure.persistence.entities.OrderViewEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface JpaOrderViewRepository extends JpaRepository<OrderViewEntity, UUID> {
+
+    @Modifying
+    @Query("UPDATE OrderViewEntity v SET v.orderStatus = :status, v.updatedAt = :now WHERE v.orderId = :orderId")
+    int updateStatus(@Param("orderId") UUID orderId, @Param("status") String status, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,28 @@
+package com.itm.edu.order.infrastructure.persistence.repository;
+
+import com.itm.edu.order.infrastructure.persistence.entities.OutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEventEntity, UUID> {
+
+    // SKIP LOCKED permite que varias réplicas drenen el outbox sin pisarse
+    @Query(value = "SELECT * FROM order_outbox WHERE attempts < :maxAttempts " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventEntity> lockNextBatch(@Param("limit") int limit, @Param("maxAttempts") int maxAttempts,
+                                          @Param("now") LocalDateTime now);
+
+    // Devuelve los eventos aparcados a la cola de reintentos con un nuevo presupuesto de intentos
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.attempts = 0, e.nextAttemptAt = NULL WHERE e.attempts >= :maxAttempts")
+    int redriveParked(@Param("maxAttempts") int maxAttempts);
+}
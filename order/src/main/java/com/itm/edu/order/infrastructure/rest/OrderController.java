@@ -1,15 +1,23 @@
 package com.itm.edu.order.infrastructure.rest;
 
+import com.itm.edu.order.application.dto.OrderIntakeStatus;
+import com.itm.edu.order.application.dto.OrderPage;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
 import com.itm.edu.order.application.ports.inputs.*;
 import com.itm.edu.order.domain.model.*;
 import com.itm.edu.order.domain.valueobjects.*;
+import com.itm.edu.order.infrastructure.idempotency.IdempotentRequestHandler;
 import com.itm.edu.order.infrastructure.rest.dto.OrderDto;
 import com.itm.edu.order.infrastructure.rest.dto.AddressShippingDto;
 import com.itm.edu.order.infrastructure.rest.dto.CreateOrderRequest;
+import com.itm.edu.order.infrastructure.rest.dto.OrderPageCursor;
+import com.itm.edu.order.infrastructure.rest.dto.OrderPageDto;
 import com.itm.edu.order.infrastructure.rest.dto.UpdateShippingAddressRequest;
 import com.itm.edu.order.infrastructure.rest.mapper.OrderDtoMapper;
 import com.itm.edu.order.domain.exception.BusinessException;
 import com.itm.edu.order.domain.exception.ApiError;
+import com.itm.edu.order.domain.exception.HttpStatusException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,13 +28,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -36,26 +56,50 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Tag(name = "Órdenes", description = "API para la gestión de órdenes")
 public class OrderController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final CreateOrderUseCase createOrderUseCase;
     private final GetOrderUseCase getOrderUseCase;
     private final DeleteOrderUseCase deleteOrderUseCase;
     private final UpdateOrderUseCase updateOrderUseCase;
     private final UpdateShippingAddressUseCase updateShippingAddressUseCase;
+    private final ExportOrdersUseCase exportOrdersUseCase;
     private final OrderDtoMapper orderDtoMapper;
+    private final ObjectProvider<SubmitOrderUseCase> submitOrderUseCase;
+    private final ObjectMapper objectMapper;
+    // Ausente en el perfil perf, que no tiene base de datos donde reclamar las claves
+    private final ObjectProvider<IdempotentRequestHandler> idempotentRequestHandler;
 
     @Operation(summary = "Crear una nueva orden")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orden creada exitosamente",
             content = @Content(schema = @Schema(implementation = OrderDto.class))),
+        @ApiResponse(responseCode = "202", description = "Orden aceptada para procesamiento asíncrono",
+            content = @Content(schema = @Schema(implementation = OrderIntakeStatus.class))),
         @ApiResponse(responseCode = "400", description = "Solicitud inválida",
             content = @Content(schema = @Schema(implementation = ApiError.class))),
+        @ApiResponse(responseCode = "409", description = "Otra solicitud con la misma Idempotency-Key sigue en curso",
+            content = @Content(schema = @Schema(implementation = ApiError.class))),
         @ApiResponse(responseCode = "422", description = "Error de validación",
             content = @Content(schema = @Schema(implementation = ApiError.class))),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+            content = @Content(schema = @Schema(implementation = ApiError.class))),
+        @ApiResponse(responseCode = "503", description = "Cola de órdenes llena",
             content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<?> createOrder(
+            @Parameter(description = "Clave para reintentar la solicitud sin crear la orden dos veces")
+            @RequestHeader(value = IdempotentRequestHandler.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        IdempotentRequestHandler handler = idempotencyKey != null ? idempotentRequestHandler.getIfAvailable() : null;
+        if (handler == null) {
+            return createOrder(request);
+        }
+        return handler.execute(idempotencyKey, request, () -> createOrder(request));
+    }
+
+    private ResponseEntity<?> createOrder(CreateOrderRequest request) {
         try {
             log.info("Recibida solicitud para crear orden: {}", request);
 
@@ -90,6 +134,20 @@ public class OrderController {
                 }
             }
 
+            // En modo asíncrono la orden se encola y se responde de inmediato
+            SubmitOrderUseCase asyncIntake = submitOrderUseCase.getIfAvailable();
+            if (asyncIntake != null) {
+                UUID orderId = asyncIntake.submitOrder(
+                    request.getClient(),
+                    request.getProductQuantities(),
+                    request.getAddressShipping()
+                );
+                log.info("Orden aceptada para procesamiento asíncrono con ID: {}", orderId);
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/orders/" + orderId))
+                    .body(OrderIntakeStatus.accepted(orderId));
+            }
+
             log.info("Creando orden con {} productos", productQuantities.size());
             Order order = createOrderUseCase.createOrder(
                 request.getClient(),
@@ -103,6 +161,11 @@ public class OrderController {
             log.error("Error de negocio al crear la orden: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
                 .body(ApiError.of(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage(), "/api/v1/orders"));
+        } catch (HttpStatusException e) {
+            log.warn("No se pudo aceptar la orden: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiError.of(e.getStatus(), e.getMessage(), "/api/v1/orders"));
         } catch (Exception e) {
             log.error("Error inesperado al crear la orden: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -114,32 +177,106 @@ public class OrderController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Orden encontrada",
             content = @Content(schema = @Schema(implementation = OrderDto.class))),
+        @ApiResponse(responseCode = "202", description = "Orden aceptada, aún en procesamiento",
+            content = @Content(schema = @Schema(implementation = OrderIntakeStatus.class))),
         @ApiResponse(responseCode = "404", description = "Orden no encontrada",
             content = @Content(schema = @Schema(implementation = ApiError.class))),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor",
             content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDto> getOrder(@PathVariable UUID id) {
-        return getOrderUseCase.getOrder(id)
-                .map(order -> ResponseEntity.ok(orderDtoMapper.toDto(order)))
+    public ResponseEntity<?> getOrder(@PathVariable UUID id) {
+        // Órdenes aceptadas en modo asíncrono que aún no se han persistido o fueron rechazadas
+        SubmitOrderUseCase asyncIntake = submitOrderUseCase.getIfAvailable();
+        Optional<OrderIntakeStatus> intakeStatus = asyncIntake != null
+                ? asyncIntake.getIntakeStatus(id)
+                : Optional.empty();
+        if (intakeStatus.isPresent()) {
+            OrderIntakeStatus status = intakeStatus.get();
+            if (status.isRejected()) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(ApiError.of(HttpStatus.UNPROCESSABLE_ENTITY, status.getReason(), "/api/v1/orders/" + id));
+            }
+            return ResponseEntity.accepted().body(status);
+        }
+
+        return getOrderUseCase.getOrderView(id)
+                .map(view -> ResponseEntity.ok(orderDtoMapper.fromView(view)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Obtener todas las órdenes")
+    @Operation(summary = "Listar órdenes paginadas, de la más reciente a la más antigua")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente",
-            content = @Content(schema = @Schema(implementation = OrderDto.class))),
+        @ApiResponse(responseCode = "200", description = "Página de órdenes obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = OrderPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor o parámetros inválidos",
+            content = @Content(schema = @Schema(implementation = ApiError.class))),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor",
             content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @GetMapping
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
-        List<Order> orders = getOrderUseCase.getAllOrders();
-        List<OrderDto> orderDtos = orders.stream()
+    public ResponseEntity<OrderPageDto> getOrders(
+            @Parameter(description = "Estado de la orden") @RequestParam(required = false) String status,
+            @Parameter(description = "Email del cliente") @RequestParam(required = false) String clientEmail,
+            @Parameter(description = "Fecha inicial (inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fecha final (exclusiva)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") int size) {
+        OrderSearchCriteria.OrderSearchCriteriaBuilder criteria = OrderSearchCriteria.builder()
+                .status(status)
+                .clientEmail(clientEmail)
+                .from(from)
+                .to(to)
+                .size(size);
+        if (cursor != null && !cursor.isBlank()) {
+            OrderPageCursor after = OrderPageCursor.decode(cursor);
+            criteria.afterOrderDate(after.getOrderDate()).afterOrderId(after.getOrderId());
+        }
+
+        OrderPage page = getOrderUseCase.searchOrders(criteria.build());
+        List<OrderDto> items = page.getOrders().stream()
                 .map(orderDtoMapper::toDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(orderDtos);
+        String nextCursor = page.isHasNext()
+                ? new OrderPageCursor(page.getNextOrderDate(), page.getNextOrderId()).encode()
+                : null;
+        return ResponseEntity.ok(OrderPageDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    @Operation(summary = "Exportar órdenes en NDJSON (una orden por línea)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso",
+            content = @Content(mediaType = NDJSON, schema = @Schema(implementation = OrderDto.class))),
+        @ApiResponse(responseCode = "400", description = "Parámetros inválidos",
+            content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Exportar órdenes desde esta fecha (inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        log.info("Iniciando exportación de órdenes desde {}", since);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            exportOrdersUseCase.exportOrders(since, order -> writeLine(out, orderDtoMapper.toDto(order)));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    private void writeLine(OutputStream out, OrderDto order) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(order));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Operation(summary = "Actualizar una orden")
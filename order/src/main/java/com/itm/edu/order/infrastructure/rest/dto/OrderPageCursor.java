@@ -0,0 +1,38 @@
+package com.itm.edu.order.infrastructure.rest.dto;
+
+import com.itm.edu.order.domain.exception.HttpStatusException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco de paginación: la clave (orderDate, orderId) de la última orden
+ * devuelta, codificada en base64url.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderPageCursor {
+    private final LocalDateTime orderDate;
+    private final UUID orderId;
+
+    public String encode() {
+        String raw = orderDate + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderPageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderPageCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw HttpStatusException.badRequest("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.itm.edu.order.infrastructure.rest.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class OrderPageDto {
+    private List<OrderDto> items;
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.itm.edu.order.infrastructure.rest.mapper;
 
+import com.itm.edu.order.application.dto.OrderView;
 import com.itm.edu.order.domain.model.Order;
 import com.itm.edu.order.domain.model.Client;
 import com.itm.edu.order.domain.model.OrderItem;
@@ -38,6 +39,52 @@ public class OrderDtoMapper {
                 .build();
     }
 
+    // Lectura desde la proyección: sin reconstruir el agregado ni recalcular el total
+    public OrderDto fromView(OrderView view) {
+        if (view == null) return null;
+
+        return OrderDto.builder()
+                .orderId(view.getOrderId())
+                .client(view.getClientId() != null || view.getClientEmail() != null
+                        ? OrderDto.ClientDto.builder()
+                            .id(view.getClientId())
+                            .name(view.getClientName())
+                            .email(view.getClientEmail())
+                            .phone(view.getClientPhone())
+                            .build()
+                        : null)
+                .items(view.getItems() != null ? view.getItems().stream()
+                        .map(item -> OrderDto.OrderItemDto.builder()
+                                .product(OrderDto.ProductDto.builder()
+                                        .id(item.getProductId())
+                                        .name(item.getProductName())
+                                        .description(item.getProductDescription())
+                                        .price(item.getProductPrice())
+                                        .stock(item.getProductStock())
+                                        .build())
+                                .quantity(item.getQuantity())
+                                .build())
+                        .collect(Collectors.toList()) : null)
+                .shippingAddress(view.getStreet() != null || view.getCity() != null
+                        ? OrderDto.AddressDto.builder()
+                            .street(view.getStreet())
+                            .city(view.getCity())
+                            .state(view.getState())
+                            .zipCode(view.getZipCode())
+                            .country(view.getCountry())
+                            .build()
+                        : null)
+                .total(view.getTotalAmount() != null
+                        ? OrderDto.MoneyDto.builder()
+                            .amount(view.getTotalAmount())
+                            .currency(view.getTotalCurrency())
+                            .build()
+                        : null)
+                .orderDate(view.getOrderDate())
+                .orderStatus(view.getOrderStatus())
+                .build();
+    }
+
     private OrderDto.ClientDto toClientDto(Client domain) {
         if (domain == null) return null;
         
@@ -0,0 +1,178 @@
+package com.itm.edu.order.application.services;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.order.application.ports.outputs.ClientRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderPublisherPort;
+import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
+import com.itm.edu.order.domain.exception.BusinessException;
+import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CreateOrderServiceTest {
+
+    @Mock
+    private OrderRepositoryPort orderRepository;
+
+    @Mock
+    private ProductRepositoryPort productRepository;
+
+    @Mock
+    private ClientRepositoryPort clientRepository;
+
+    @Mock
+    private OrderPublisherPort orderPublisher;
+
+    @Mock
+    private OrderStatusHistoryPort statusHistory;
+
+    @InjectMocks
+    private CreateOrderService createOrderService;
+
+    private CreateClientDto clientDto;
+    private AddressShipping address;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        clientDto = new CreateClientDto("John Doe", "john@example.com", "1234567890");
+        address = AddressShipping.builder()
+                .street("Calle 123")
+                .city("Medellín")
+                .state("Antioquia")
+                .zipCode("050001")
+                .country("Colombia")
+                .build();
+        client = Client.builder()
+                .id(UUID.randomUUID())
+                .name("John Doe")
+                .email("john@example.com")
+                .phone("1234567890")
+                .build();
+    }
+
+    @Test
+    void shouldLoadAllProductsInOneCall() {
+        // Arrange
+        Product first = product("Pizza", 10);
+        Product second = product("Pasta", 10);
+        Map<UUID, BigDecimal> quantities = new LinkedHashMap<>();
+        quantities.put(first.getId(), BigDecimal.ONE);
+        quantities.put(second.getId(), BigDecimal.valueOf(2));
+
+        when(clientRepository.upsertByEmail(any(Client.class))).thenReturn(client);
+        when(productRepository.findAllById(quantities.keySet())).thenReturn(List.of(first, second));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order order = createOrderService.createOrder(clientDto, quantities, address);
+
+        // Assert
+        assertEquals(2, order.getProducts().size());
+        verify(productRepository, times(1)).findAllById(quantities.keySet());
+        verify(productRepository, never()).findById(any());
+        verify(orderPublisher).publish(any(OrderMessageDTO.class));
+        verify(statusHistory).append(argThat(changes -> changes.size() == 1
+                && changes.get(0).getOrderId().equals(order.getOrderId())
+                && changes.get(0).getFromStatus() == null
+                && changes.get(0).getToStatus() == OrderStatus.PENDING_VALIDATION
+                && "order-service".equals(changes.get(0).getSource())));
+    }
+
+    @Test
+    void shouldAggregateMissingProductsAndInvalidQuantities() {
+        // Arrange
+        Product pizza = product("Pizza", 10);
+        UUID missingId = UUID.randomUUID();
+        Map<UUID, BigDecimal> quantities = new LinkedHashMap<>();
+        quantities.put(pizza.getId(), BigDecimal.ZERO);
+        quantities.put(missingId, BigDecimal.ONE);
+
+        when(clientRepository.upsertByEmail(any(Client.class))).thenReturn(client);
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(pizza));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> createOrderService.createOrder(clientDto, quantities, address));
+        assertTrue(exception.getMessage().contains("La cantidad debe ser mayor a 0 para el producto: " + pizza.getId()));
+        assertTrue(exception.getMessage().contains("Producto no encontrado con ID: " + missingId));
+        verify(orderRepository, never()).save(any());
+        verify(orderPublisher, never()).publish(any());
+    }
+
+    @Test
+    void shouldLeaveStockDecisionToReservationWhenCachedStockIsStale() {
+        // Arrange: la caché aún muestra 1, pero otra réplica ya liberó unidades
+        Product stale = product("Pizza", 1);
+        Map<UUID, BigDecimal> quantities = Map.of(stale.getId(), BigDecimal.valueOf(5));
+
+        when(clientRepository.upsertByEmail(any(Client.class))).thenReturn(client);
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(stale));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.reserveStock(Map.of(stale.getId(), 5))).thenReturn(List.of());
+
+        // Act
+        Order order = createOrderService.createOrder(clientDto, quantities, address);
+
+        // Assert
+        assertEquals(1, order.getProducts().size());
+        verify(productRepository).reserveStock(Map.of(stale.getId(), 5));
+        verify(orderPublisher).publish(any(OrderMessageDTO.class));
+    }
+
+    @Test
+    void shouldRejectOrderWhenStockReservationFails() {
+        // Arrange
+        Product hot = product("Pizza", 10);
+        Product other = product("Pasta", 10);
+        Map<UUID, BigDecimal> quantities = new LinkedHashMap<>();
+        quantities.put(hot.getId(), BigDecimal.valueOf(3));
+        quantities.put(other.getId(), BigDecimal.ONE);
+
+        when(clientRepository.upsertByEmail(any(Client.class))).thenReturn(client);
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(hot, other));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.reserveStock(Map.of(hot.getId(), 3, other.getId(), 1))).thenReturn(List.of(hot.getId()));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> createOrderService.createOrder(clientDto, quantities, address));
+        assertEquals("Errores en la validación de productos: Stock insuficiente para el producto: Pizza",
+                exception.getMessage());
+        verify(orderRepository).flush();
+    }
+
+    private Product product(String name, int stock) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .description(name + " descripción")
+                .price(new BigDecimal("12.50"))
+                .stock(stock)
+                .build();
+    }
+}
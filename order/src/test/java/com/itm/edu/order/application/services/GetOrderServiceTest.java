@@ -1,8 +1,16 @@
 package com.itm.edu.order.application.services;
 
+import com.itm.edu.order.application.dto.OrderPage;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.application.dto.OrderView;
+import com.itm.edu.order.application.ports.outputs.ClientRepositoryPort;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderViewRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
+import com.itm.edu.order.domain.exception.BusinessException;
 import com.itm.edu.order.domain.model.Order;
 import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.Product;
 import com.itm.edu.order.domain.valueobjects.AddressShipping;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,11 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +36,15 @@ class GetOrderServiceTest {
     @Mock
     private OrderRepositoryPort orderRepositoryPort;
 
+    @Mock
+    private OrderViewRepositoryPort orderViewRepositoryPort;
+
+    @Mock
+    private ProductRepositoryPort productRepositoryPort;
+
+    @Mock
+    private ClientRepositoryPort clientRepositoryPort;
+
     @InjectMocks
     private GetOrderService getOrderService;
 
@@ -106,73 +125,158 @@ class GetOrderServiceTest {
     }
 
     @Test
-    void shouldGetAllOrdersSuccessfully() {
+    void shouldReturnPageWithNextKeyWhenMoreOrdersExist() {
         // Arrange
-        List<Order> expectedOrders = Arrays.asList(
-                Order.builder()
-                        .orderId(UUID.randomUUID())
-                        .client(Client.builder()
-                                .id(UUID.randomUUID())
-                                .name("John Doe")
-                                .email("john@example.com")
-                                .phone("1234567890")
-                                .build())
-                        .orderStatus("PENDING")
-                        .orderDate(LocalDateTime.now())
-                        .deliveryAddress(AddressShipping.builder()
-                                .street("123 Main St")
-                                .city("New York")
-                                .state("NY")
-                                .zipCode("10001")
-                                .country("USA")
-                                .build())
-                        .build(),
-                Order.builder()
-                        .orderId(UUID.randomUUID())
-                        .client(Client.builder()
-                                .id(UUID.randomUUID())
-                                .name("Jane Doe")
-                                .email("jane@example.com")
-                                .phone("0987654321")
-                                .build())
-                        .orderStatus("COMPLETED")
-                        .orderDate(LocalDateTime.now())
-                        .deliveryAddress(AddressShipping.builder()
-                                .street("456 Oak St")
-                                .city("Los Angeles")
-                                .state("CA")
-                                .zipCode("90001")
-                                .country("USA")
-                                .build())
-                        .build()
-        );
-
-        when(orderRepositoryPort.findAll()).thenReturn(expectedOrders);
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> rows = Arrays.asList(order(now), order(now.minusMinutes(1)), order(now.minusMinutes(2)));
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder().status("PENDING").size(2).build();
+        when(orderRepositoryPort.findPage(criteria, 3)).thenReturn(rows);
 
         // Act
-        List<Order> result = getOrderService.getAllOrders();
+        OrderPage page = getOrderService.searchOrders(criteria);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(expectedOrders.get(0).getOrderId(), result.get(0).getOrderId());
-        assertEquals(expectedOrders.get(1).getOrderId(), result.get(1).getOrderId());
-        verify(orderRepositoryPort).findAll();
+        assertEquals(2, page.getOrders().size());
+        assertTrue(page.isHasNext());
+        assertEquals(rows.get(1).getOrderDate(), page.getNextOrderDate());
+        assertEquals(rows.get(1).getOrderId(), page.getNextOrderId());
+        verify(orderRepositoryPort).findPage(criteria, 3);
         verifyNoMoreInteractions(orderRepositoryPort);
     }
 
     @Test
-    void shouldReturnEmptyListWhenNoOrdersExist() {
+    void shouldReturnLastPageWithoutNextKey() {
         // Arrange
-        when(orderRepositoryPort.findAll()).thenReturn(Collections.emptyList());
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder().size(0).build();
+        when(orderRepositoryPort.findPage(criteria, GetOrderService.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(Collections.emptyList());
 
         // Act
-        List<Order> result = getOrderService.getAllOrders();
+        OrderPage page = getOrderService.searchOrders(criteria);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(orderRepositoryPort).findAll();
-        verifyNoMoreInteractions(orderRepositoryPort);
+        assertTrue(page.getOrders().isEmpty());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextOrderId());
+    }
+
+    @Test
+    void shouldCapPageSize() {
+        // Arrange
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder().size(10_000).build();
+        when(orderRepositoryPort.findPage(criteria, GetOrderService.MAX_PAGE_SIZE + 1))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        getOrderService.searchOrders(criteria);
+
+        // Assert
+        verify(orderRepositoryPort).findPage(criteria, GetOrderService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void shouldRejectInvertedDateRange() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder().from(now).to(now.minusDays(1)).build();
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> getOrderService.searchOrders(criteria));
+        verifyNoInteractions(orderRepositoryPort);
+    }
+
+    private Order order(LocalDateTime orderDate) {
+        return Order.builder()
+                .orderId(UUID.randomUUID())
+                .client(Client.builder()
+                        .id(UUID.randomUUID())
+                        .name("John Doe")
+                        .email("john@example.com")
+                        .phone("1234567890")
+                        .build())
+                .orderStatus("PENDING")
+                .orderDate(orderDate)
+                .deliveryAddress(AddressShipping.builder()
+                        .street("123 Main St")
+                        .city("New York")
+                        .state("NY")
+                        .zipCode("10001")
+                        .country("USA")
+                        .build())
+                .build();
+    }
+
+    @Test
+    void shouldServeOrderViewWithoutLoadingAggregate() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        OrderView view = OrderView.builder()
+                .orderId(orderId)
+                .orderStatus("STOCK_CONFIRMED")
+                .build();
+        when(orderViewRepositoryPort.findById(orderId)).thenReturn(Optional.of(view));
+
+        // Act
+        Optional<OrderView> result = getOrderService.getOrderView(orderId);
+
+        // Assert
+        assertEquals(Optional.of(view), result);
+        verifyNoInteractions(orderRepositoryPort);
+    }
+
+    @Test
+    void shouldFillOrderViewWithCurrentProductAndClient() {
+        // Arrange: la proyección solo guarda lo propio de la orden
+        UUID orderId = UUID.randomUUID();
+        UUID clientId = UUID.randomUUID();
+        Product pizza = Product.reconstitute(UUID.randomUUID(), "Pizza", "Pizza familiar", new BigDecimal("12.50"), 7);
+        OrderView view = OrderView.builder()
+                .orderId(orderId)
+                .clientId(clientId)
+                .clientEmail("john@example.com")
+                .items(List.of(OrderView.Item.builder().productId(pizza.getId()).quantity(2).build()))
+                .build();
+        when(orderViewRepositoryPort.findById(orderId)).thenReturn(Optional.of(view));
+        when(productRepositoryPort.findAllById(Set.of(pizza.getId()))).thenReturn(List.of(pizza));
+        when(clientRepositoryPort.findById(clientId)).thenReturn(Optional.of(Client.builder()
+                .id(clientId)
+                .name("John Doe")
+                .email("john@example.com")
+                .phone("1234567890")
+                .build()));
+
+        // Act
+        OrderView result = getOrderService.getOrderView(orderId).orElseThrow();
+
+        // Assert
+        OrderView.Item item = result.getItems().get(0);
+        assertEquals("Pizza", item.getProductName());
+        assertEquals(new BigDecimal("12.50"), item.getProductPrice());
+        assertEquals(7, item.getProductStock());
+        assertEquals(2, item.getQuantity());
+        assertEquals("John Doe", result.getClientName());
+        assertEquals("1234567890", result.getClientPhone());
+        verifyNoInteractions(orderRepositoryPort);
+    }
+
+    @Test
+    void shouldBuildOrderViewFromAggregateWhenProjectionIsMissing() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder()
+                .orderId(orderId)
+                .orderStatus("PENDING_VALIDATION")
+                .orderDate(LocalDateTime.now())
+                .build();
+        when(orderViewRepositoryPort.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepositoryPort.findById(orderId)).thenReturn(Optional.of(order));
+
+        // Act
+        Optional<OrderView> result = getOrderService.getOrderView(orderId);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(orderId, result.get().getOrderId());
+        assertEquals("PENDING_VALIDATION", result.get().getOrderStatus());
     }
-} 
\ No newline at end of file
+}
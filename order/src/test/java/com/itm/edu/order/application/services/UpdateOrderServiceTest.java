@@ -1,18 +1,27 @@
 package com.itm.edu.order.application.services;
 
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
 import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.OrderStatusChange;
 import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.Product;
 import com.itm.edu.order.domain.valueobjects.AddressShipping;
 import com.itm.edu.order.domain.exception.BusinessException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +35,12 @@ class UpdateOrderServiceTest {
     @Mock
     private OrderRepositoryPort orderRepository;
 
+    @Mock
+    private ProductRepositoryPort productRepository;
+
+    @Mock
+    private OrderStatusHistoryPort statusHistory;
+
     @InjectMocks
     private UpdateOrderService updateOrderService;
 
@@ -34,21 +49,123 @@ class UpdateOrderServiceTest {
         // Arrange
         UUID orderId = UUID.randomUUID();
         Order existingOrder = createSampleOrder(orderId);
-        Order orderWithNewStatus = existingOrder.withUpdatedStatus("COMPLETED");
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(orderWithNewStatus);
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED))
+                .thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         Order updatedOrder = updateOrderService.updateOrder(orderId, Order.builder()
-                .orderStatus("COMPLETED")
+                .orderStatus("STOCK_CONFIRMED")
                 .build());
 
         // Assert
         assertNotNull(updatedOrder);
-        assertEquals("COMPLETED", updatedOrder.getOrderStatus());
+        assertEquals("STOCK_CONFIRMED", updatedOrder.getOrderStatus());
         verify(orderRepository).findById(orderId);
+        verify(orderRepository).transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED);
         verify(orderRepository).save(any(Order.class));
+        verifyNoInteractions(productRepository);
+        List<OrderStatusChange> changes = appendedChanges();
+        assertEquals(1, changes.size());
+        assertEquals(orderId, changes.get(0).getOrderId());
+        assertEquals(OrderStatus.PENDING_VALIDATION, changes.get(0).getFromStatus());
+        assertEquals(OrderStatus.STOCK_CONFIRMED, changes.get(0).getToStatus());
+        assertEquals("order-api", changes.get(0).getSource());
+        assertNotNull(changes.get(0).getChangedAt());
+    }
+
+    @Test
+    void shouldReleaseProductStockWhenOrderIsCancelled() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        UUID pizzaId = UUID.randomUUID();
+        Product pizza = Product.reconstitute(pizzaId, "Pizza", "Pizza familiar", new BigDecimal("10"), 5);
+        Order existingOrder = createSampleOrder(orderId);
+        existingOrder.addProduct(pizza, 2);
+        existingOrder.addProduct(pizza, 1);
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.CANCELLED_NO_STOCK))
+                .thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order updatedOrder = updateOrderService.updateOrder(orderId, Order.builder()
+                .orderStatus("CANCELLED_NO_STOCK")
+                .build());
+
+        // Assert
+        assertEquals("CANCELLED_NO_STOCK", updatedOrder.getOrderStatus());
+        verify(productRepository).releaseStock(Map.of(pizzaId, 3));
+    }
+
+    @Test
+    void shouldRejectIllegalTransition() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        Order existingOrder = createSampleOrder(orderId).withUpdatedStatus("CANCELLED_NO_STOCK");
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () ->
+            updateOrderService.updateOrder(orderId, Order.builder().orderStatus("STOCK_CONFIRMED").build())
+        );
+
+        assertEquals("Transición de estado no permitida: CANCELLED_NO_STOCK -> STOCK_CONFIRMED", exception.getMessage());
+        verify(orderRepository, never()).transitionStatus(any(), any(), any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(statusHistory);
+    }
+
+    @Test
+    void shouldRejectUnknownStatus() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(createSampleOrder(orderId)));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () ->
+            updateOrderService.updateOrder(orderId, Order.builder().orderStatus("COMPLETED").build())
+        );
+
+        assertEquals("Estado de orden desconocido: COMPLETED", exception.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void shouldRejectWhenStockResponseMovedTheOrderFirst() {
+        // Arrange: la respuesta de stock confirmó la orden entre la lectura y la actualización
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(createSampleOrder(orderId)));
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.UNAVAILABLE))
+                .thenReturn(false);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () ->
+            updateOrderService.updateOrder(orderId, Order.builder().orderStatus("UNAVAILABLE").build())
+        );
+        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(productRepository, statusHistory);
+    }
+
+    @Test
+    void shouldKeepStatusWhenRequestRepeatsCurrentOne() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(createSampleOrder(orderId)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order updatedOrder = updateOrderService.updateOrder(orderId, Order.builder()
+                .orderStatus("PENDING_VALIDATION")
+                .build());
+
+        // Assert
+        assertEquals("PENDING_VALIDATION", updatedOrder.getOrderStatus());
+        verify(orderRepository, never()).transitionStatus(any(), any(), any());
+        verifyNoInteractions(statusHistory);
     }
 
     @Test
@@ -139,7 +256,7 @@ class UpdateOrderServiceTest {
                         .email("john@example.com")
                         .phone("1234567890")
                         .build())
-                .orderStatus("PENDING")
+                .orderStatus("PENDING_VALIDATION")
                 .orderDate(LocalDateTime.now())
                 .deliveryAddress(AddressShipping.builder()
                         .street("123 Main St")
@@ -151,4 +268,11 @@ class UpdateOrderServiceTest {
                 .products(new ArrayList<>())
                 .build();
     }
-} 
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private List<OrderStatusChange> appendedChanges() {
+        ArgumentCaptor<List<OrderStatusChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusHistory).append(captor.capture());
+        return captor.getValue();
+    }
+}
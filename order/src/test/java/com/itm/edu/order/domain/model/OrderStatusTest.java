@@ -0,0 +1,25 @@
+package com.itm.edu.order.domain.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusTest {
+
+    @Test
+    void shouldAllowTransitionsFromPendingValidation() {
+        // Act & Assert
+        assertTrue(OrderStatus.PENDING_VALIDATION.canTransitionTo(OrderStatus.STOCK_CONFIRMED));
+        assertTrue(OrderStatus.PENDING_VALIDATION.canTransitionTo(OrderStatus.CANCELLED_NO_STOCK));
+        assertTrue(OrderStatus.PENDING_VALIDATION.canTransitionTo(OrderStatus.UNAVAILABLE));
+        assertFalse(OrderStatus.PENDING_VALIDATION.canTransitionTo(OrderStatus.PENDING_VALIDATION));
+    }
+
+    @Test
+    void shouldRejectTransitionsFromTerminalStatus() {
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                OrderStatus.STOCK_CONFIRMED.requireTransitionTo(OrderStatus.CANCELLED_NO_STOCK));
+        assertEquals("Transición de estado no permitida: STOCK_CONFIRMED -> CANCELLED_NO_STOCK", exception.getMessage());
+        assertTrue(OrderStatus.UNAVAILABLE.allowedTransitions().isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.itm.edu.order.infrastructure.config;
+
+import com.itm.edu.common.messaging.WireFormat;
+import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.order.application.dto.events.StockValidationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RabbitMQConfigTest {
+
+    private final RabbitMQConfig rabbitMQConfig = new RabbitMQConfig();
+
+    @Test
+    void rabbitTemplate_ShouldPublishMandatoryMessages() {
+        // Arrange
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+        // Act
+        RabbitTemplate template = rabbitMQConfig.rabbitTemplate(connectionFactory,
+                rabbitMQConfig.messageConverter("json"));
+
+        // Assert: sin ruta, el broker devuelve el mensaje en lugar de confirmarlo en silencio
+        assertTrue(template.isMandatoryFor(new Message(new byte[0], new MessageProperties())));
+    }
+
+    @Test
+    void smileMessageConverter_ShouldReadStockResponseAsOrderEvent() {
+        // Arrange: stock publica el evento de common; órdenes lo lee con su propio evento
+        StockUpdateResponseEvent response = StockUpdateResponseEvent.builder()
+                .orderId(UUID.randomUUID())
+                .status(StockValidationStatus.RESERVED)
+                .build();
+        MessageConverter smile = rabbitMQConfig.messageConverter("smile-v1");
+        Message message = smile.toMessage(response, new MessageProperties());
+        message.getMessageProperties().setHeader("__TypeId__", RabbitMQConfig.STOCK_RESPONSE_TYPE_ID);
+
+        // Act
+        Object received = rabbitMQConfig.messageConverter("json").fromMessage(message);
+
+        // Assert
+        assertEquals(WireFormat.SMILE_V1.getContentType(), message.getMessageProperties().getContentType());
+        assertEquals(response, received);
+    }
+
+    @Test
+    void messageConverters_ShouldRejectTypesOutsideTrustedPackages() {
+        // Arrange
+        for (String wireFormat : new String[] {"json", "smile-v1"}) {
+            MessageConverter converter = rabbitMQConfig.messageConverter(wireFormat);
+            Message message = converter.toMessage(UUID.randomUUID(), new MessageProperties());
+            message.getMessageProperties().setHeader("__TypeId__", "java.net.URL");
+
+            // Act & Assert
+            assertThrows(RuntimeException.class, () -> converter.fromMessage(message), wireFormat);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.itm.edu.order.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itm.edu.order.domain.exception.HttpStatusException;
+import com.itm.edu.order.infrastructure.persistence.entities.IdempotencyKeyEntity;
+import com.itm.edu.order.infrastructure.persistence.repository.JpaIdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentRequestHandlerTest {
+
+    @Mock
+    private JpaIdempotencyKeyRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotentRequestHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        Cache<String, IdempotentResponse> cache = Caffeine.newBuilder().maximumSize(100).build();
+        handler = new IdempotentRequestHandler(repository, cache, objectMapper, transactionManager,
+                Duration.ofSeconds(5), 10, Duration.ofSeconds(30), Duration.ofHours(24));
+    }
+
+    @Test
+    void shouldReplayOriginalResponseWithoutRunningActionAgain() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<ResponseEntity<?>> action = () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("orderStatus", "PENDING_VALIDATION"));
+        };
+
+        // Act
+        ResponseEntity<?> first = handler.execute("key-1", Map.of("item", 1), action);
+        ResponseEntity<?> replay = handler.execute("key-1", Map.of("item", 1), action);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotentRequestHandler.REPLAYED_HEADER));
+        assertEquals(objectMapper.valueToTree(first.getBody()), replay.getBody());
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyKeyEntity.class));
+        verify(repository).complete(eq("key-1"), eq(201), isNull(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldRejectSameKeyWithDifferentRequest() {
+        // Arrange
+        handler.execute("key-1", Map.of("item", 1), () -> ResponseEntity.status(HttpStatus.CREATED).build());
+
+        // Act & Assert
+        HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> handler.execute("key-1", Map.of("item", 2), () -> fail("no debe ejecutarse")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatus());
+    }
+
+    @Test
+    void shouldMakeConcurrentDuplicateWaitForFirstRequest() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<ResponseEntity<?>> action = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("orderStatus", "PENDING_VALIDATION"));
+        };
+
+        // Act
+        CompletableFuture<ResponseEntity<?>> first =
+                CompletableFuture.supplyAsync(() -> handler.execute("key-1", Map.of("item", 1), action));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<?>> duplicate =
+                CompletableFuture.supplyAsync(() -> handler.execute("key-1", Map.of("item", 1), action));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(HttpStatus.CREATED, duplicate.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldReplayResponseCompletedByAnotherNode() throws Exception {
+        // Arrange
+        when(repository.saveAndFlush(any(IdempotencyKeyEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        String requestHash = fingerprintOf(Map.of("item", 1));
+        when(repository.findById("key-1")).thenReturn(Optional.of(IdempotencyKeyEntity.builder()
+                .idempotencyKey("key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyKeyEntity.COMPLETED)
+                .responseStatus(202)
+                .responseLocation("/api/v1/orders/abc")
+                .responseBody("{\"orderStatus\":\"ACCEPTED\"}")
+                .build()));
+
+        // Act
+        ResponseEntity<?> response = handler.execute("key-1", Map.of("item", 1), () -> fail("no debe ejecutarse"));
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/v1/orders/abc", response.getHeaders().getLocation().toString());
+        assertEquals(objectMapper.readTree("{\"orderStatus\":\"ACCEPTED\"}"), response.getBody());
+    }
+
+    @Test
+    void shouldReleaseKeyOnServerError() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<ResponseEntity<?>> action = () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        };
+
+        // Act
+        handler.execute("key-1", Map.of("item", 1), action);
+        handler.execute("key-1", Map.of("item", 1), action);
+
+        // Assert
+        assertEquals(2, executions.get());
+        verify(repository, times(2)).release("key-1");
+        verify(repository, never()).complete(anyString(), anyInt(), any(), any(), any());
+    }
+
+    private String fingerprintOf(Object request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        return HexFormat.of().formatHex(digest);
+    }
+}
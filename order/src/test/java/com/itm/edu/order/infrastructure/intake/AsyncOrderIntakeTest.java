@@ -0,0 +1,89 @@
+package com.itm.edu.order.infrastructure.intake;
+
+import com.itm.edu.order.application.dto.OrderIntakeStatus;
+import com.itm.edu.order.application.ports.inputs.CreateOrderUseCase;
+import com.itm.edu.order.domain.exception.BusinessException;
+import com.itm.edu.order.domain.exception.HttpStatusException;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderIntakeTest {
+
+    @Mock
+    private CreateOrderUseCase createOrderUseCase;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AsyncOrderIntake intake;
+
+    private final CreateClientDto clientDto = new CreateClientDto("John Doe", "john@example.com", "1234567890");
+    private final AddressShipping address = AddressShipping.builder()
+            .street("Calle 123")
+            .city("Medellín")
+            .state("Antioquia")
+            .zipCode("050001")
+            .country("Colombia")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        // Sin llamar a start(): los lotes se procesan manualmente en el hilo del test
+        intake = new AsyncOrderIntake(createOrderUseCase, transactionManager, 2, 1, 10, 100);
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        // Arrange
+        Map<UUID, BigDecimal> quantities = Map.of(UUID.randomUUID(), BigDecimal.ONE);
+        intake.submitOrder(clientDto, quantities, address);
+        intake.submitOrder(clientDto, quantities, address);
+
+        // Act & Assert
+        HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> intake.submitOrder(clientDto, quantities, address));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+    }
+
+    @Test
+    void shouldIsolateFailingOrderWhenBatchFails() {
+        // Arrange
+        Map<UUID, BigDecimal> quantities = Map.of(UUID.randomUUID(), BigDecimal.ONE);
+        AsyncOrderIntake.IntakeRequest valid = new AsyncOrderIntake.IntakeRequest(UUID.randomUUID(), clientDto, quantities, address);
+        AsyncOrderIntake.IntakeRequest invalid = new AsyncOrderIntake.IntakeRequest(UUID.randomUUID(), clientDto, quantities, address);
+        when(createOrderUseCase.createOrder(any(), any(), any(), any())).thenAnswer(invocation -> {
+            if (invalid.getOrderId().equals(invocation.getArgument(0))) {
+                throw new BusinessException("Stock insuficiente para el producto: Pizza");
+            }
+            return null;
+        });
+
+        // Act
+        intake.processBatch(List.of(valid, invalid));
+
+        // Assert
+        verify(createOrderUseCase, times(2)).createOrder(eq(valid.getOrderId()), any(), any(), any());
+        assertEquals(Optional.empty(), intake.getIntakeStatus(valid.getOrderId()));
+        OrderIntakeStatus status = intake.getIntakeStatus(invalid.getOrderId()).orElseThrow();
+        assertTrue(status.isRejected());
+        assertEquals("Stock insuficiente para el producto: Pizza", status.getReason());
+    }
+}
@@ -0,0 +1,140 @@
+package com.itm.edu.order.infrastructure.messaging;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.order.infrastructure.config.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RabbitOrderPublisherTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RabbitOrderPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new RabbitOrderPublisher(rabbitTemplate, meterRegistry, 2);
+    }
+
+    @Test
+    void shouldCompleteOnAckAndReleaseWindow() {
+        // Act
+        CompletableFuture<Void> result = publisher.publishAsync(message(), "evt-1", CREATED_AT);
+        CorrelationData correlation = sentCorrelation();
+
+        // Assert
+        assertFalse(result.isDone());
+        assertEquals(1, publisher.inFlightCount());
+        assertEquals("evt-1", correlation.getId());
+
+        correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        assertEquals(0, publisher.inFlightCount());
+        assertEquals(1.0, meterRegistry.counter("order.publisher.confirms", "result", "ack").count());
+        assertEquals(1, meterRegistry.timer("order.publisher.confirm.latency").count());
+    }
+
+    @Test
+    void shouldFailOnNack() {
+        // Act
+        CompletableFuture<Void> result = publisher.publishAsync(message(), "evt-1", CREATED_AT);
+        sentCorrelation().getFuture().complete(new CorrelationData.Confirm(false, "rechazado"));
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertEquals("nack: rechazado", exception.getCause().getMessage());
+        assertEquals(0, publisher.inFlightCount());
+    }
+
+    @Test
+    void shouldFailWhenMessageIsReturned() {
+        // Act
+        CompletableFuture<Void> result = publisher.publishAsync(message(), "evt-1", CREATED_AT);
+        CorrelationData correlation = sentCorrelation();
+        correlation.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                312, "NO_ROUTE", RabbitMQConfig.ORDER_EXCHANGE, RabbitMQConfig.ORDER_ROUTING_KEY));
+        correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertEquals("mensaje devuelto: NO_ROUTE", exception.getCause().getMessage());
+        assertEquals(1.0, meterRegistry.counter("order.publisher.confirms", "result", "returned").count());
+    }
+
+    @Test
+    void shouldFailAndReleaseWindowWhenSendThrows() {
+        // Arrange
+        doThrow(new IllegalStateException("conexión cerrada")).when(rabbitTemplate)
+                .convertAndSend(eq(RabbitMQConfig.ORDER_EXCHANGE), eq(RabbitMQConfig.ORDER_ROUTING_KEY),
+                        any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        // Act
+        CompletableFuture<Void> result = publisher.publishAsync(message(), "evt-1", CREATED_AT);
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, publisher.inFlightCount());
+    }
+
+    @Test
+    void shouldCarryCorrelationIdAndLifecycleTimestamps() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        publisher.publishAsync(message(), "evt-1", CREATED_AT);
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.ORDER_EXCHANGE), eq(RabbitMQConfig.ORDER_ROUTING_KEY),
+                any(Object.class), postProcessor.capture(), any(CorrelationData.class));
+        Message sent = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+
+        // Assert
+        MessageProperties properties = sent.getMessageProperties();
+        assertEquals("evt-1", properties.getCorrelationId());
+        assertEquals(CREATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                (Long) properties.getHeader(MessageLifecycle.CREATED_AT_HEADER));
+        assertTrue((Long) properties.getHeader(MessageLifecycle.PUBLISHED_AT_HEADER) >= before);
+    }
+
+    private CorrelationData sentCorrelation() {
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.ORDER_EXCHANGE), eq(RabbitMQConfig.ORDER_ROUTING_KEY),
+                any(Object.class), any(MessagePostProcessor.class), correlation.capture());
+        return correlation.getValue();
+    }
+
+    private OrderMessageDTO message() {
+        return OrderMessageDTO.builder().orderId(UUID.randomUUID()).build();
+    }
+}
@@ -3,21 +3,30 @@ package com.itm.edu.order.infrastructure.messaging;
 import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
 import com.itm.edu.order.application.dto.events.StockValidationStatus;
 import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.OrderStatusHistoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
 import com.itm.edu.order.domain.exception.BusinessException;
-import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
 import com.itm.edu.order.infrastructure.config.RabbitMQConfig;
+import com.itm.edu.order.infrastructure.metrics.ValidationLatencyRecorder;
 import com.itm.edu.common.dto.ProductOrderDTO;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.core.Message;
-import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,9 +42,25 @@ class StockEventListenerServiceTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
+    @Mock
+    private OrderStatusHistoryPort statusHistory;
+
+    @Mock
+    private ValidationLatencyRecorder latencyRecorder;
+
+    @Mock
+    private ProductRepositoryPort productRepository;
+
     @InjectMocks
     private StockEventListenerService stockEventListenerService;
 
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void shouldHandleStockValidationSuccessEvent() {
         // Arrange
@@ -44,30 +69,28 @@ class StockEventListenerServiceTest {
                 .orderId(orderId)
                 .status(StockValidationStatus.RESERVED)
                 .build();
-        
-        Order order = Order.builder()
-                .orderId(orderId)
-                .orderStatus("PENDING_VALIDATION")
-                .build();
-
-        Order updatedOrder = Order.builder()
-                .orderId(orderId)
-                .orderStatus("STOCK_CONFIRMED")
-                .build();
+        List<ProductOrderDTO> lines = List.of(ProductOrderDTO.builder()
+                .productId(UUID.randomUUID())
+                .quantity(2)
+                .build());
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED))
+                .thenReturn(true);
+        when(orderRepository.findProductLines(orderId)).thenReturn(lines);
 
         // Act
         stockEventListenerService.handleStockValidationResponse(event);
 
         // Assert
-        verify(orderRepository).findById(orderId);
-        verify(orderRepository).save(any(Order.class));
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any());
         verify(rabbitTemplate).convertAndSend(
                 eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE),
                 eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
-                any(List.class)
+                eq(lines),
+                argThat((MessagePostProcessor postProcessor) -> orderId.toString().equals(postProcessor
+                        .postProcessMessage(new Message(new byte[0]))
+                        .getMessageProperties().getHeader(MessageLifecycle.ORDER_ID_HEADER)))
         );
     }
 
@@ -80,30 +103,27 @@ class StockEventListenerServiceTest {
                 .status(StockValidationStatus.CANCELLED_NO_STOCK)
                 .reason("No hay stock disponible")
                 .build();
-        
-        Order order = Order.builder()
-                .orderId(orderId)
-                .orderStatus("PENDING_VALIDATION")
-                .build();
+        UUID pizza = UUID.randomUUID();
+        UUID soda = UUID.randomUUID();
+        List<ProductOrderDTO> lines = List.of(
+                ProductOrderDTO.builder().productId(pizza).quantity(2).build(),
+                ProductOrderDTO.builder().productId(soda).quantity(1).build(),
+                ProductOrderDTO.builder().productId(pizza).quantity(1).build());
 
-        Order updatedOrder = Order.builder()
-                .orderId(orderId)
-                .orderStatus("CANCELLED_NO_STOCK")
-                .build();
-
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.CANCELLED_NO_STOCK))
+                .thenReturn(true);
+        when(orderRepository.findProductLines(orderId)).thenReturn(lines);
 
         // Act
         stockEventListenerService.handleStockValidationResponse(event);
 
-        // Assert
-        verify(orderRepository).findById(orderId);
-        verify(orderRepository).save(any(Order.class));
+        // Assert: las unidades descontadas al crear la orden vuelven al catálogo
+        verify(productRepository).releaseStock(Map.of(pizza, 3, soda, 1));
         verify(rabbitTemplate, never()).convertAndSend(
                 eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE),
                 eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
-                any(List.class)
+                any(List.class),
+                any(MessagePostProcessor.class)
         );
     }
 
@@ -154,19 +174,228 @@ class StockEventListenerServiceTest {
                 .status(StockValidationStatus.RESERVED)
                 .build();
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED))
+                .thenReturn(false);
+        when(orderRepository.existsById(orderId)).thenReturn(false);
 
         // Act & Assert
         BusinessException exception = assertThrows(BusinessException.class, () ->
                 stockEventListenerService.handleStockValidationResponse(event));
 
         assertEquals("Orden no encontrada: " + orderId, exception.getMessage());
-        verify(orderRepository).findById(orderId);
-        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).findProductLines(any());
         verify(rabbitTemplate, never()).convertAndSend(
                 eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE),
                 eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
-                any(List.class)
+                any(List.class),
+                any(MessagePostProcessor.class)
+        );
+    }
+
+    @Test
+    void shouldIgnoreDuplicateResponseWhenOrderAlreadyTransitioned() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        StockUpdateResponseEvent event = StockUpdateResponseEvent.builder()
+                .orderId(orderId)
+                .status(StockValidationStatus.RESERVED)
+                .build();
+
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED))
+                .thenReturn(false);
+        when(orderRepository.existsById(orderId)).thenReturn(true);
+
+        // Act
+        stockEventListenerService.handleStockValidationResponse(event);
+
+        // Assert
+        verify(orderRepository, never()).findProductLines(any());
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldApplyBatchOfResponsesInOnePass() {
+        // Arrange
+        UUID reserved = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        UUID alreadyProcessed = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        List<StockUpdateResponseEvent> events = List.of(
+                event(reserved, StockValidationStatus.RESERVED),
+                event(cancelled, StockValidationStatus.CANCELLED_NO_STOCK),
+                event(alreadyProcessed, StockValidationStatus.RESERVED),
+                event(missing, StockValidationStatus.UNAVAILABLE),
+                event(reserved, StockValidationStatus.RESERVED));
+        List<ProductOrderDTO> lines = List.of(ProductOrderDTO.builder()
+                .productId(UUID.randomUUID())
+                .quantity(1)
+                .build());
+        UUID cancelledProduct = UUID.randomUUID();
+        List<ProductOrderDTO> cancelledLines = List.of(ProductOrderDTO.builder()
+                .productId(cancelledProduct)
+                .quantity(4)
+                .build());
+
+        when(orderRepository.transitionStatuses(anyMap(), eq(OrderStatus.PENDING_VALIDATION)))
+                .thenReturn(Set.of(reserved, cancelled));
+        when(orderRepository.findExistingIds(List.of(alreadyProcessed, missing))).thenReturn(Set.of(alreadyProcessed));
+        when(orderRepository.findProductLinesByOrderIds(argThat(ids -> ids.size() == 2
+                && ids.containsAll(List.of(reserved, cancelled)))))
+                .thenReturn(Map.of(reserved, lines, cancelled, cancelledLines));
+
+        // Act
+        stockEventListenerService.handleStockValidationResponses(events);
+
+        // Assert
+        verify(orderRepository).transitionStatuses(Map.of(
+                reserved, OrderStatus.STOCK_CONFIRMED,
+                cancelled, OrderStatus.CANCELLED_NO_STOCK,
+                alreadyProcessed, OrderStatus.STOCK_CONFIRMED,
+                missing, OrderStatus.UNAVAILABLE), OrderStatus.PENDING_VALIDATION);
+        verify(rabbitTemplate, times(1)).convertAndSend(
+                eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE),
+                eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
+                eq(lines),
+                any(MessagePostProcessor.class)
         );
+        verify(orderRepository, never()).transitionStatus(any(), any(), any());
+        verify(productRepository).releaseStock(Map.of(cancelledProduct, 4));
+        verify(statusHistory).append(argThat(changes -> changes.size() == 2));
+        verify(latencyRecorder, times(2)).record(any(), anyLong());
+    }
+
+    @Test
+    void shouldSendBatchStockUpdatesOnlyAfterCommit() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<ProductOrderDTO> lines = List.of(ProductOrderDTO.builder()
+                .productId(UUID.randomUUID())
+                .quantity(1)
+                .build());
+        when(orderRepository.transitionStatuses(anyMap(), eq(OrderStatus.PENDING_VALIDATION)))
+                .thenReturn(Set.of(first, second));
+        when(orderRepository.findProductLinesByOrderIds(anyList())).thenReturn(Map.of(first, lines, second, lines));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        stockEventListenerService.handleStockValidationResponses(List.of(
+                event(first, StockValidationStatus.RESERVED), event(second, StockValidationStatus.RESERVED)));
+        verifyNoInteractions(rabbitTemplate);
+        complete(true);
+
+        // Assert
+        verify(rabbitTemplate, times(2)).convertAndSend(
+                eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE),
+                eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
+                eq(lines),
+                any(MessagePostProcessor.class)
+        );
+    }
+
+    @Test
+    void shouldNotSendStockUpdatesWhenBatchRollsBack() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.transitionStatuses(anyMap(), eq(OrderStatus.PENDING_VALIDATION)))
+                .thenReturn(Set.of(orderId));
+        when(orderRepository.findProductLinesByOrderIds(anyList())).thenReturn(Map.of(orderId, List.of()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        stockEventListenerService.handleStockValidationResponses(List.of(event(orderId, StockValidationStatus.RESERVED)));
+        complete(false);
+
+        // Assert: el reintento uno a uno enviará la confirmación cuando la transición sí se confirme
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldKeepSendingRemainingStockUpdatesWhenOneSendFails() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<ProductOrderDTO> firstLines = List.of(ProductOrderDTO.builder().productId(UUID.randomUUID()).quantity(1).build());
+        List<ProductOrderDTO> secondLines = List.of(ProductOrderDTO.builder().productId(UUID.randomUUID()).quantity(2).build());
+        when(orderRepository.transitionStatuses(anyMap(), eq(OrderStatus.PENDING_VALIDATION)))
+                .thenReturn(new LinkedHashSet<>(List.of(first, second)));
+        when(orderRepository.findProductLinesByOrderIds(anyList()))
+                .thenReturn(Map.of(first, firstLines, second, secondLines));
+        doThrow(new AmqpException("broker caído")).when(rabbitTemplate).convertAndSend(
+                eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE), eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
+                eq(firstLines), any(MessagePostProcessor.class));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        stockEventListenerService.handleStockValidationResponses(List.of(
+                event(first, StockValidationStatus.RESERVED), event(second, StockValidationStatus.RESERVED)));
+        complete(true);
+
+        // Assert
+        verify(rabbitTemplate).convertAndSend(
+                eq(RabbitMQConfig.STOCK_UPDATE_EXCHANGE), eq(RabbitMQConfig.STOCK_UPDATE_ROUTING_KEY),
+                eq(secondLines), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void shouldRecordHistoryAndLatencyForAppliedTransition() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        MessageLifecycle lifecycle = MessageLifecycle.builder()
+                .correlationId("evt-1")
+                .createdAt(1_000L)
+                .publishedAt(1_010L)
+                .stockReceivedAt(1_030L)
+                .stockRepliedAt(1_050L)
+                .build();
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.UNAVAILABLE))
+                .thenReturn(true);
+
+        // Act
+        stockEventListenerService.handleStockValidationResponse(event(orderId, StockValidationStatus.UNAVAILABLE), lifecycle);
+
+        // Assert
+        verify(statusHistory).append(argThat(changes -> changes.size() == 1
+                && changes.get(0).getOrderId().equals(orderId)
+                && changes.get(0).getFromStatus() == OrderStatus.PENDING_VALIDATION
+                && changes.get(0).getToStatus() == OrderStatus.UNAVAILABLE
+                && "stock-service".equals(changes.get(0).getSource())
+                && "evt-1".equals(changes.get(0).getCorrelationId())));
+        verify(latencyRecorder).record(eq(lifecycle), anyLong());
+    }
+
+    @Test
+    void shouldNotRecordHistoryForIgnoredResponse() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED))
+                .thenReturn(false);
+        when(orderRepository.existsById(orderId)).thenReturn(true);
+
+        // Act
+        stockEventListenerService.handleStockValidationResponse(event(orderId, StockValidationStatus.RESERVED));
+
+        // Assert
+        verifyNoInteractions(statusHistory, latencyRecorder);
+    }
+
+    private void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private StockUpdateResponseEvent event(UUID orderId, StockValidationStatus status) {
+        return StockUpdateResponseEvent.builder()
+                .orderId(orderId)
+                .status(status)
+                .build();
     }
-} 
\ No newline at end of file
+}
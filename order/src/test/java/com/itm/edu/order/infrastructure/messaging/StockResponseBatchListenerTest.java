@@ -0,0 +1,162 @@
+package com.itm.edu.order.infrastructure.messaging;
+
+import com.itm.edu.order.application.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.order.application.dto.events.StockValidationStatus;
+import com.itm.edu.order.domain.exception.BusinessException;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockResponseBatchListenerTest {
+
+    @Mock
+    private StockEventListenerService stockEventListenerService;
+
+    @Mock
+    private Channel channel;
+
+    @InjectMocks
+    private StockResponseBatchListener stockResponseBatchListener;
+
+    @Test
+    void shouldProcessWholeBatchInOneCall() throws IOException {
+        // Arrange
+        StockUpdateResponseEvent first = event();
+        StockUpdateResponseEvent second = event();
+
+        // Act
+        stockResponseBatchListener.handleStockValidationResponses(List.of(message(first, 1L), message(second, 2L)), channel);
+
+        // Assert
+        verify(stockEventListenerService).handleStockValidationResponses(eq(List.of(first, second)), anyMap());
+        verify(stockEventListenerService, never()).handleStockValidationResponse(any(), any());
+        verify(channel).basicAck(2L, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPassLifecycleHeadersByOrder() throws IOException {
+        // Arrange
+        StockUpdateResponseEvent event = event();
+        Message<StockUpdateResponseEvent> message = MessageBuilder.withPayload(event)
+                .setHeader(AmqpHeaders.CORRELATION_ID, "evt-1")
+                .setHeader(MessageLifecycle.CREATED_AT_HEADER, 1_000L)
+                .setHeader(MessageLifecycle.STOCK_REPLIED_AT_HEADER, 1_050L)
+                .setHeader(AmqpHeaders.DELIVERY_TAG, 1L)
+                .build();
+
+        // Act
+        stockResponseBatchListener.handleStockValidationResponses(List.of(message), channel);
+
+        // Assert
+        ArgumentCaptor<Map<UUID, MessageLifecycle>> lifecycles = ArgumentCaptor.forClass(Map.class);
+        verify(stockEventListenerService).handleStockValidationResponses(eq(List.of(event)), lifecycles.capture());
+        MessageLifecycle lifecycle = lifecycles.getValue().get(event.getOrderId());
+        assertEquals("evt-1", lifecycle.getCorrelationId());
+        assertEquals(1_000L, lifecycle.getCreatedAt());
+        assertEquals(1_050L, lifecycle.getStockRepliedAt());
+        assertNull(lifecycle.getPublishedAt());
+    }
+
+    @Test
+    void shouldFallBackToOneByOneWhenBatchFails() throws IOException {
+        // Arrange
+        StockUpdateResponseEvent unknownOrder = event();
+        StockUpdateResponseEvent valid = event();
+        List<StockUpdateResponseEvent> events = List.of(unknownOrder, valid);
+
+        doThrow(new IllegalStateException("lote fallido"))
+                .when(stockEventListenerService).handleStockValidationResponses(eq(events), anyMap());
+        doThrow(new BusinessException("Orden no encontrada: " + unknownOrder.getOrderId()))
+                .when(stockEventListenerService).handleStockValidationResponse(eq(unknownOrder), any());
+
+        // Act
+        stockResponseBatchListener.handleStockValidationResponses(
+                List.of(message(unknownOrder, 1L), message(valid, 2L)), channel);
+
+        // Assert: la orden inexistente se descarta igual que en el modo por mensaje
+        verify(stockEventListenerService).handleStockValidationResponse(eq(unknownOrder), any());
+        verify(stockEventListenerService).handleStockValidationResponse(eq(valid), any());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldRejectOnlyTheEventThatFailsWithInfrastructureError() throws IOException {
+        // Arrange
+        StockUpdateResponseEvent failing = event();
+        StockUpdateResponseEvent valid = event();
+        List<StockUpdateResponseEvent> events = List.of(failing, valid);
+
+        doThrow(new IllegalStateException("lote fallido"))
+                .when(stockEventListenerService).handleStockValidationResponses(eq(events), anyMap());
+        doThrow(new DataAccessResourceFailureException("base de datos caída"))
+                .when(stockEventListenerService).handleStockValidationResponse(eq(failing), any());
+
+        // Act
+        stockResponseBatchListener.handleStockValidationResponses(
+                List.of(message(failing, 1L), message(valid, 2L)), channel);
+
+        // Assert
+        verify(channel).basicReject(1L, true);
+        verify(channel).basicAck(2L, false);
+        verify(channel, never()).basicAck(anyLong(), eq(true));
+    }
+
+    @Test
+    void shouldDiscardRedeliveredEventThatFailsAgain() throws IOException {
+        // Arrange
+        StockUpdateResponseEvent failing = event();
+        Message<StockUpdateResponseEvent> redelivered = MessageBuilder.withPayload(failing)
+                .setHeader(AmqpHeaders.DELIVERY_TAG, 7L)
+                .setHeader(AmqpHeaders.REDELIVERED, true)
+                .build();
+
+        doThrow(new IllegalStateException("lote fallido"))
+                .when(stockEventListenerService).handleStockValidationResponses(eq(List.of(failing)), anyMap());
+        doThrow(new DataAccessResourceFailureException("base de datos caída"))
+                .when(stockEventListenerService).handleStockValidationResponse(eq(failing), any());
+
+        // Act
+        stockResponseBatchListener.handleStockValidationResponses(List.of(redelivered), channel);
+
+        // Assert
+        verify(channel).basicReject(7L, false);
+    }
+
+    private Message<StockUpdateResponseEvent> message(StockUpdateResponseEvent event, long deliveryTag) {
+        return MessageBuilder.withPayload(event)
+                .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+                .build();
+    }
+    private StockUpdateResponseEvent event() {
+        return StockUpdateResponseEvent.builder()
+                .orderId(UUID.randomUUID())
+                .status(StockValidationStatus.RESERVED)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.itm.edu.order.infrastructure.messaging.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.order.infrastructure.messaging.RabbitOrderPublisher;
+import com.itm.edu.order.infrastructure.persistence.entities.OutboxEventEntity;
+import com.itm.edu.order.infrastructure.persistence.repository.JpaOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private JpaOutboxEventRepository outboxRepository;
+
+    @Mock
+    private RabbitOrderPublisher rabbitOrderPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxRepository, rabbitOrderPublisher, objectMapper,
+                transactionManager, 10, 5, 1000, 1000, 60000, meterRegistry);
+    }
+
+    @Test
+    void shouldDeleteOnlyConfirmedEvents() throws Exception {
+        // Arrange
+        OutboxEventEntity acked = event();
+        OutboxEventEntity nacked = event();
+        when(outboxRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(List.of(acked, nacked));
+        when(rabbitOrderPublisher.publishAsync(any(OrderMessageDTO.class), anyString(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            OrderMessageDTO message = invocation.getArgument(0);
+            return message.getOrderId().equals(acked.getAggregateId())
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.failedFuture(new AmqpException("nack: rechazado"));
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(1, relayed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEventEntity>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).deleteAllInBatch(deleted.capture());
+        assertEquals(List.of(acked), deleted.getValue());
+        assertEquals(0, acked.getAttempts());
+        assertEquals(1, nacked.getAttempts());
+        assertTrue(nacked.getLastError().contains("rechazado"));
+        assertNull(acked.getNextAttemptAt());
+        assertFalse(nacked.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+    }
+
+    @Test
+    void shouldStopDrainingWhenBatchMakesNoProgress() throws Exception {
+        // Arrange: el broker rechaza la conexión y ningún evento del lote completo se confirma
+        List<OutboxEventEntity> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(event());
+        }
+        when(outboxRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(batch);
+        when(rabbitOrderPublisher.publishAsync(any(OrderMessageDTO.class), anyString(), any(LocalDateTime.class)))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("Connection refused")));
+
+        // Act
+        relay.drain();
+
+        // Assert: una sola pasada y cada evento gasta un único intento
+        verify(outboxRepository, times(1)).lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class));
+        assertTrue(batch.stream().allMatch(event -> event.getAttempts() == 1));
+    }
+
+    @Test
+    void shouldBackOffExponentiallyAndCountParkedEvents() throws Exception {
+        // Arrange
+        OutboxEventEntity retrying = event();
+        retrying.setAttempts(2);
+        OutboxEventEntity lastAttempt = event();
+        lastAttempt.setAttempts(4);
+        when(outboxRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(List.of(retrying, lastAttempt));
+        when(rabbitOrderPublisher.publishAsync(any(OrderMessageDTO.class), anyString(), any(LocalDateTime.class)))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("nack")));
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        relay.relayBatch();
+
+        // Assert: tercer intento fallido espera 4 s; el quinto agota los intentos y se aparca
+        assertFalse(retrying.getNextAttemptAt().isBefore(before.plusSeconds(4)));
+        assertTrue(retrying.getNextAttemptAt().isBefore(before.plusSeconds(5)));
+        assertEquals(5, lastAttempt.getAttempts());
+        assertEquals(1.0, meterRegistry.counter("order.outbox.parked").count());
+    }
+
+    @Test
+    void shouldRedriveParkedEvents() {
+        // Arrange
+        when(outboxRepository.redriveParked(5)).thenReturn(3);
+
+        // Act
+        relay.redriveParked();
+
+        // Assert
+        verify(outboxRepository).redriveParked(5);
+    }
+
+    @Test
+    void shouldDoNothingWhenOutboxIsEmpty() {
+        // Arrange
+        when(outboxRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(0, relayed);
+        verifyNoInteractions(rabbitOrderPublisher);
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    private OutboxEventEntity event() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        OrderMessageDTO message = OrderMessageDTO.builder().orderId(orderId).build();
+        return OutboxEventEntity.builder()
+                .id(UUID.randomUUID())
+                .aggregateId(orderId)
+                .payload(objectMapper.writeValueAsString(message))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.itm.edu.order.infrastructure.metrics;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.metrics.PortMetricsPostProcessor;
+import com.itm.edu.order.application.ports.inputs.DeleteOrderUseCase;
+import com.itm.edu.order.application.ports.outputs.OrderPublisherPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortMetricsPostProcessorTest {
+
+    private MeterRegistry meterRegistry;
+    private PortMetricsPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        postProcessor = new PortMetricsPostProcessor("com.itm.edu.order.application.ports",
+                beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void shouldTimeOutputPortCalls() {
+        // Arrange
+        RecordingPublisher publisher = (RecordingPublisher) postProcessor.postProcessAfterInitialization(
+                new RecordingPublisher(), "publisher");
+
+        // Act
+        publisher.publish(new OrderMessageDTO());
+        publisher.publish(new OrderMessageDTO());
+
+        // Assert
+        assertTrue(AopUtils.isAopProxy(publisher));
+        assertEquals(2, publisher.published());
+        Timer timer = meterRegistry.get(PortMetricsPostProcessor.METRIC)
+                .tag("port", "OrderPublisherPort")
+                .tag("method", "publish")
+                .tag("direction", "output")
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void shouldTimeFailedInputPortCallsAsErrors() {
+        // Arrange
+        DeleteOrderUseCase useCase = (DeleteOrderUseCase) postProcessor.postProcessAfterInitialization(
+                new FailingDeleteOrder(), "deleteOrder");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> useCase.deleteOrder(UUID.randomUUID()));
+        Timer timer = meterRegistry.get(PortMetricsPostProcessor.METRIC)
+                .tag("port", "DeleteOrderUseCase")
+                .tag("direction", "input")
+                .tag("outcome", "error")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void shouldLeaveNonPortBeansUntouched() {
+        // Arrange
+        Object bean = new Object();
+
+        // Act
+        Object result = postProcessor.postProcessAfterInitialization(bean, "plain");
+
+        // Assert
+        assertSame(bean, result);
+    }
+
+    static class RecordingPublisher implements OrderPublisherPort {
+        private int published;
+
+        @Override
+        public void publish(OrderMessageDTO message) {
+            published++;
+        }
+
+        // No pertenece al puerto: no se mide
+        public int published() {
+            return published;
+        }
+    }
+
+    static class FailingDeleteOrder implements DeleteOrderUseCase {
+        @Override
+        public void deleteOrder(UUID id) {
+            throw new IllegalStateException("fallo");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.itm.edu.order.infrastructure.metrics;
+
+import com.itm.edu.order.infrastructure.messaging.MessageLifecycle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationLatencyRecorderTest {
+
+    private MeterRegistry meterRegistry;
+    private ValidationLatencyRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new ValidationLatencyRecorder(meterRegistry);
+    }
+
+    @Test
+    void shouldRecordEachStageOfTheRoundTrip() {
+        // Arrange
+        MessageLifecycle lifecycle = MessageLifecycle.builder()
+                .createdAt(1_000L)
+                .publishedAt(1_010L)
+                .stockReceivedAt(1_040L)
+                .stockRepliedAt(1_100L)
+                .build();
+
+        // Act
+        recorder.record(lifecycle, 1_120L);
+
+        // Assert
+        assertEquals(10, stage("outbox").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(30, stage("queue").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(60, stage("stock").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(20, stage("response").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(120, stage("total").totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldSkipStagesWithoutBothTimestampsAndClampClockSkew() {
+        // Arrange
+        MessageLifecycle lifecycle = MessageLifecycle.builder()
+                .createdAt(1_000L)
+                .stockReceivedAt(1_040L)
+                .stockRepliedAt(1_030L)
+                .build();
+
+        // Act
+        recorder.record(lifecycle, 1_050L);
+
+        // Assert
+        assertEquals(0, stage("outbox").count());
+        assertEquals(0, stage("queue").count());
+        assertEquals(1, stage("stock").count());
+        assertEquals(0, stage("stock").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, stage("total").count());
+    }
+
+    private Timer stage(String stage) {
+        return meterRegistry.get(ValidationLatencyRecorder.METRIC).tag("stage", stage).timer();
+    }
+}
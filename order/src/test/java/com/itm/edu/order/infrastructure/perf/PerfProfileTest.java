@@ -0,0 +1,120 @@
+package com.itm.edu.order.infrastructure.perf;
+
+import com.itm.edu.common.perf.InJvmMessageBus;
+import com.itm.edu.order.application.ports.inputs.CreateOrderUseCase;
+import com.itm.edu.order.application.ports.outputs.OrderRepositoryPort;
+import com.itm.edu.order.application.ports.outputs.ProductRepositoryPort;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.idempotency.IdempotentRequestHandler;
+import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("perf")
+class PerfProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private CreateOrderUseCase createOrderUseCase;
+
+    @Autowired
+    private OrderRepositoryPort orderRepository;
+
+    @Autowired
+    private ProductRepositoryPort productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldStartWithoutDatabaseOrBroker() {
+        // Assert
+        assertTrue(context.getBeansOfType(DataSource.class).isEmpty());
+        assertTrue(context.getBeansOfType(IdempotentRequestHandler.class).isEmpty());
+        assertInstanceOf(InJvmMessageBus.class, context.getBean("rabbitTemplate"));
+        assertInstanceOf(InMemoryOrderRepository.class, orderRepository);
+    }
+
+    @Test
+    void shouldConfirmOrderThroughInJvmBus() throws InterruptedException {
+        // Arrange
+        Product product = productRepository.save(product(10));
+
+        // Act
+        Order order = createOrderUseCase.createOrder(client(), Map.of(product.getId(), BigDecimal.valueOf(2)), address());
+
+        // Assert
+        assertEquals(OrderStatus.STOCK_CONFIRMED, awaitValidation(order.getOrderId()));
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void shouldUndoInMemoryWritesOnRollback() {
+        // Arrange
+        Product product = productRepository.save(product(10));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            productRepository.reserveStock(Map.of(product.getId(), 3));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    private OrderStatus awaitValidation(UUID orderId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String status = orderRepository.findById(orderId).orElseThrow().getOrderStatus();
+            if (!OrderStatus.PENDING_VALIDATION.name().equals(status)) {
+                return OrderStatus.valueOf(status);
+            }
+            Thread.sleep(20);
+        }
+        return OrderStatus.PENDING_VALIDATION;
+    }
+
+    private Product product(int stock) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name("Pizza")
+                .description("Pizza de prueba")
+                .price(new BigDecimal("12.50"))
+                .stock(stock)
+                .build();
+    }
+
+    private CreateClientDto client() {
+        return new CreateClientDto("John Doe", "john@example.com", "1234567890");
+    }
+
+    private AddressShipping address() {
+        return AddressShipping.builder()
+                .street("Calle 123")
+                .city("Medellín")
+                .state("Antioquia")
+                .zipCode("050001")
+                .country("Colombia")
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.itm.edu.order.infrastructure.persistence;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.itm.edu.order.domain.model.Client;
 import com.itm.edu.order.infrastructure.persistence.repository.JpaClientRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +15,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -84,4 +87,56 @@ class ClientRepositoryAdapterTest {
         assertFalse(foundClient.isPresent());
         verify(clientRepository).findById(testId);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldSkipUpsertForUnchangedRecentClient() {
+        // Arrange
+        Cache<String, Client> recentClients = Caffeine.newBuilder().maximumSize(10).build();
+        ClientRepositoryAdapter adapter = new ClientRepositoryAdapter(clientRepository, recentClients);
+        Client request = Client.builder()
+                .id(UUID.randomUUID())
+                .name(testClient.getName())
+                .email(testClient.getEmail())
+                .phone(testClient.getPhone())
+                .build();
+        when(clientRepository.upsertByEmail(request)).thenReturn(testClient);
+
+        // Act
+        Client first = adapter.upsertByEmail(request);
+        Client second = adapter.upsertByEmail(request);
+
+        // Assert
+        assertEquals(testId, first.getId());
+        assertEquals(testId, second.getId());
+        verify(clientRepository, times(1)).upsertByEmail(any(Client.class));
+    }
+
+    @Test
+    void shouldUpsertWhenRecentClientChanged() {
+        // Arrange
+        Cache<String, Client> recentClients = Caffeine.newBuilder().maximumSize(10).build();
+        recentClients.put(testClient.getEmail(), testClient);
+        ClientRepositoryAdapter adapter = new ClientRepositoryAdapter(clientRepository, recentClients);
+        Client changed = Client.builder()
+                .id(UUID.randomUUID())
+                .name(testClient.getName())
+                .email(testClient.getEmail())
+                .phone("0987654321")
+                .build();
+        Client updated = Client.builder()
+                .id(testId)
+                .name(changed.getName())
+                .email(changed.getEmail())
+                .phone(changed.getPhone())
+                .build();
+        when(clientRepository.upsertByEmail(changed)).thenReturn(updated);
+
+        // Act
+        Client result = adapter.upsertByEmail(changed);
+
+        // Assert
+        assertEquals(testId, result.getId());
+        assertEquals("0987654321", recentClients.getIfPresent(testClient.getEmail()).getPhone());
+        verify(clientRepository).upsertByEmail(changed);
+    }
+}
@@ -0,0 +1,301 @@
+package com.itm.edu.order.infrastructure.persistence;
+
+import com.itm.edu.common.dto.ProductOrderDTO;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.application.dto.OrderView;
+import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.model.Order;
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.persistence.entities.ClientEntity;
+import com.itm.edu.order.infrastructure.persistence.entities.OrderEntity;
+import com.itm.edu.order.infrastructure.persistence.entities.OrderItemEntity;
+import com.itm.edu.order.infrastructure.persistence.entities.ProductEntity;
+import com.itm.edu.order.infrastructure.persistence.mapper.ClientMapper;
+import com.itm.edu.order.infrastructure.persistence.mapper.OrderItemMapper;
+import com.itm.edu.order.infrastructure.persistence.mapper.OrderMapper;
+import com.itm.edu.order.infrastructure.persistence.mapper.ProductEntityMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderRepositoryAdapter.class, OrderViewRepositoryAdapter.class, OrderMapper.class, OrderItemMapper.class,
+        ClientMapper.class, ProductEntityMapper.class, JacksonAutoConfiguration.class})
+class OrderRepositoryAdapterTest {
+
+    @Autowired
+    private OrderRepositoryAdapter orderRepositoryAdapter;
+
+    @Autowired
+    private OrderViewRepositoryAdapter orderViewRepositoryAdapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByIdShouldUseSameStatementCountRegardlessOfItemCount() {
+        // Arrange
+        UUID smallOrder = persistOrder(1, LocalDateTime.now());
+        UUID largeOrder = persistOrder(20, LocalDateTime.now());
+
+        // Act
+        long smallStatements = countStatements(() -> orderRepositoryAdapter.findById(smallOrder).orElseThrow());
+        long largeStatements = countStatements(() -> orderRepositoryAdapter.findById(largeOrder).orElseThrow());
+
+        // Assert
+        assertEquals(1, smallStatements);
+        assertEquals(smallStatements, largeStatements);
+    }
+
+    @Test
+    void findPageShouldUseSameStatementCountRegardlessOfOrderAndItemCount() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        persistOrder(1, now.minusDays(1));
+        long onePage = countStatements(() -> assertEquals(1, page().size()));
+        for (int i = 0; i < 9; i++) {
+            persistOrder(20, now.minusMinutes(i));
+        }
+
+        // Act
+        long fullPage = countStatements(() -> assertEquals(10, page().size()));
+
+        // Assert
+        assertEquals(2, onePage);
+        assertEquals(onePage, fullPage);
+    }
+
+    @Test
+    void forEachSinceShouldUseSameStatementCountRegardlessOfOrderAndItemCount() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        persistOrder(1, now.minusDays(1));
+        long oneOrder = countStatements(() -> assertEquals(1, export(null, 500).size()));
+        for (int i = 0; i < 9; i++) {
+            persistOrder(20, now.minusMinutes(i));
+        }
+
+        // Act
+        long tenOrders = countStatements(() -> assertEquals(10, export(null, 500).size()));
+
+        // Assert
+        assertEquals(2, oneOrder);
+        assertEquals(oneOrder, tenOrders);
+    }
+
+    @Test
+    void forEachSinceShouldWalkKeysetPagesInOrderWithoutGapsOrRepeats() {
+        // Arrange: órdenes con la misma fecha obligan a desempatar por ID entre páginas
+        LocalDateTime now = LocalDateTime.now();
+        persistOrder(1, now.minusDays(2));
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            expected.add(persistOrder(2, now.minusHours(1)));
+        }
+        // La base compara los UUID byte a byte sin signo, igual que su forma en texto
+        expected.sort(Comparator.comparing(UUID::toString));
+        expected.add(persistOrder(1, now));
+
+        // Act
+        List<Order> exported = new ArrayList<>();
+        long statements = countStatements(() -> exported.addAll(export(now.minusDays(1), 2)));
+
+        // Assert: tres páginas de dos consultas; la última, incompleta, cierra el recorrido
+        assertEquals(6, statements);
+        assertEquals(expected.size(), exported.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), exported.get(i).getOrderId());
+        }
+    }
+
+    @Test
+    void saveShouldReferenceExistingClientWithoutTouchingIt() {
+        // Arrange: el cliente lo registró upsertByEmail; la orden trae una copia desactualizada
+        ClientEntity client = ClientEntity.builder()
+                .name("John Doe")
+                .email(UUID.randomUUID() + "@example.com")
+                .phone("1234567890")
+                .build();
+        entityManager.persist(client);
+        entityManager.flush();
+        entityManager.clear();
+        Order order = Order.create(Client.builder()
+                .id(client.getId())
+                .name("Nombre viejo")
+                .email(client.getEmail())
+                .phone("000")
+                .build(), new ArrayList<>(), AddressShipping.builder()
+                        .street("123 Main St")
+                        .city("New York")
+                        .state("NY")
+                        .zipCode("10001")
+                        .country("USA")
+                        .build());
+
+        // Act
+        Order[] saved = new Order[1];
+        countStatements(() -> {
+            saved[0] = orderRepositoryAdapter.save(order);
+            entityManager.flush();
+        });
+
+        // Assert
+        assertEquals(0, statistics.getEntityStatistics(ClientEntity.class.getName()).getUpdateCount());
+        assertEquals(0, statistics.getEntityStatistics(ClientEntity.class.getName()).getInsertCount());
+        entityManager.clear();
+        ClientEntity stored = entityManager.find(ClientEntity.class, client.getId());
+        assertEquals("John Doe", stored.getName());
+        assertEquals("1234567890", stored.getPhone());
+        assertEquals(client.getId(), entityManager.find(OrderEntity.class, saved[0].getOrderId()).getClient().getId());
+    }
+
+    @Test
+    void transitionStatusShouldApplyOnlyOnceFromExpectedStatus() {
+        // Arrange
+        UUID orderId = persistOrder(2, LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        boolean first = orderRepositoryAdapter.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED);
+        boolean duplicate = orderRepositoryAdapter.transitionStatus(orderId, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED);
+        List<ProductOrderDTO> lines = orderRepositoryAdapter.findProductLines(orderId);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(duplicate);
+        assertEquals("STOCK_CONFIRMED", entityManager.find(OrderEntity.class, orderId).getOrderStatus());
+        assertEquals(2, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.getProductId() != null && line.getQuantity() == 1));
+    }
+
+    @Test
+    void transitionStatusesShouldApplyBatchOnlyToPendingOrders() {
+        // Arrange
+        UUID pending = persistOrder(2, LocalDateTime.now());
+        UUID confirmed = persistOrder(1, LocalDateTime.now());
+        entityManager.flush();
+        orderRepositoryAdapter.transitionStatus(confirmed, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED);
+        entityManager.clear();
+
+        // Act
+        Set<UUID> applied = orderRepositoryAdapter.transitionStatuses(Map.of(
+                pending, OrderStatus.STOCK_CONFIRMED,
+                confirmed, OrderStatus.CANCELLED_NO_STOCK), OrderStatus.PENDING_VALIDATION);
+        Map<UUID, List<ProductOrderDTO>> lines = orderRepositoryAdapter.findProductLinesByOrderIds(List.of(pending, confirmed));
+
+        // Assert
+        assertEquals(Set.of(pending), applied);
+        assertEquals("STOCK_CONFIRMED", entityManager.find(OrderEntity.class, confirmed).getOrderStatus());
+        assertEquals(Set.of(pending, confirmed), orderRepositoryAdapter.findExistingIds(List.of(pending, confirmed, UUID.randomUUID())));
+        assertEquals(2, lines.get(pending).size());
+        assertEquals(1, lines.get(confirmed).size());
+    }
+
+    @Test
+    void orderViewShouldFollowStatusTransitionsAndBeReadInOneStatement() {
+        // Arrange
+        UUID single = persistOrder(3, LocalDateTime.now());
+        UUID batched = persistOrder(1, LocalDateTime.now());
+        entityManager.flush();
+        orderViewRepositoryAdapter.project(orderRepositoryAdapter.findById(single).orElseThrow());
+        orderViewRepositoryAdapter.project(orderRepositoryAdapter.findById(batched).orElseThrow());
+
+        // Act
+        orderRepositoryAdapter.transitionStatus(single, OrderStatus.PENDING_VALIDATION, OrderStatus.STOCK_CONFIRMED);
+        orderRepositoryAdapter.transitionStatuses(Map.of(batched, OrderStatus.UNAVAILABLE), OrderStatus.PENDING_VALIDATION);
+        OrderView[] view = new OrderView[1];
+        long statements = countStatements(() -> view[0] = orderViewRepositoryAdapter.findById(single).orElseThrow());
+
+        // Assert
+        assertEquals(1, statements);
+        assertEquals("STOCK_CONFIRMED", view[0].getOrderStatus());
+        assertEquals(3, view[0].getItems().size());
+        // Precio, stock y datos de contacto cambian fuera de la orden: no se congelan en la proyección
+        assertTrue(view[0].getItems().stream().allMatch(item -> item.getProductId() != null
+                && item.getProductPrice() == null && item.getProductStock() == null));
+        assertNull(view[0].getClientName());
+        assertEquals("UNAVAILABLE", orderViewRepositoryAdapter.findById(batched).orElseThrow().getOrderStatus());
+    }
+
+    private List<Order> page() {
+        List<Order> orders = orderRepositoryAdapter.findPage(OrderSearchCriteria.builder().build(), 20);
+        // Recorrer el grafo completo como lo hace el mapeo a DTO
+        orders.forEach(order -> order.getProducts().forEach(item -> assertNotNull(item.getProduct().getName())));
+        return orders;
+    }
+
+    private List<Order> export(LocalDateTime since, int pageSize) {
+        List<Order> orders = new ArrayList<>();
+        orderRepositoryAdapter.forEachSince(since, order -> {
+            // Recorrer el grafo completo como lo hace el CSV del export
+            assertNotNull(order.getClient().getEmail());
+            order.getProducts().forEach(item -> assertNotNull(item.getProduct().getName()));
+            orders.add(order);
+        }, pageSize);
+        return orders;
+    }
+
+    private long countStatements(Runnable read) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID persistOrder(int itemCount, LocalDateTime orderDate) {
+        ClientEntity client = ClientEntity.builder()
+                .name("John Doe")
+                .email(UUID.randomUUID() + "@example.com")
+                .phone("1234567890")
+                .build();
+        entityManager.persist(client);
+        OrderEntity order = OrderEntity.builder()
+                .client(client)
+                .orderStatus("PENDING_VALIDATION")
+                .orderDate(orderDate)
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            ProductEntity product = ProductEntity.builder()
+                    .id(UUID.randomUUID())
+                    .name("Producto " + i)
+                    .description("Descripción " + i)
+                    .price(new BigDecimal("10.00"))
+                    .stock(100)
+                    .build();
+            entityManager.persist(product);
+            OrderItemEntity item = OrderItemEntity.builder().product(product).quantity(1).build();
+            item.setOrder(order);
+        }
+        entityManager.persist(order);
+        return order.getOrderId();
+    }
+}
@@ -0,0 +1,64 @@
+package com.itm.edu.order.infrastructure.persistence;
+
+import com.itm.edu.order.domain.model.OrderStatus;
+import com.itm.edu.order.domain.model.OrderStatusChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OrderStatusHistoryRepositoryAdapter.class)
+class OrderStatusHistoryRepositoryAdapterTest {
+
+    @Autowired
+    private OrderStatusHistoryRepositoryAdapter adapter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void appendShouldKeepEveryTransitionOfTheOrder() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.now().minusSeconds(1);
+
+        // Act
+        adapter.append(List.of(OrderStatusChange.builder()
+                .orderId(orderId)
+                .toStatus(OrderStatus.PENDING_VALIDATION)
+                .changedAt(createdAt)
+                .source("order-service")
+                .build()));
+        adapter.append(List.of(OrderStatusChange.builder()
+                .orderId(orderId)
+                .fromStatus(OrderStatus.PENDING_VALIDATION)
+                .toStatus(OrderStatus.STOCK_CONFIRMED)
+                .changedAt(createdAt.plusSeconds(1))
+                .source("stock-service")
+                .correlationId("evt-1")
+                .build()));
+
+        // Assert
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT from_status, to_status, source, correlation_id FROM order_status_history " +
+                "WHERE order_id = ? ORDER BY changed_at", orderId);
+        assertEquals(2, rows.size());
+        assertNull(rows.get(0).get("FROM_STATUS"));
+        assertEquals("PENDING_VALIDATION", rows.get(0).get("TO_STATUS"));
+        assertEquals("order-service", rows.get(0).get("SOURCE"));
+        assertEquals("PENDING_VALIDATION", rows.get(1).get("FROM_STATUS"));
+        assertEquals("STOCK_CONFIRMED", rows.get(1).get("TO_STATUS"));
+        assertEquals("evt-1", rows.get(1).get("CORRELATION_ID"));
+    }
+}
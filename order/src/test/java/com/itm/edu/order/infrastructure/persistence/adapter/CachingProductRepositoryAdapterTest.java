@@ -0,0 +1,113 @@
+package com.itm.edu.order.infrastructure.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itm.edu.order.domain.model.Product;
+import com.itm.edu.order.infrastructure.messaging.ProductCacheInvalidationPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingProductRepositoryAdapterTest {
+
+    @Mock
+    private ProductRepositoryAdapter delegate;
+
+    @Mock
+    private ProductCacheInvalidationPublisher invalidationPublisher;
+
+    private Cache<UUID, Product> cache;
+
+    private CachingProductRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        cache = Caffeine.newBuilder().maximumSize(100).recordStats().build();
+        adapter = new CachingProductRepositoryAdapter(delegate, cache, invalidationPublisher);
+    }
+
+    @Test
+    void findByIdShouldHitDatabaseOnlyOnce() {
+        // Arrange
+        Product product = product();
+        when(delegate.findById(product.getId())).thenReturn(Optional.of(product));
+
+        // Act
+        adapter.findById(product.getId());
+        Optional<Product> second = adapter.findById(product.getId());
+
+        // Assert
+        assertEquals(product, second.orElseThrow());
+        verify(delegate, times(1)).findById(product.getId());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void findAllByIdShouldLoadOnlyMissingProducts() {
+        // Arrange
+        Product cached = product();
+        Product missing = product();
+        cache.put(cached.getId(), cached);
+        when(delegate.findAllById(List.of(missing.getId()))).thenReturn(List.of(missing));
+
+        // Act
+        List<Product> products = adapter.findAllById(List.of(cached.getId(), missing.getId()));
+
+        // Assert
+        assertEquals(2, products.size());
+        verify(delegate).findAllById(List.of(missing.getId()));
+        assertSame(missing, cache.getIfPresent(missing.getId()));
+    }
+
+    @Test
+    void saveShouldInvalidateAndBroadcast() {
+        // Arrange
+        Product product = product();
+        cache.put(product.getId(), product);
+        when(delegate.save(product)).thenReturn(product);
+
+        // Act
+        adapter.save(product);
+
+        // Assert
+        assertNull(cache.getIfPresent(product.getId()));
+        verify(invalidationPublisher).publish(product.getId());
+    }
+
+    @Test
+    void deleteShouldInvalidateAndBroadcast() {
+        // Arrange
+        Product product = product();
+        cache.put(product.getId(), product);
+
+        // Act
+        adapter.deleteById(product.getId());
+
+        // Assert
+        assertNull(cache.getIfPresent(product.getId()));
+        verify(delegate).deleteById(product.getId());
+        verify(invalidationPublisher).publish(product.getId());
+    }
+
+    private Product product() {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name("Pizza")
+                .description("Pizza hawaiana")
+                .price(new BigDecimal("12.50"))
+                .stock(10)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.itm.edu.order.infrastructure.persistence.adapter;
+
+import com.itm.edu.order.infrastructure.persistence.entities.ProductEntity;
+import com.itm.edu.order.infrastructure.persistence.mapper.ProductEntityMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductRepositoryAdapter.class, ProductEntityMapper.class})
+class ProductRepositoryAdapterTest {
+
+    @Autowired
+    private ProductRepositoryAdapter productRepositoryAdapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reserveStockShouldDecrementOnlyLinesWithEnoughStock() {
+        // Arrange
+        UUID enough = persistProduct(5);
+        UUID shortStock = persistProduct(1);
+        UUID missing = UUID.randomUUID();
+
+        // Act
+        List<UUID> failed = productRepositoryAdapter.reserveStock(Map.of(enough, 5, shortStock, 2, missing, 1));
+
+        // Assert
+        assertEquals(2, failed.size());
+        assertTrue(failed.containsAll(List.of(shortStock, missing)));
+        assertEquals(0, stockOf(enough));
+        assertEquals(1, stockOf(shortStock));
+    }
+
+    @Test
+    void releaseStockShouldGiveUnitsBackInOneBatch() {
+        // Arrange
+        UUID pizza = persistProduct(5);
+        UUID soda = persistProduct(2);
+        productRepositoryAdapter.reserveStock(Map.of(pizza, 3, soda, 2));
+
+        // Act
+        productRepositoryAdapter.releaseStock(Map.of(pizza, 3, soda, 2));
+
+        // Assert
+        assertEquals(5, stockOf(pizza));
+        assertEquals(2, stockOf(soda));
+    }
+
+    private UUID persistProduct(int stock) {
+        ProductEntity product = ProductEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Pizza")
+                .description("Pizza hawaiana")
+                .price(new BigDecimal("12.50"))
+                .stock(stock)
+                .build();
+        entityManager.persist(product);
+        entityManager.flush();
+        return product.getId();
+    }
+
+    private int stockOf(UUID id) {
+        entityManager.clear();
+        return entityManager.find(ProductEntity.class, id).getStock();
+    }
+}
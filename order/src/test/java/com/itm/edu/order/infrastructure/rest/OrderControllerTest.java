@@ -1,28 +1,51 @@
 package com.itm.edu.order.infrastructure.rest;
 
+import com.itm.edu.order.application.dto.OrderIntakeStatus;
+import com.itm.edu.order.application.dto.OrderPage;
+import com.itm.edu.order.application.dto.OrderSearchCriteria;
+import com.itm.edu.order.application.dto.OrderView;
 import com.itm.edu.order.application.ports.inputs.CreateOrderUseCase;
+import com.itm.edu.order.application.ports.inputs.ExportOrdersUseCase;
+import com.itm.edu.order.application.ports.inputs.GetOrderUseCase;
+import com.itm.edu.order.application.ports.inputs.SubmitOrderUseCase;
 import com.itm.edu.order.domain.model.Client;
+import com.itm.edu.order.domain.exception.HttpStatusException;
 import com.itm.edu.order.domain.model.Order;
 import com.itm.edu.order.domain.valueobjects.AddressShipping;
+import com.itm.edu.order.infrastructure.idempotency.IdempotentRequestHandler;
 import com.itm.edu.order.infrastructure.rest.dto.CreateClientDto;
 import com.itm.edu.order.infrastructure.rest.dto.CreateOrderRequest;
 import com.itm.edu.order.infrastructure.rest.mapper.OrderDtoMapper;
 import com.itm.edu.order.infrastructure.rest.dto.OrderDto;
+import com.itm.edu.order.infrastructure.rest.dto.OrderPageCursor;
+import com.itm.edu.order.infrastructure.rest.dto.OrderPageDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.HttpStatus;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OrderControllerTest {
@@ -30,15 +53,39 @@ class OrderControllerTest {
     @Mock
     private CreateOrderUseCase createOrderUseCase;
 
+    @Mock
+    private GetOrderUseCase getOrderUseCase;
+
     @Mock
     private OrderDtoMapper orderDtoMapper;
 
-    @InjectMocks
+    @Mock
+    private ExportOrdersUseCase exportOrdersUseCase;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ObjectProvider<SubmitOrderUseCase> submitOrderUseCaseProvider;
+
+    @Mock
+    private SubmitOrderUseCase submitOrderUseCase;
+
+    @Mock
+    private ObjectProvider<IdempotentRequestHandler> idempotentRequestHandlerProvider;
+
+    @Mock
+    private IdempotentRequestHandler idempotentRequestHandler;
+
     private OrderController orderController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Explícito: @InjectMocks no distingue los dos ObjectProvider por su tipo genérico
+        orderController = new OrderController(createOrderUseCase, getOrderUseCase, null, null, null,
+                exportOrdersUseCase, orderDtoMapper, submitOrderUseCaseProvider, objectMapper,
+                idempotentRequestHandlerProvider);
     }
 
     @Test
@@ -88,7 +135,7 @@ class OrderControllerTest {
         when(orderDtoMapper.toDto(expectedOrder)).thenReturn(expectedOrderDto);
 
         // Act
-        ResponseEntity<?> response = orderController.createOrder(request);
+        ResponseEntity<?> response = orderController.createOrder(null, request);
 
         // Assert
         assertNotNull(response);
@@ -126,7 +173,7 @@ class OrderControllerTest {
                 .build();
 
         // Act
-        ResponseEntity<?> response = orderController.createOrder(request);
+        ResponseEntity<?> response = orderController.createOrder(null, request);
 
         // Assert
         assertNotNull(response);
@@ -156,7 +203,7 @@ class OrderControllerTest {
                 .build();
 
         // Act
-        ResponseEntity<?> response = orderController.createOrder(request);
+        ResponseEntity<?> response = orderController.createOrder(null, request);
 
         // Assert
         assertNotNull(response);
@@ -184,7 +231,7 @@ class OrderControllerTest {
                 .build();
 
         // Act
-        ResponseEntity<?> response = orderController.createOrder(request);
+        ResponseEntity<?> response = orderController.createOrder(null, request);
 
         // Assert
         assertNotNull(response);
@@ -216,7 +263,7 @@ class OrderControllerTest {
                 .build();
 
         // Act
-        ResponseEntity<?> response = orderController.createOrder(request);
+        ResponseEntity<?> response = orderController.createOrder(null, request);
 
         // Assert
         assertNotNull(response);
@@ -252,11 +299,211 @@ class OrderControllerTest {
                 .build();
 
         // Act
-        ResponseEntity<?> response = orderController.createOrder(request);
+        ResponseEntity<?> response = orderController.createOrder(null, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
         verifyNoInteractions(createOrderUseCase);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCreateOrderAsyncReturnsAccepted() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        CreateOrderRequest request = validRequest();
+        when(submitOrderUseCaseProvider.getIfAvailable()).thenReturn(submitOrderUseCase);
+        when(submitOrderUseCase.submitOrder(any(), any(), any())).thenReturn(orderId);
+
+        // Act
+        ResponseEntity<?> response = orderController.createOrder(null, request);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/v1/orders/" + orderId, response.getHeaders().getLocation().toString());
+        assertEquals(OrderIntakeStatus.accepted(orderId), response.getBody());
+        verifyNoInteractions(createOrderUseCase);
+    }
+
+    @Test
+    void testCreateOrderAsyncQueueFull() {
+        // Arrange
+        CreateOrderRequest request = validRequest();
+        when(submitOrderUseCaseProvider.getIfAvailable()).thenReturn(submitOrderUseCase);
+        when(submitOrderUseCase.submitOrder(any(), any(), any()))
+                .thenThrow(HttpStatusException.serviceUnavailable("La cola de órdenes está llena, intente más tarde"));
+
+        // Act
+        ResponseEntity<?> response = orderController.createOrder(null, request);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        verifyNoInteractions(createOrderUseCase);
+    }
+
+    @Test
+    void testCreateOrderWithIdempotencyKeyGoesThroughHandler() {
+        // Arrange
+        CreateOrderRequest request = validRequest();
+        ResponseEntity<?> replayed = ResponseEntity.status(HttpStatus.CREATED).build();
+        when(idempotentRequestHandlerProvider.getIfAvailable()).thenReturn(idempotentRequestHandler);
+        doReturn(replayed).when(idempotentRequestHandler).execute(eq("retry-1"), eq(request), any());
+
+        // Act
+        ResponseEntity<?> response = orderController.createOrder("retry-1", request);
+
+        // Assert
+        assertSame(replayed, response);
+        verifyNoInteractions(createOrderUseCase);
+    }
+
+    @Test
+    void testCreateOrderWithIdempotencyKeyWithoutHandlerCreatesDirectly() {
+        // Arrange: en el perfil perf no hay IdempotentRequestHandler
+        CreateOrderRequest request = validRequest();
+        when(idempotentRequestHandlerProvider.getIfAvailable()).thenReturn(null);
+        when(submitOrderUseCaseProvider.getIfAvailable()).thenReturn(submitOrderUseCase);
+        when(submitOrderUseCase.submitOrder(any(), any(), any())).thenReturn(UUID.randomUUID());
+
+        // Act
+        ResponseEntity<?> response = orderController.createOrder("retry-1", request);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verifyNoInteractions(idempotentRequestHandler);
+    }
+
+    @Test
+    void testGetOrderStillInIntake() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(submitOrderUseCaseProvider.getIfAvailable()).thenReturn(submitOrderUseCase);
+        when(submitOrderUseCase.getIntakeStatus(orderId)).thenReturn(Optional.of(OrderIntakeStatus.accepted(orderId)));
+
+        // Act
+        ResponseEntity<?> response = orderController.getOrder(orderId);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(OrderIntakeStatus.accepted(orderId), response.getBody());
+    }
+
+    @Test
+    void testGetOrderServedFromView() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        OrderView view = OrderView.builder()
+                .orderId(orderId)
+                .orderStatus("STOCK_CONFIRMED")
+                .clientEmail("john@example.com")
+                .totalAmount(new BigDecimal("25.00"))
+                .totalCurrency("COP")
+                .items(List.of(OrderView.Item.builder()
+                        .productId(UUID.randomUUID())
+                        .productName("Pizza")
+                        .quantity(2)
+                        .build()))
+                .build();
+        OrderDto dto = OrderDto.builder().orderId(orderId).orderStatus("STOCK_CONFIRMED").build();
+        when(submitOrderUseCaseProvider.getIfAvailable()).thenReturn(null);
+        when(getOrderUseCase.getOrderView(orderId)).thenReturn(Optional.of(view));
+        when(orderDtoMapper.fromView(view)).thenReturn(dto);
+
+        // Act
+        ResponseEntity<?> response = orderController.getOrder(orderId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(dto, response.getBody());
+        verify(getOrderUseCase, never()).getOrder(any());
+    }
+
+    @Test
+    void testGetOrdersContinuesFromCursor() {
+        // Arrange
+        LocalDateTime lastDate = LocalDateTime.of(2024, 3, 14, 10, 30);
+        UUID lastId = UUID.randomUUID();
+        String cursor = new OrderPageCursor(lastDate, lastId).encode();
+        Order order = Order.builder().orderId(UUID.randomUUID()).orderStatus("PENDING_VALIDATION").build();
+        when(getOrderUseCase.searchOrders(any())).thenReturn(OrderPage.builder()
+                .orders(List.of(order))
+                .hasNext(true)
+                .nextOrderDate(lastDate.minusHours(1))
+                .nextOrderId(order.getOrderId())
+                .build());
+        when(orderDtoMapper.toDto(order)).thenReturn(OrderDto.builder().orderId(order.getOrderId()).build());
+
+        // Act
+        ResponseEntity<OrderPageDto> response = orderController.getOrders("PENDING_VALIDATION", null, null, null, cursor, 1);
+
+        // Assert
+        ArgumentCaptor<OrderSearchCriteria> criteria = ArgumentCaptor.forClass(OrderSearchCriteria.class);
+        verify(getOrderUseCase).searchOrders(criteria.capture());
+        assertEquals(lastDate, criteria.getValue().getAfterOrderDate());
+        assertEquals(lastId, criteria.getValue().getAfterOrderId());
+        assertEquals("PENDING_VALIDATION", criteria.getValue().getStatus());
+
+        OrderPageCursor next = OrderPageCursor.decode(response.getBody().getNextCursor());
+        assertEquals(order.getOrderId(), next.getOrderId());
+        assertEquals(lastDate.minusHours(1), next.getOrderDate());
+        assertEquals(1, response.getBody().getItems().size());
+    }
+
+    @Test
+    void testGetOrdersWithInvalidCursor() {
+        // Act & Assert
+        HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> orderController.getOrders(null, null, null, null, "no-es-un-cursor", 20));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(getOrderUseCase);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportOrdersWritesOneLinePerOrder() throws Exception {
+        // Arrange
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Order first = Order.builder().orderId(UUID.randomUUID()).build();
+        Order second = Order.builder().orderId(UUID.randomUUID()).build();
+        doAnswer(invocation -> {
+            Consumer<Order> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(exportOrdersUseCase).exportOrders(eq(since), any(Consumer.class));
+        when(orderDtoMapper.toDto(any(Order.class))).thenAnswer(invocation ->
+                OrderDto.builder().orderId(((Order) invocation.getArgument(0)).getOrderId()).build());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(since);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(first.getOrderId().toString(), objectMapper.readTree(lines[0]).get("orderId").asText());
+        assertEquals(second.getOrderId().toString(), objectMapper.readTree(lines[1]).get("orderId").asText());
+    }
+
+    private CreateOrderRequest validRequest() {
+        Map<UUID, BigDecimal> productQuantities = new HashMap<>();
+        productQuantities.put(UUID.randomUUID(), new BigDecimal("2"));
+
+        return CreateOrderRequest.builder()
+                .client(CreateClientDto.builder()
+                        .name("John Doe")
+                        .email("john@example.com")
+                        .phone("1234567890")
+                        .build())
+                .productQuantities(productQuantities)
+                .addressShipping(AddressShipping.builder()
+                        .street("123 Main St")
+                        .city("New York")
+                        .state("NY")
+                        .zipCode("10001")
+                        .country("USA")
+                        .build())
+                .build();
+    }
+}
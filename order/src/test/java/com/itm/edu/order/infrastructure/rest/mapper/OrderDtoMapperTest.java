@@ -1,5 +1,6 @@
 package com.itm.edu.order.infrastructure.rest.mapper;
 
+import com.itm.edu.order.application.dto.OrderView;
 import com.itm.edu.order.domain.model.Client;
 import com.itm.edu.order.domain.model.Order;
 import com.itm.edu.order.domain.model.OrderItem;
@@ -16,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -188,4 +190,42 @@ class OrderDtoMapperTest {
         assertTrue(dto.getItems().isEmpty());
         verifyNoInteractions(productDtoMapper);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldMapOrderViewWithoutDomainReconstruction() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        OrderView view = OrderView.builder()
+                .orderId(orderId)
+                .orderStatus("STOCK_CONFIRMED")
+                .orderDate(LocalDateTime.now())
+                .clientId(UUID.randomUUID())
+                .clientName("John Doe")
+                .clientEmail("john@example.com")
+                .street("Calle 123")
+                .city("Medellín")
+                .totalAmount(new BigDecimal("25.00"))
+                .totalCurrency("COP")
+                .items(List.of(OrderView.Item.builder()
+                        .productId(productId)
+                        .productName("Pizza")
+                        .productPrice(new BigDecimal("12.50"))
+                        .quantity(2)
+                        .build()))
+                .build();
+
+        // Act
+        OrderDto dto = orderDtoMapper.fromView(view);
+
+        // Assert
+        assertEquals(orderId, dto.getOrderId());
+        assertEquals("STOCK_CONFIRMED", dto.getOrderStatus());
+        assertEquals("john@example.com", dto.getClient().getEmail());
+        assertEquals("Medellín", dto.getShippingAddress().getCity());
+        assertEquals(new BigDecimal("25.00"), dto.getTotal().getAmount());
+        assertEquals(productId, dto.getItems().get(0).getProduct().getId());
+        assertEquals(2, dto.getItems().get(0).getQuantity());
+        verifyNoInteractions(productDtoMapper);
+    }
+}
@@ -3,9 +3,11 @@ package com.itm.edu.stock;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "com.itm.edu.stock")
+@EnableScheduling
 public class StockApplication {
 
 	public static void main(String[] args) {
@@ -12,8 +12,19 @@ public class IngredientResponse {
     String name;
     String description;
     BigDecimal quantity;
+    BigDecimal reserved;
     String unit;
     String supplier;
     BigDecimal minimumStock;
     BigDecimal price;
+
+    /**
+     * Disponible para prometer: la cantidad en existencia menos lo apartado por reservas activas.
+     */
+    public BigDecimal getAvailableQuantity() {
+        if (quantity == null) {
+            return BigDecimal.ZERO;
+        }
+        return reserved == null ? quantity : quantity.subtract(reserved);
+    }
 } 
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.itm.edu.stock.application.ports.input;
 
 import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.events.StockValidationStatus;
 
 /**
- * Interface for processing orders
+ * Interface for processing orders. Returns the status to report back to the order
+ * service; business rejections are thrown as exceptions.
  */
 public interface ProcessOrderUseCase {
-    void processOrder(OrderMessageDTO orderMessage);
+    StockValidationStatus processOrder(OrderMessageDTO orderMessage);
 }
\ No newline at end of file
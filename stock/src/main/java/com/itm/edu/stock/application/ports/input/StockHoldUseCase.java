@@ -0,0 +1,39 @@
+package com.itm.edu.stock.application.ports.input;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Cierre de las reservas de stock: se confirman cuando órdenes acepta la orden
+ * o se liberan al vencer.
+ */
+public interface StockHoldUseCase {
+    /**
+     * Descuenta de la existencia lo apartado para la orden. Si la reserva ya había
+     * vencido, descuenta lo que tenía apartado solo si el disponible aún alcanza;
+     * si no alcanza lanza {@link com.itm.edu.stock.domain.exception.BusinessException}
+     * y la reserva vencida se conserva hasta la purga.
+     */
+    CommitResult commitHold(UUID orderId);
+
+    /**
+     * Devuelve al disponible lo apartado por las órdenes indicadas y devuelve cuántas tenían reservas.
+     */
+    int releaseHolds(Collection<UUID> orderIds);
+
+    /**
+     * Olvida las reservas vencidas o confirmadas cuyo vencimiento es anterior al instante
+     * indicado: ya no se esperan confirmaciones ni entregas repetidas de esas órdenes.
+     */
+    int purgeExpiredHolds(Instant expiredBefore);
+
+    enum CommitResult {
+        /** Lo apartado salió de la existencia. */
+        COMMITTED,
+        /** La reserva había vencido, pero el disponible alcanzó para descontarla. */
+        COMMITTED_AFTER_EXPIRY,
+        /** No hay reserva de la orden: ya se confirmó antes. */
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,12 @@
+package com.itm.edu.stock.application.ports.output;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface HoldExpiryScheduler {
+    /**
+     * Agenda la liberación de las reservas de la orden cuando venzan, si para
+     * entonces no se confirmaron.
+     */
+    void schedule(UUID orderId, Instant expiresAt);
+}
@@ -0,0 +1,12 @@
+package com.itm.edu.stock.application.ports.output;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface IngredientLocks {
+    /**
+     * Bloquea los ingredientes indicados hasta que termine la transacción en curso,
+     * de modo que dos órdenes que comparten ingredientes se procesan una tras otra.
+     */
+    void lockUntilCompletion(Collection<UUID> ingredientIds);
+}
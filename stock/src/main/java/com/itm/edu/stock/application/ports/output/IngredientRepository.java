@@ -2,15 +2,36 @@ package com.itm.edu.stock.application.ports.output;
 
 import com.itm.edu.stock.application.dto.IngredientResponse;
 import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface IngredientRepository {
     IngredientResponse save(IngredientDto ingredient);
     Optional<IngredientResponse> findById(UUID id);
+    List<IngredientResponse> findAllById(Collection<UUID> ids);
+    List<IngredientResponse> saveAll(Collection<IngredientDto> ingredients);
     List<IngredientResponse> findAll();
     void deleteById(UUID id);
     boolean existsById(UUID id);
     List<IngredientResponse> findBySupplier(String supplier);
+
+    /**
+     * Aparta la cantidad de cada ingrediente solo si el disponible (existencia
+     * menos lo ya apartado) alcanza. Devuelve los IDs que no se pudieron apartar.
+     */
+    List<UUID> holdStock(Map<UUID, BigDecimal> quantities);
+
+    /**
+     * Descuenta de la existencia lo que estaba apartado: la reserva se vuelve definitiva.
+     */
+    void commitHeldStock(Map<UUID, BigDecimal> quantities);
+
+    /**
+     * Devuelve al disponible lo que estaba apartado, sin tocar la existencia.
+     */
+    void releaseHeldStock(Map<UUID, BigDecimal> quantities);
 } 
\ No newline at end of file
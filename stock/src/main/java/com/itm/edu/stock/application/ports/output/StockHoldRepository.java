@@ -0,0 +1,50 @@
+package com.itm.edu.stock.application.ports.output;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface StockHoldRepository {
+    /**
+     * Guarda lo apartado para la orden, por ingrediente, y devuelve cuándo vence.
+     */
+    Instant save(UUID orderId, Map<UUID, BigDecimal> quantities);
+
+    /**
+     * Marca como confirmadas las reservas activas de las órdenes indicadas y devuelve,
+     * por orden, lo que tenían apartado por ingrediente. Cada reserva se entrega una sola
+     * vez aunque la confirmación y el vencimiento compitan por ella; las filas se conservan
+     * para reconocer una orden que vuelve a llegar después de confirmada.
+     */
+    Map<UUID, Map<UUID, BigDecimal>> commitByOrderIds(Collection<UUID> orderIds);
+
+    /**
+     * Como {@link #commitByOrderIds}, pero las reservas quedan marcadas como vencidas:
+     * si la confirmación llega tarde aún se sabe cuánto descontar.
+     */
+    Map<UUID, Map<UUID, BigDecimal>> expireByOrderIds(Collection<UUID> orderIds);
+
+    /**
+     * Marca como confirmadas las reservas vencidas de la orden y devuelve lo que tenían
+     * apartado por ingrediente; vacío si no tenía o ya se confirmaron.
+     */
+    Map<UUID, BigDecimal> commitExpired(UUID orderId);
+
+    /**
+     * Borra las reservas vencidas o confirmadas cuyo vencimiento es anterior al instante
+     * indicado y devuelve cuántas filas borró.
+     */
+    int purgeExpired(Instant expiredBefore);
+
+    /**
+     * Indica si la orden ya tiene reservas, activas, vencidas o confirmadas.
+     */
+    boolean existsForOrder(UUID orderId);
+
+    /**
+     * Vencimiento de cada orden con reservas activas.
+     */
+    Map<UUID, Instant> findExpirations();
+}
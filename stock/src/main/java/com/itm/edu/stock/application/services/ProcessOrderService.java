@@ -3,99 +3,128 @@ package com.itm.edu.stock.application.services;
 import com.itm.edu.common.dto.OrderMessageDTO;
 import com.itm.edu.common.dto.ProductOrderDTO;
 import com.itm.edu.common.dto.events.StockValidationStatus;
-import com.itm.edu.common.dto.events.StockUpdateResponseEvent;
 import com.itm.edu.stock.application.ports.input.ProcessOrderUseCase;
+import com.itm.edu.stock.application.ports.output.HoldExpiryScheduler;
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
 import com.itm.edu.stock.application.ports.output.IngredientRepository;
 import com.itm.edu.stock.application.ports.output.RecipeRepository;
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
 import com.itm.edu.stock.application.dto.RecipeResponse;
 import com.itm.edu.stock.application.dto.IngredientResponse;
-import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
+import com.itm.edu.stock.application.dto.RecipeIngredientResponse;
 import com.itm.edu.stock.domain.exception.BusinessException;
-import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProcessOrderService implements ProcessOrderUseCase {
     private final IngredientRepository ingredientRepository;
     private final RecipeRepository recipeRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final IngredientLocks ingredientLocks;
+    private final StockHoldRepository stockHoldRepository;
+    private final HoldExpiryScheduler holdExpiryScheduler;
 
     @Override
     @Transactional
-    public void processOrder(OrderMessageDTO orderMessage) {
-        for (ProductOrderDTO product : orderMessage.getProducts()) {
-            RecipeResponse recipe = recipeRepository.findById(product.getProductId())
-                    .orElseGet(() -> {
-                        // Si no encuentra la receta, envía respuesta de cancelación
-                        StockUpdateResponseEvent response = new StockUpdateResponseEvent();
-                        response.setOrderId(orderMessage.getOrderId());
-                        response.setStatus(StockValidationStatus.CANCELLED_NO_STOCK);
-                        rabbitTemplate.convertAndSend(
-                            RabbitMQConfig.STOCK_RESPONSE_EXCHANGE,
-                            RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
-                            response
-                        );
-                        return null;
-                    });
+    public StockValidationStatus processOrder(OrderMessageDTO orderMessage) {
+        // Unidades pedidas de cada producto; un producto repetido en la orden se suma
+        Map<UUID, Integer> productQuantities = orderMessage.getProducts().stream()
+            .collect(Collectors.toMap(ProductOrderDTO::getProductId, ProductOrderDTO::getQuantity,
+                Integer::sum, LinkedHashMap::new));
 
-            if (recipe == null) {
-                return; // Si no hay receta, terminamos el procesamiento
-            }
+        // Cargar todas las recetas de la orden en una sola consulta
+        Map<UUID, RecipeResponse> recipes = recipeRepository.findAllById(productQuantities.keySet()).stream()
+            .collect(Collectors.toMap(RecipeResponse::getId, Function.identity()));
+        if (recipes.size() < productQuantities.size()) {
+            // Si falta alguna receta, la orden se cancela sin tocar el inventario
+            return StockValidationStatus.CANCELLED_NO_STOCK;
+        }
 
-            for (var recipeIngredient : recipe.getIngredients()) {
-                IngredientResponse ingredient = ingredientRepository.findById(recipeIngredient.getIngredientId())
-                        .orElseThrow(() -> new BusinessException("Ingrediente no encontrado: " + recipeIngredient.getIngredientName()));
+        // Cantidad requerida de cada ingrediente sumando todos los productos de la orden
+        Map<UUID, BigDecimal> requiredQuantities = new LinkedHashMap<>();
+        List<RecipeIngredientResponse> recipeLines = new ArrayList<>();
+        productQuantities.forEach((productId, quantity) -> {
+            List<RecipeIngredientResponse> ingredients = recipes.get(productId).getIngredients();
+            if (ingredients == null) {
+                return;
+            }
+            for (RecipeIngredientResponse recipeIngredient : ingredients) {
+                recipeLines.add(recipeIngredient);
+                requiredQuantities.merge(recipeIngredient.getIngredientId(),
+                    recipeIngredient.getQuantity().multiply(BigDecimal.valueOf(quantity)), BigDecimal::add);
+            }
+        });
 
-                if (recipeIngredient.getUnit() == null) {
-                    throw new BusinessException("La unidad no está especificada en la receta para el ingrediente: " + ingredient.getName());
-                }
-                if (ingredient.getUnit() == null) {
-                    throw new BusinessException("La unidad no está especificada en el ingrediente: " + ingredient.getName());
-                }
-                if (!recipeIngredient.getUnit().equals(ingredient.getUnit())) {
-                    throw new BusinessException("Las unidades no coinciden para el ingrediente " + ingredient.getName() + 
-                        ". Receta: " + recipeIngredient.getUnit() + ", Ingrediente: " + ingredient.getUnit());
-                }
+        // Con varios consumidores, las órdenes que comparten ingredientes se turnan desde aquí hasta el commit
+        ingredientLocks.lockUntilCompletion(requiredQuantities.keySet());
 
-                BigDecimal requiredQuantity = recipeIngredient.getQuantity()
-                    .multiply(BigDecimal.valueOf(product.getQuantity()));
+        // Una orden entregada de nuevo (el lote de respuestas no llegó al broker, o el outbox
+        // de órdenes la publicó dos veces) ya tiene su reserva, aunque ya se haya confirmado o
+        // vencido: se responde igual sin apartar otra vez
+        if (stockHoldRepository.existsForOrder(orderMessage.getOrderId())) {
+            return StockValidationStatus.RESERVED;
+        }
 
-                if (ingredient.getQuantity().compareTo(requiredQuantity) < 0) {
-                    throw new BusinessException("Stock insuficiente para el ingrediente: " + ingredient.getName() + 
-                        ". Requerido: " + requiredQuantity + " " + ingredient.getUnit() + 
-                        ", Disponible: " + ingredient.getQuantity() + " " + ingredient.getUnit());
-                }
+        // Cargar todos los ingredientes referenciados en una sola consulta
+        Map<UUID, IngredientResponse> ingredients = ingredientRepository.findAllById(requiredQuantities.keySet()).stream()
+            .collect(Collectors.toMap(IngredientResponse::getId, Function.identity()));
 
-                IngredientDto updatedIngredient = IngredientDto.builder()
-                    .id(ingredient.getId())
-                    .name(ingredient.getName())
-                    .description(ingredient.getDescription())
-                    .quantity(ingredient.getQuantity().subtract(requiredQuantity))
-                    .unit(ingredient.getUnit())
-                    .price(ingredient.getPrice())
-                    .supplier(ingredient.getSupplier())
-                    .minimumStock(ingredient.getMinimumStock())
-                    .build();
+        for (RecipeIngredientResponse recipeIngredient : recipeLines) {
+            IngredientResponse ingredient = ingredients.get(recipeIngredient.getIngredientId());
+            if (ingredient == null) {
+                throw new BusinessException("Ingrediente no encontrado: " + recipeIngredient.getIngredientName());
+            }
+            validateUnits(recipeIngredient, ingredient);
+        }
 
-                ingredientRepository.save(updatedIngredient);
+        // Validar una sola vez contra el total de la orden; lo apartado por otras órdenes no está disponible
+        requiredQuantities.forEach((ingredientId, requiredQuantity) -> {
+            IngredientResponse ingredient = ingredients.get(ingredientId);
+            if (ingredient.getAvailableQuantity().compareTo(requiredQuantity) < 0) {
+                throw new BusinessException("Stock insuficiente para el ingrediente: " + ingredient.getName() + 
+                    ". Requerido: " + requiredQuantity + " " + ingredient.getUnit() + 
+                    ", Disponible: " + ingredient.getAvailableQuantity() + " " + ingredient.getUnit());
             }
+        });
+
+        // Apartar con un UPDATE condicional por ingrediente en un solo lote; si otro consumidor
+        // se llevó el disponible desde la lectura, la fila no se actualiza y la orden se rechaza.
+        // La existencia solo baja cuando órdenes confirma la orden; si no llega a tiempo, la reserva vence
+        List<UUID> failed = ingredientRepository.holdStock(requiredQuantities);
+        if (!failed.isEmpty()) {
+            String names = failed.stream()
+                .map(id -> ingredients.get(id).getName())
+                .collect(Collectors.joining(", "));
+            throw new BusinessException("Stock insuficiente para el ingrediente: " + names);
         }
+        Instant expiresAt = stockHoldRepository.save(orderMessage.getOrderId(), requiredQuantities);
+        holdExpiryScheduler.schedule(orderMessage.getOrderId(), expiresAt);
+
+        return StockValidationStatus.RESERVED;
+    }
 
-        // Si todo salió bien, enviamos respuesta de éxito
-        StockUpdateResponseEvent response = new StockUpdateResponseEvent();
-        response.setOrderId(orderMessage.getOrderId());
-        response.setStatus(StockValidationStatus.RESERVED);
-        rabbitTemplate.convertAndSend(
-            RabbitMQConfig.STOCK_RESPONSE_EXCHANGE,
-            RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
-            response
-        );
+    private void validateUnits(RecipeIngredientResponse recipeIngredient, IngredientResponse ingredient) {
+        if (recipeIngredient.getUnit() == null) {
+            throw new BusinessException("La unidad no está especificada en la receta para el ingrediente: " + ingredient.getName());
+        }
+        if (ingredient.getUnit() == null) {
+            throw new BusinessException("La unidad no está especificada en el ingrediente: " + ingredient.getName());
+        }
+        if (!recipeIngredient.getUnit().equals(ingredient.getUnit())) {
+            throw new BusinessException("Las unidades no coinciden para el ingrediente " + ingredient.getName() + 
+                ". Receta: " + recipeIngredient.getUnit() + ", Ingrediente: " + ingredient.getUnit());
+        }
     }
 }
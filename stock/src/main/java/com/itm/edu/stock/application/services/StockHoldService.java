@@ -0,0 +1,80 @@
+package com.itm.edu.stock.application.services;
+
+import com.itm.edu.stock.application.ports.input.StockHoldUseCase;
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
+import com.itm.edu.stock.application.ports.output.IngredientRepository;
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
+import com.itm.edu.stock.domain.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockHoldService implements StockHoldUseCase {
+    private final StockHoldRepository stockHoldRepository;
+    private final IngredientRepository ingredientRepository;
+    private final IngredientLocks ingredientLocks;
+
+    @Override
+    @Transactional
+    public CommitResult commitHold(UUID orderId) {
+        Map<UUID, BigDecimal> held = stockHoldRepository.commitByOrderIds(List.of(orderId)).get(orderId);
+        if (held != null) {
+            ingredientRepository.commitHeldStock(held);
+            log.info("Reserva de la orden {} confirmada", orderId);
+            return CommitResult.COMMITTED;
+        }
+
+        Map<UUID, BigDecimal> expired = stockHoldRepository.commitExpired(orderId);
+        if (expired.isEmpty()) {
+            log.warn("La orden {} no tiene reservas: ya se confirmó", orderId);
+            return CommitResult.NOT_FOUND;
+        }
+
+        // La reserva venció antes de la confirmación: se vuelve a apartar solo si el disponible
+        // alcanza y se descuenta en la misma transacción; si no, se revierte todo. Como al procesar
+        // la orden, se aparta con las franjas de sus ingredientes tomadas
+        ingredientLocks.lockUntilCompletion(expired.keySet());
+        List<UUID> failed = ingredientRepository.holdStock(expired);
+        if (!failed.isEmpty()) {
+            throw new BusinessException("Sobreventa: la orden " + orderId
+                + " se aceptó con la reserva vencida y no hay disponible para " + failed);
+        }
+        ingredientRepository.commitHeldStock(expired);
+        log.warn("Reserva vencida de la orden {} confirmada con el disponible actual", orderId);
+        return CommitResult.COMMITTED_AFTER_EXPIRY;
+    }
+
+    @Override
+    @Transactional
+    public int releaseHolds(Collection<UUID> orderIds) {
+        // Las reservas quedan marcadas como vencidas por si la confirmación llega tarde
+        Map<UUID, Map<UUID, BigDecimal>> taken = stockHoldRepository.expireByOrderIds(orderIds);
+
+        // Un UPDATE por ingrediente aunque lo tengan apartado varias órdenes del lote
+        Map<UUID, BigDecimal> total = new HashMap<>();
+        taken.values().forEach(held -> held.forEach((ingredientId, quantity) ->
+            total.merge(ingredientId, quantity, BigDecimal::add)));
+        if (!total.isEmpty()) {
+            ingredientRepository.releaseHeldStock(total);
+        }
+        return taken.size();
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpiredHolds(Instant expiredBefore) {
+        return stockHoldRepository.purgeExpired(expiredBefore);
+    }
+}
@@ -0,0 +1,85 @@
+package com.itm.edu.stock.infrastructure.concurrency;
+
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Tabla de locks por franjas: cada ingrediente cae en una de
+ * {@code stock.locks.stripes} franjas según su ID. Las franjas de una orden se
+ * toman en orden ascendente, así dos consumidores nunca esperan uno por el otro
+ * en sentido contrario, y se sueltan al terminar la transacción. Órdenes con
+ * ingredientes en franjas distintas avanzan en paralelo.
+ */
+@Component
+public class StripedIngredientLocks implements IngredientLocks {
+
+    private final ReentrantLock[] stripes;
+    private final Counter[] contention;
+    private final Timer waitTime;
+
+    public StripedIngredientLocks(@Value("${stock.locks.stripes:64}") int stripeCount, MeterRegistry meterRegistry) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stock.locks.stripes debe ser mayor que cero");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        this.contention = new Counter[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            contention[i] = Counter.builder("stock.ingredient.lock.contention")
+                .description("Veces que un consumidor encontró la franja ocupada por otra orden")
+                .tag("stripe", String.valueOf(i))
+                .register(meterRegistry);
+        }
+        this.waitTime = Timer.builder("stock.ingredient.lock.wait")
+            .description("Tiempo esperando las franjas de los ingredientes de una orden")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void lockUntilCompletion(Collection<UUID> ingredientIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Los ingredientes solo se bloquean dentro de una transacción");
+        }
+        List<Integer> acquired = ingredientIds.stream()
+            .map(this::stripeOf)
+            .distinct()
+            .sorted()
+            .collect(Collectors.toList());
+
+        long start = System.nanoTime();
+        for (int stripe : acquired) {
+            if (!stripes[stripe].tryLock()) {
+                contention[stripe].increment();
+                stripes[stripe].lock();
+            }
+        }
+        waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = acquired.size() - 1; i >= 0; i--) {
+                    stripes[acquired.get(i)].unlock();
+                }
+            }
+        });
+    }
+
+    int stripeOf(UUID ingredientId) {
+        int hash = ingredientId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
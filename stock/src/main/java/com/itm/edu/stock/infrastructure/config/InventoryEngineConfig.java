@@ -0,0 +1,38 @@
+package com.itm.edu.stock.infrastructure.config;
+
+import com.itm.edu.stock.infrastructure.inventory.InventoryEngine;
+import com.itm.edu.stock.infrastructure.inventory.InventoryWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+@Configuration
+@Profile("!perf")
+@ConditionalOnProperty(name = "stock.inventory.engine.enabled", havingValue = "true")
+public class InventoryEngineConfig {
+
+    @Bean
+    public InventoryEngine inventoryEngine(
+            @Value("${stock.inventory.engine.capacity:65536}") int capacity,
+            @Value("${stock.inventory.engine.scale:2}") int scale,
+            @Value("${stock.inventory.engine.journal-path:data/inventory-journal.log}") String journalPath) {
+        return new InventoryEngine(capacity, scale, Path.of(journalPath));
+    }
+
+    @Bean
+    public InventoryWriteBehind inventoryWriteBehind(
+            InventoryEngine inventoryEngine,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${stock.inventory.engine.flush-batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry) {
+        return new InventoryWriteBehind(inventoryEngine, jdbcTemplate, transactionManager, batchSize, meterRegistry);
+    }
+}
@@ -1,5 +1,8 @@
 package com.itm.edu.stock.infrastructure.config;
 
+import com.itm.edu.common.messaging.SmileMessageConverter;
+import com.itm.edu.common.messaging.WireFormat;
+import com.itm.edu.common.messaging.WireFormatMessageConverters;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
@@ -11,11 +14,15 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.amqp.support.converter.DefaultClassMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
 @EnableRabbit
+@Profile("!perf")
 public class RabbitMQConfig {
 
     // Exchange y cola para creación de órdenes
@@ -94,28 +101,79 @@ public class RabbitMQConfig {
     @Bean
     public MessageConverter jsonMessageConverter() {
         Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
-        DefaultClassMapper classMapper = new DefaultClassMapper();
-        classMapper.setTrustedPackages("java.util", "java.lang", "com.itm.edu.common.dto", "com.itm.edu.common.dto.events");
-        converter.setClassMapper(classMapper);
+        converter.setClassMapper(trustedClassMapper());
+        return converter;
+    }
+
+    // Configuración de mensajes Smile, con los mismos paquetes de confianza
+    @Bean
+    public MessageConverter smileMessageConverter() {
+        SmileMessageConverter converter = new SmileMessageConverter();
+        converter.setClassMapper(trustedClassMapper());
         return converter;
     }
 
+    // Lee JSON y Smile según el content-type de cada mensaje y publica en stock.messaging.wire-format
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory cf, MessageConverter jsonMessageConverter) {
+    @Primary
+    public MessageConverter messageConverter(@Value("${stock.messaging.wire-format:json}") String wireFormat) {
+        return WireFormatMessageConverters.negotiating(
+            WireFormat.fromProperty(wireFormat), jsonMessageConverter(), smileMessageConverter());
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory cf, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(cf);
-        template.setMessageConverter(jsonMessageConverter);
+        template.setMessageConverter(messageConverter);
         template.setExchange(STOCK_RESPONSE_EXCHANGE);
         template.setRoutingKey(STOCK_RESPONSE_ROUTING_KEY);
         return template;
     }
 
+    // Consumidores de órdenes en paralelo; los ingredientes compartidos se serializan con StripedIngredientLocks
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory cf,
-            MessageConverter jsonMessageConverter) {
+            MessageConverter messageConverter,
+            @Value("${stock.consumer.concurrency:4}") int concurrency,
+            @Value("${stock.consumer.max-concurrency:8}") int maxConcurrency,
+            @Value("${stock.consumer.prefetch:10}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(cf);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+        return factory;
+    }
+
+    // Órdenes por lotes de hasta batch.size, o las que lleguen en batch.receive-timeout-ms; las
+    // respuestas del lote se publican y confirman antes de confirmar las órdenes al broker
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderBatchContainerFactory(
+            ConnectionFactory cf,
+            MessageConverter messageConverter,
+            @Value("${stock.consumer.concurrency:4}") int concurrency,
+            @Value("${stock.consumer.max-concurrency:8}") int maxConcurrency,
+            @Value("${stock.consumer.prefetch:10}") int prefetch,
+            @Value("${stock.consumer.batch.size:50}") int batchSize,
+            @Value("${stock.consumer.batch.receive-timeout-ms:20}") long receiveTimeoutMs) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(cf);
-        factory.setMessageConverter(jsonMessageConverter);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
         return factory;
     }
+
+    private DefaultClassMapper trustedClassMapper() {
+        DefaultClassMapper classMapper = new DefaultClassMapper();
+        classMapper.setTrustedPackages("java.util", "java.lang", "com.itm.edu.common.dto", "com.itm.edu.common.dto.events");
+        return classMapper;
+    }
 }
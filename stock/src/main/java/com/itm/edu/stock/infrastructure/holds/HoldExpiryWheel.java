@@ -0,0 +1,74 @@
+package com.itm.edu.stock.infrastructure.holds;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rueda de tiempo con {@code wheelSize} ranuras de {@code tickMillis} cada una.
+ * Agendar y avanzar son O(1) por reserva: cada avance solo mira las ranuras de
+ * los ticks transcurridos, y una reserva que vence más allá de una vuelta
+ * completa sigue en su ranura hasta la vuelta que le toca.
+ */
+class HoldExpiryWheel {
+
+    private final long tickMillis;
+    private final List<Deque<Entry>> slots;
+    private long lastTick;
+
+    HoldExpiryWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("El tick y el tamaño de la rueda deben ser mayores que cero");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    synchronized void schedule(UUID orderId, long expiresAtMillis) {
+        // Lo que vence en un tick ya recorrido sale en el próximo avance
+        long tick = Math.max(Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis), lastTick + 1);
+        slots.get(slotOf(tick)).add(new Entry(orderId, expiresAtMillis));
+    }
+
+    /**
+     * Avanza hasta {@code nowMillis} y devuelve las órdenes cuyas reservas vencieron.
+     */
+    synchronized List<UUID> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<UUID> expired = new ArrayList<>();
+        long ticks = Math.min(nowTick - lastTick, slots.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Entry> entries = slots.get(slotOf(lastTick + i)).iterator();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (entry.expiresAtMillis <= nowMillis) {
+                    expired.add(entry.orderId);
+                    entries.remove();
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, nowTick);
+        return expired;
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private static final class Entry {
+        private final UUID orderId;
+        private final long expiresAtMillis;
+
+        private Entry(UUID orderId, long expiresAtMillis) {
+            this.orderId = orderId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
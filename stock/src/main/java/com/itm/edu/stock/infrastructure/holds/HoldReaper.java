@@ -0,0 +1,120 @@
+package com.itm.edu.stock.infrastructure.holds;
+
+import com.itm.edu.stock.application.ports.input.StockHoldUseCase;
+import com.itm.edu.stock.application.ports.output.HoldExpiryScheduler;
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Libera en bloque las reservas vencidas. Cada reserva nueva se agenda en una
+ * {@link HoldExpiryWheel}; en cada tick las órdenes vencidas se liberan en lotes
+ * de {@code stock.holds.reaper.batch-size}, una transacción por lote. Al arrancar,
+ * antes que los consumidores, la rueda se reconstruye con las reservas de la base.
+ * Las reservas liberadas quedan como vencidas durante {@code stock.holds.expired-retention}
+ * para descontar las confirmaciones que lleguen tarde, y las confirmadas para reconocer
+ * órdenes entregadas de nuevo; después se purgan.
+ */
+@Slf4j
+@Component
+public class HoldReaper implements HoldExpiryScheduler, SmartLifecycle {
+
+    private final StockHoldUseCase stockHoldUseCase;
+    private final StockHoldRepository stockHoldRepository;
+    private final HoldExpiryWheel wheel;
+    private final int batchSize;
+    private final Duration expiredRetention;
+    private final Counter released;
+    private volatile boolean running;
+
+    public HoldReaper(StockHoldUseCase stockHoldUseCase,
+                      StockHoldRepository stockHoldRepository,
+                      @Value("${stock.holds.reaper.tick-ms:1000}") long tickMillis,
+                      @Value("${stock.holds.reaper.wheel-size:512}") int wheelSize,
+                      @Value("${stock.holds.reaper.batch-size:500}") int batchSize,
+                      @Value("${stock.holds.expired-retention:PT24H}") Duration expiredRetention,
+                      MeterRegistry meterRegistry) {
+        this.stockHoldUseCase = stockHoldUseCase;
+        this.stockHoldRepository = stockHoldRepository;
+        this.wheel = new HoldExpiryWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        this.batchSize = batchSize;
+        this.expiredRetention = expiredRetention;
+        this.released = Counter.builder("stock.holds.expired")
+            .description("Órdenes cuyas reservas vencieron sin confirmarse y se liberaron")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void schedule(UUID orderId, Instant expiresAt) {
+        wheel.schedule(orderId, expiresAt.toEpochMilli());
+    }
+
+    @Override
+    public void start() {
+        var expirations = stockHoldRepository.findExpirations();
+        expirations.forEach(this::schedule);
+        log.info("✅ {} órdenes con reservas activas agendadas para vencer", expirations.size());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Antes que los contenedores de RabbitMQ, para tener la rueda completa al recibir órdenes
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.holds.reaper.tick-ms:1000}")
+    public void reap() {
+        if (running) {
+            reap(System.currentTimeMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stock.holds.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!running) {
+            return;
+        }
+        try {
+            int purged = stockHoldUseCase.purgeExpiredHolds(Instant.now().minus(expiredRetention));
+            log.debug("Reservas vencidas o confirmadas purgadas: {}", purged);
+        } catch (RuntimeException e) {
+            log.error("❌ Error purgando reservas vencidas, se reintenta en la próxima ronda: {}", e.getMessage());
+        }
+    }
+
+    void reap(long nowMillis) {
+        List<UUID> expired = wheel.advance(nowMillis);
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<UUID> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                int count = stockHoldUseCase.releaseHolds(batch);
+                released.increment(count);
+                log.debug("Reservas vencidas liberadas: {} de {} órdenes", count, batch.size());
+            } catch (RuntimeException e) {
+                log.error("❌ Error liberando reservas vencidas, se reintenta en el próximo tick: {}", e.getMessage());
+                batch.forEach(orderId -> wheel.schedule(orderId, nowMillis));
+            }
+        }
+    }
+}
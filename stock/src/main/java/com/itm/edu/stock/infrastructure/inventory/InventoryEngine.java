@@ -0,0 +1,299 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Inventario de ingredientes residente en memoria. Cada ingrediente recibe un
+ * ordinal denso y sus cantidades viven en dos {@link AtomicLongArray} como
+ * enteros escalados ({@code stock.inventory.engine.scale} decimales): el
+ * disponible para prometer y lo apartado por reservas activas, cuya suma es la
+ * existencia. Apartar es un compare-and-set sobre el disponible, sin tocar la base.
+ * <p>
+ * Cada cambio aplicado se anota en el {@link MovementJournal} y queda pendiente
+ * hasta que {@link InventoryWriteBehind} lo escribe en la tabla
+ * {@code ingredients}. La anotación es lo único serializado: una escritura en
+ * buffer, sin esperar al disco.
+ */
+@Slf4j
+public class InventoryEngine implements AutoCloseable {
+
+    private final int scale;
+    private final AtomicLongArray available;
+    private final AtomicLongArray reserved;
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    // Protegidos por journalLock: el orden del diario, la secuencia y la cola pendiente coinciden
+    private final Object journalLock = new Object();
+    private final MovementJournal journal;
+    private final Deque<InventoryMovement> pending = new ArrayDeque<>();
+    private long lastSequence;
+
+    public InventoryEngine(int capacity, int scale, Path journalPath) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("stock.inventory.engine.capacity debe ser mayor que cero");
+        }
+        this.scale = scale;
+        this.available = new AtomicLongArray(capacity);
+        this.reserved = new AtomicLongArray(capacity);
+        this.journal = new MovementJournal(journalPath);
+    }
+
+    /**
+     * Carga la existencia y lo apartado confirmados en la base, sin anotarlos en el diario.
+     */
+    public void load(UUID ingredientId, BigDecimal quantity, BigDecimal held) {
+        int ordinal = ordinalOf(ingredientId);
+        long heldAmount = toScaled(held);
+        reserved.set(ordinal, heldAmount);
+        available.set(ordinal, toScaled(quantity) - heldAmount);
+    }
+
+    /**
+     * Reaplica los movimientos del diario posteriores al último checkpoint de la
+     * base y los deja pendientes de escribir. Devuelve cuántos se reaplicaron.
+     */
+    public int recover(long checkpoint) {
+        synchronized (journalLock) {
+            lastSequence = checkpoint;
+            for (InventoryMovement movement : journal.readAll()) {
+                if (movement.getSequence() <= checkpoint) {
+                    continue;
+                }
+                apply(movement);
+                pending.add(movement);
+                lastSequence = movement.getSequence();
+            }
+            return pending.size();
+        }
+    }
+
+    /**
+     * Existencia del ingrediente: disponible más apartado. {@code null} si el motor no lo conoce.
+     */
+    public BigDecimal quantityOf(UUID ingredientId) {
+        Integer ordinal = ordinals.get(ingredientId);
+        return ordinal == null ? null : toQuantity(available.get(ordinal) + reserved.get(ordinal));
+    }
+
+    public BigDecimal reservedOf(UUID ingredientId) {
+        Integer ordinal = ordinals.get(ingredientId);
+        return ordinal == null ? null : toQuantity(reserved.get(ordinal));
+    }
+
+    /**
+     * Aparta todas las cantidades o ninguna. Devuelve los ingredientes
+     * desconocidos o sin disponible suficiente; si hay alguno, lo ya tomado se devuelve.
+     */
+    public List<UUID> hold(Map<UUID, BigDecimal> requested) {
+        List<UUID> failed = new ArrayList<>();
+        List<InventoryMovement> applied = new ArrayList<>(requested.size());
+        List<Integer> appliedOrdinals = new ArrayList<>(requested.size());
+        for (Map.Entry<UUID, BigDecimal> line : requested.entrySet()) {
+            Integer ordinal = ordinals.get(line.getKey());
+            long amount = toScaled(line.getValue());
+            if (ordinal == null || !tryTake(ordinal, amount)) {
+                failed.add(line.getKey());
+            } else {
+                applied.add(new InventoryMovement(0, line.getKey(), InventoryMovement.Type.HOLD, amount));
+                appliedOrdinals.add(ordinal);
+            }
+        }
+
+        for (int i = 0; i < applied.size(); i++) {
+            if (failed.isEmpty()) {
+                reserved.addAndGet(appliedOrdinals.get(i), applied.get(i).getAmount());
+            } else {
+                available.addAndGet(appliedOrdinals.get(i), applied.get(i).getAmount());
+            }
+        }
+        if (failed.isEmpty()) {
+            record(applied);
+        }
+        return failed;
+    }
+
+    /**
+     * Vuelve definitiva una reserva: lo apartado sale de la existencia.
+     */
+    public void commit(Map<UUID, BigDecimal> held) {
+        adjustHeld(held, InventoryMovement.Type.COMMIT);
+    }
+
+    /**
+     * Devuelve al disponible una reserva, por ejemplo vencida o cuya transacción se revirtió.
+     */
+    public void release(Map<UUID, BigDecimal> held) {
+        adjustHeld(held, InventoryMovement.Type.RELEASE);
+    }
+
+    /**
+     * Fija la existencia de un ingrediente, por ejemplo al crearlo o editarlo; lo apartado se conserva.
+     * Quien llama debe tener tomada la franja del ingrediente en
+     * {@link com.itm.edu.stock.application.ports.output.IngredientLocks}, la misma bajo la que se
+     * apartan las reservas: entre descontar el disponible y sumar lo apartado no hay otra escritura.
+     */
+    public void set(UUID ingredientId, BigDecimal quantity) {
+        long amount = toScaled(quantity);
+        int ordinal = ordinalOf(ingredientId);
+        available.set(ordinal, amount - reserved.get(ordinal));
+        record(List.of(new InventoryMovement(0, ingredientId, InventoryMovement.Type.SET, amount)));
+    }
+
+    public void remove(UUID ingredientId) {
+        // El ordinal no se reutiliza: una reserva en curso podría seguir apuntando a él
+        ordinals.remove(ingredientId);
+    }
+
+    /**
+     * Los primeros movimientos pendientes, en orden de secuencia, sin quitarlos de la cola.
+     */
+    public List<InventoryMovement> pendingBatch(int max) {
+        synchronized (journalLock) {
+            List<InventoryMovement> batch = new ArrayList<>(Math.min(max, pending.size()));
+            for (InventoryMovement movement : pending) {
+                if (batch.size() == max) {
+                    break;
+                }
+                batch.add(movement);
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Quita de la cola los movimientos ya escritos en la base. Si no queda
+     * ninguno pendiente, todo el diario está en la base y se vacía.
+     */
+    public void acknowledge(int count) {
+        synchronized (journalLock) {
+            for (int i = 0; i < count; i++) {
+                pending.poll();
+            }
+            if (pending.isEmpty()) {
+                journal.truncate();
+            }
+        }
+    }
+
+    public void syncJournal() {
+        synchronized (journalLock) {
+            journal.sync();
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (journalLock) {
+            return pending.size();
+        }
+    }
+
+    public BigDecimal toQuantity(long scaled) {
+        return BigDecimal.valueOf(scaled, scale);
+    }
+
+    @Override
+    public void close() {
+        synchronized (journalLock) {
+            journal.sync();
+            journal.close();
+        }
+    }
+
+    private boolean tryTake(int ordinal, long amount) {
+        while (true) {
+            long current = available.get(ordinal);
+            if (current < amount) {
+                return false;
+            }
+            if (available.compareAndSet(ordinal, current, current - amount)) {
+                return true;
+            }
+        }
+    }
+
+    private void adjustHeld(Map<UUID, BigDecimal> held, InventoryMovement.Type type) {
+        List<InventoryMovement> movements = new ArrayList<>(held.size());
+        held.forEach((ingredientId, quantity) -> {
+            if (ordinals.containsKey(ingredientId)) {
+                InventoryMovement movement = new InventoryMovement(0, ingredientId, type, toScaled(quantity));
+                apply(movement);
+                movements.add(movement);
+            }
+        });
+        record(movements);
+    }
+
+    private void apply(InventoryMovement movement) {
+        if (movement.getType() == InventoryMovement.Type.SET) {
+            int ordinal = ordinalOf(movement.getIngredientId());
+            available.set(ordinal, movement.getAmount() - reserved.get(ordinal));
+            return;
+        }
+        Integer ordinal = ordinals.get(movement.getIngredientId());
+        if (ordinal == null) {
+            log.warn("⚠️ Movimiento {} de un ingrediente que ya no existe: {}", movement.getSequence(), movement.getIngredientId());
+            return;
+        }
+        long amount = movement.getAmount();
+        switch (movement.getType()) {
+            case HOLD -> {
+                available.addAndGet(ordinal, -amount);
+                reserved.addAndGet(ordinal, amount);
+            }
+            case COMMIT -> reserved.addAndGet(ordinal, -amount);
+            case RELEASE -> {
+                reserved.addAndGet(ordinal, -amount);
+                available.addAndGet(ordinal, amount);
+            }
+            default -> throw new IllegalStateException("Tipo de movimiento desconocido: " + movement.getType());
+        }
+    }
+
+    private void record(List<InventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        synchronized (journalLock) {
+            for (InventoryMovement movement : movements) {
+                InventoryMovement sequenced = new InventoryMovement(
+                    ++lastSequence, movement.getIngredientId(), movement.getType(), movement.getAmount());
+                journal.append(sequenced);
+                pending.add(sequenced);
+            }
+        }
+    }
+
+    private int ordinalOf(UUID ingredientId) {
+        return ordinals.computeIfAbsent(ingredientId, id -> {
+            int ordinal = nextOrdinal.getAndIncrement();
+            if (ordinal >= available.length()) {
+                throw new IllegalStateException("El motor de inventario alcanzó su capacidad de "
+                    + available.length() + " ingredientes (stock.inventory.engine.capacity)");
+            }
+            return ordinal;
+        });
+    }
+
+    private long toScaled(BigDecimal quantity) {
+        try {
+            return quantity.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("La cantidad " + quantity
+                + " no cabe en el motor de inventario con " + scale + " decimales", e);
+        }
+    }
+}
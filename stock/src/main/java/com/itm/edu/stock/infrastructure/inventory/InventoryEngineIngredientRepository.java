@@ -0,0 +1,173 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import com.itm.edu.stock.application.dto.IngredientResponse;
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
+import com.itm.edu.stock.application.ports.output.IngredientRepository;
+import com.itm.edu.stock.infrastructure.persistence.adapter.IngredientRepositoryAdapter;
+import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Con el motor de inventario activo, las cantidades se leen y se apartan en
+ * memoria; el resto de los datos del ingrediente sigue saliendo de
+ * {@link IngredientRepositoryAdapter}. Las altas y ediciones se guardan en la
+ * base y fijan la cantidad en el motor solo si la transacción confirma, con la
+ * franja del ingrediente tomada para no pisar una reserva en curso.
+ */
+@Component
+@Primary
+@Profile("!perf")
+@ConditionalOnProperty(name = "stock.inventory.engine.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class InventoryEngineIngredientRepository implements IngredientRepository {
+
+    private final IngredientRepositoryAdapter delegate;
+    private final InventoryEngine engine;
+    private final IngredientLocks ingredientLocks;
+
+    @Override
+    public IngredientResponse save(IngredientDto ingredient) {
+        lockForEdit(ingredient.getId() != null ? List.of(ingredient.getId()) : List.of());
+        IngredientResponse saved = delegate.save(ingredient);
+        setAfterCommit(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public Optional<IngredientResponse> findById(UUID id) {
+        return delegate.findById(id).map(this::withEngineQuantity);
+    }
+
+    @Override
+    public List<IngredientResponse> findAllById(Collection<UUID> ids) {
+        return withEngineQuantities(delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<IngredientResponse> saveAll(Collection<IngredientDto> ingredients) {
+        lockForEdit(ingredients.stream().map(IngredientDto::getId).filter(Objects::nonNull).collect(Collectors.toList()));
+        List<IngredientResponse> saved = delegate.saveAll(ingredients);
+        setAfterCommit(saved);
+        return saved;
+    }
+
+    @Override
+    public List<IngredientResponse> findAll() {
+        return withEngineQuantities(delegate.findAll());
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        delegate.deleteById(id);
+        afterCommit(() -> engine.remove(id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public List<IngredientResponse> findBySupplier(String supplier) {
+        return withEngineQuantities(delegate.findBySupplier(supplier));
+    }
+
+    @Override
+    public List<UUID> holdStock(Map<UUID, BigDecimal> quantities) {
+        List<UUID> failed = engine.hold(quantities);
+        if (failed.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Lo apartado en memoria no participa de la transacción: si se revierte, se devuelve a mano
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        engine.release(quantities);
+                    }
+                }
+            });
+        }
+        return failed;
+    }
+
+    @Override
+    public void commitHeldStock(Map<UUID, BigDecimal> quantities) {
+        afterCommit(() -> engine.commit(quantities));
+    }
+
+    @Override
+    public void releaseHeldStock(Map<UUID, BigDecimal> quantities) {
+        afterCommit(() -> engine.release(quantities));
+    }
+
+    // Las reservas se apartan con la franja tomada (ProcessOrderService): editando bajo la misma
+    // franja, fijar la cantidad nunca cae entre el descuento del disponible y el alta de lo apartado
+    private void lockForEdit(Collection<UUID> ingredientIds) {
+        if (!ingredientIds.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            ingredientLocks.lockUntilCompletion(ingredientIds);
+        }
+    }
+
+    // La franja se suelta al terminar la transacción, después de fijar la cantidad. Un alta no
+    // necesita franja: el motor aún no conoce el ingrediente y ninguna reserva puede apartarlo
+    private void setAfterCommit(List<IngredientResponse> saved) {
+        afterCommit(() -> saved.forEach(ingredient ->
+                engine.set(ingredient.getId(), quantityOrZero(ingredient.getQuantity()))));
+    }
+
+    // Se aplica solo si la transacción confirma: una reserva que no se borró o una edición revertida no tocan el motor
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private List<IngredientResponse> withEngineQuantities(List<IngredientResponse> ingredients) {
+        return ingredients.stream()
+                .map(this::withEngineQuantity)
+                .collect(Collectors.toList());
+    }
+
+    private IngredientResponse withEngineQuantity(IngredientResponse ingredient) {
+        BigDecimal quantity = engine.quantityOf(ingredient.getId());
+        if (quantity == null) {
+            return ingredient;
+        }
+        return IngredientResponse.builder()
+                .id(ingredient.getId())
+                .name(ingredient.getName())
+                .description(ingredient.getDescription())
+                .quantity(quantity)
+                .reserved(engine.reservedOf(ingredient.getId()))
+                .unit(ingredient.getUnit())
+                .supplier(ingredient.getSupplier())
+                .minimumStock(ingredient.getMinimumStock())
+                .price(ingredient.getPrice())
+                .build();
+    }
+
+    private static BigDecimal quantityOrZero(BigDecimal quantity) {
+        return quantity == null ? BigDecimal.ZERO : quantity;
+    }
+}
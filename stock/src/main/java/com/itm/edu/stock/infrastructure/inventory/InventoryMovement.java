@@ -0,0 +1,35 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Un cambio de inventario tal como queda en el diario, en unidades escaladas
+ * del motor: la existencia fijada ({@code SET}), o una cantidad apartada
+ * ({@code HOLD}), confirmada ({@code COMMIT}) o devuelta ({@code RELEASE}).
+ * La secuencia es única y creciente.
+ */
+@Value
+public class InventoryMovement {
+
+    public enum Type { SET, HOLD, COMMIT, RELEASE }
+
+    long sequence;
+    UUID ingredientId;
+    Type type;
+    long amount;
+
+    String toJournalLine() {
+        return sequence + ";" + type + ";" + ingredientId + ";" + amount;
+    }
+
+    static InventoryMovement fromJournalLine(String line) {
+        String[] fields = line.split(";");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Línea de diario inválida: " + line);
+        }
+        return new InventoryMovement(
+            Long.parseLong(fields[0]), UUID.fromString(fields[2]), Type.valueOf(fields[1]), Long.parseLong(fields[3]));
+    }
+}
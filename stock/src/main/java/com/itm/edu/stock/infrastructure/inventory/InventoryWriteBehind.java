@@ -0,0 +1,179 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Escritura diferida del {@link InventoryEngine}. Al arrancar, antes que los
+ * consumidores de órdenes, carga {@code ingredients} y reaplica el diario
+ * posterior al checkpoint. Luego, cada {@code stock.inventory.engine.flush-interval-ms},
+ * fuerza el diario a disco y escribe los movimientos pendientes agrupados por
+ * ingrediente junto con el nuevo checkpoint, en una sola transacción.
+ */
+@Slf4j
+public class InventoryWriteBehind implements SmartLifecycle {
+
+    static final String CHECKPOINT_ID = "ingredients";
+
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE ingredients SET quantity = quantity + ?, reserved = reserved + ? WHERE id = ?";
+    private static final String SET_QUANTITY_SQL =
+        "UPDATE ingredients SET quantity = ?, reserved = reserved + ? WHERE id = ?";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE inventory_checkpoint SET last_sequence = ? WHERE id = ?";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO inventory_checkpoint (id, last_sequence) VALUES (?, ?)";
+
+    private final InventoryEngine engine;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter flushed;
+    private volatile boolean running;
+
+    public InventoryWriteBehind(InventoryEngine engine,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                int batchSize,
+                                MeterRegistry meterRegistry) {
+        this.engine = engine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        Gauge.builder("stock.inventory.pending", engine, InventoryEngine::pendingCount)
+            .description("Movimientos de inventario aplicados en memoria y aún no escritos en la base")
+            .register(meterRegistry);
+        this.flushed = Counter.builder("stock.inventory.flushed")
+            .description("Movimientos de inventario escritos en la base")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        jdbcTemplate.query("SELECT id, quantity, reserved FROM ingredients", rs -> {
+            engine.load(rs.getObject("id", UUID.class),
+                orZero(rs.getBigDecimal("quantity")), orZero(rs.getBigDecimal("reserved")));
+        });
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+            "SELECT last_sequence FROM inventory_checkpoint WHERE id = ?", Long.class, CHECKPOINT_ID);
+        int replayed = engine.recover(checkpoint.isEmpty() ? 0 : checkpoint.get(0));
+        log.info("✅ Motor de inventario cargado; {} movimientos del diario reaplicados", replayed);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Vaciar lo pendiente antes de cerrar; si la base no responde, el diario lo conserva
+        while (engine.pendingCount() > 0 && flushPending() > 0) {
+            log.debug("Escribiendo movimientos de inventario pendientes antes de detener");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Antes que los contenedores de RabbitMQ: arranca primero y se detiene después
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.inventory.engine.flush-interval-ms:200}")
+    public void flush() {
+        if (running) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Escribe un lote de movimientos pendientes y devuelve cuántos escribió.
+     */
+    synchronized int flushPending() {
+        try {
+            engine.syncJournal();
+            List<InventoryMovement> batch = engine.pendingBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // Un UPDATE por ingrediente: un SET fija la existencia y lo demás se acumula sobre ella
+            Map<UUID, Folded> folded = new TreeMap<>();
+            for (InventoryMovement movement : batch) {
+                folded.computeIfAbsent(movement.getIngredientId(), id -> new Folded()).add(movement);
+            }
+            List<Object[]> deltas = new ArrayList<>();
+            List<Object[]> sets = new ArrayList<>();
+            folded.forEach((ingredientId, changes) -> {
+                BigDecimal reservedDelta = engine.toQuantity(changes.reservedDelta);
+                if (changes.quantity != null) {
+                    sets.add(new Object[]{engine.toQuantity(changes.quantity + changes.quantityDelta), reservedDelta, ingredientId});
+                } else {
+                    deltas.add(new Object[]{engine.toQuantity(changes.quantityDelta), reservedDelta, ingredientId});
+                }
+            });
+
+            long lastSequence = batch.get(batch.size() - 1).getSequence();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sets.isEmpty()) {
+                    jdbcTemplate.batchUpdate(SET_QUANTITY_SQL, sets);
+                }
+                if (!deltas.isEmpty()) {
+                    jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas);
+                }
+                if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, lastSequence, CHECKPOINT_ID) == 0) {
+                    jdbcTemplate.update(INSERT_CHECKPOINT_SQL, CHECKPOINT_ID, lastSequence);
+                }
+            });
+            engine.acknowledge(batch.size());
+            flushed.increment(batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            log.error("❌ Error escribiendo movimientos de inventario, se reintenta en la próxima pasada: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    /**
+     * Efecto neto de varios movimientos de un mismo ingrediente sobre sus dos columnas.
+     */
+    private static final class Folded {
+        private Long quantity;
+        private long quantityDelta;
+        private long reservedDelta;
+
+        void add(InventoryMovement movement) {
+            long amount = movement.getAmount();
+            switch (movement.getType()) {
+                case SET -> {
+                    quantity = amount;
+                    quantityDelta = 0;
+                }
+                case HOLD -> reservedDelta += amount;
+                case COMMIT -> {
+                    quantityDelta -= amount;
+                    reservedDelta -= amount;
+                }
+                case RELEASE -> reservedDelta -= amount;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diario de movimientos de solo escritura al final, una línea por movimiento.
+ * Las escrituras quedan en el buffer hasta {@link #sync()}, que las fuerza a
+ * disco; una última línea cortada por una caída se descarta al leer.
+ * No es seguro entre hilos: {@link InventoryEngine} serializa el acceso.
+ */
+@Slf4j
+class MovementJournal implements AutoCloseable {
+
+    private final Path path;
+    private FileOutputStream stream;
+    private BufferedWriter writer;
+
+    MovementJournal(Path path) {
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        open(true);
+    }
+
+    List<InventoryMovement> readAll() {
+        List<InventoryMovement> movements = new ArrayList<>();
+        try {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    movements.add(InventoryMovement.fromJournalLine(line));
+                } catch (IllegalArgumentException e) {
+                    if (i < lines.size() - 1) {
+                        throw e;
+                    }
+                    log.warn("⚠️ Última línea del diario incompleta, se descarta: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return movements;
+    }
+
+    void append(InventoryMovement movement) {
+        try {
+            writer.write(movement.toJournalLine());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void sync() {
+        try {
+            writer.flush();
+            stream.getFD().sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vacía el diario. Solo se llama cuando todos sus movimientos ya están en la base.
+     */
+    void truncate() {
+        close();
+        open(false);
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open(boolean append) {
+        try {
+            stream = new FileOutputStream(path.toFile(), append);
+            writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
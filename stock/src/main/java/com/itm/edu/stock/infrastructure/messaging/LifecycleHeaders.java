@@ -0,0 +1,46 @@
+package com.itm.edu.stock.infrastructure.messaging;
+
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.Map;
+
+/**
+ * Cabeceras con las que órdenes mide el ciclo de validación, en milisegundos
+ * epoch. Stock devuelve en la respuesta las que recibió junto con el id de
+ * correlación y añade cuándo recibió la orden y cuándo respondió.
+ */
+final class LifecycleHeaders {
+    static final String CREATED_AT = "x-order-created-at";
+    static final String PUBLISHED_AT = "x-order-published-at";
+    static final String STOCK_RECEIVED_AT = "x-stock-received-at";
+    static final String STOCK_REPLIED_AT = "x-stock-replied-at";
+    // Orden a la que pertenece una actualización de stock
+    static final String ORDER_ID = "x-order-id";
+
+    private LifecycleHeaders() {
+    }
+
+    static MessagePostProcessor echo(MessageProperties inbound, long receivedAt) {
+        return echo(inbound.getHeaders(), inbound.getCorrelationId(), receivedAt);
+    }
+
+    static MessagePostProcessor echo(Map<String, Object> inboundHeaders, String correlationId, long receivedAt) {
+        return message -> {
+            MessageProperties properties = message.getMessageProperties();
+            properties.setCorrelationId(correlationId);
+            copy(inboundHeaders, properties, CREATED_AT);
+            copy(inboundHeaders, properties, PUBLISHED_AT);
+            properties.setHeader(STOCK_RECEIVED_AT, receivedAt);
+            properties.setHeader(STOCK_REPLIED_AT, System.currentTimeMillis());
+            return message;
+        };
+    }
+
+    private static void copy(Map<String, Object> from, MessageProperties to, String header) {
+        Object value = from.get(header);
+        if (value != null) {
+            to.setHeader(header, value);
+        }
+    }
+}
@@ -2,82 +2,91 @@ package com.itm.edu.stock.infrastructure.messaging;
 
 import com.itm.edu.common.dto.OrderMessageDTO;
 import com.itm.edu.common.dto.events.StockValidationStatus;
-import com.itm.edu.common.dto.events.StockUpdateResponseEvent;
 import com.itm.edu.stock.application.ports.input.ProcessOrderUseCase;
 import com.itm.edu.stock.domain.exception.BusinessException;
 import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+/**
+ * Consume {@code order.queue} por lotes. Cada orden se procesa en su propia
+ * transacción y su respuesta entra al lote de {@link StockResponseEmitter}; el lote
+ * se publica y el broker lo confirma antes de que este método retorne y el
+ * contenedor confirme las órdenes. Si la publicación falla, las órdenes vuelven a
+ * la cola y el caso de uso responde igual a las que ya tenían reserva.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RabbitOrderConsumer {
 
     private final ProcessOrderUseCase processOrderUseCase;
-    private final RabbitTemplate rabbitTemplate;
+    private final StockResponseEmitter stockResponseEmitter;
 
     @RabbitListener(
         queues = RabbitMQConfig.ORDER_QUEUE,
-        containerFactory = "rabbitListenerContainerFactory"
+        containerFactory = "orderBatchContainerFactory"
     )
+    public void onOrderMessages(List<org.springframework.messaging.Message<OrderMessageDTO>> messages) {
+        long receivedAt = System.currentTimeMillis();
+        StockResponseEmitter.Batch responses = stockResponseEmitter.batch();
+        for (org.springframework.messaging.Message<OrderMessageDTO> message : messages) {
+            // La respuesta devuelve el id de correlación y las marcas de tiempo de la orden
+            MessagePostProcessor lifecycle = LifecycleHeaders.echo(message.getHeaders(),
+                message.getHeaders().get(AmqpHeaders.CORRELATION_ID, String.class), receivedAt);
+            process(message.getPayload(), lifecycle, responses);
+        }
+        responses.publish();
+    }
+
+    public void onOrderMessage(OrderMessageDTO msg, Message message) {
+        onOrderMessage(msg, message.getMessageProperties(), System.currentTimeMillis());
+    }
+
     public void onOrderMessage(OrderMessageDTO msg) {
+        onOrderMessage(msg, new MessageProperties(), System.currentTimeMillis());
+    }
+
+    private void onOrderMessage(OrderMessageDTO msg, MessageProperties inbound, long receivedAt) {
         if (msg == null) {
             throw new IllegalArgumentException("El mensaje de orden no puede ser nulo");
         }
+        StockResponseEmitter.Batch responses = stockResponseEmitter.batch();
+        process(msg, LifecycleHeaders.echo(inbound, receivedAt), responses);
+        responses.publish();
+    }
 
+    private void process(OrderMessageDTO msg, MessagePostProcessor lifecycle, StockResponseEmitter.Batch responses) {
+        if (msg == null || msg.getOrderId() == null) {
+            log.error("Mensaje de orden inválido recibido; se descarta: {}", msg);
+            return;
+        }
         try {
-            // Procesar la orden
-            processOrderUseCase.processOrder(msg);
-            
-            // Crear el mensaje de respuesta
-            StockUpdateResponseEvent response = new StockUpdateResponseEvent();
-            response.setOrderId(msg.getOrderId());
-            response.setStatus(StockValidationStatus.RESERVED);
-
-            // Enviar la respuesta al exchange de respuestas
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.STOCK_RESPONSE_EXCHANGE,
-                RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
-                response
-            );
-
-            log.info("Orden {} procesada. Stock reservado.", msg.getOrderId());
+            // El caso de uso confirma su transacción antes de devolver el estado
+            StockValidationStatus status = processOrderUseCase.processOrder(msg);
+            responses.emit(msg.getOrderId(), status, lifecycle);
+            log.info("Orden {} procesada. Estado: {}", msg.getOrderId(), status);
         } catch (BusinessException e) {
             log.error("Error de negocio procesando la orden {}: {}", msg.getOrderId(), e.getMessage());
-            
-            // Enviar respuesta de error
-            StockUpdateResponseEvent response = new StockUpdateResponseEvent();
-            response.setOrderId(msg.getOrderId());
-            response.setStatus(StockValidationStatus.CANCELLED_NO_STOCK);
 
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.STOCK_RESPONSE_EXCHANGE,
-                RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
-                response
-            );
+            // La transacción ya se revirtió; la cancelación es la única respuesta de la orden
+            responses.emit(msg.getOrderId(), StockValidationStatus.CANCELLED_NO_STOCK, lifecycle);
 
             // No relanzamos la excepción para que el mensaje no se reintente
             log.warn("Orden {} cancelada. Motivo: {}", msg.getOrderId(), e.getMessage());
         } catch (Exception e) {
+            // Para errores del sistema también usamos CANCELLED_NO_STOCK. No se relanza: el
+            // lote se confirma completo y la orden, como antes con el rechazo, no se reintenta
             log.error("Error inesperado procesando la orden {}: {}", msg.getOrderId(), e.getMessage(), e);
-            
-            // Para errores del sistema también usamos CANCELLED_NO_STOCK
-            StockUpdateResponseEvent response = new StockUpdateResponseEvent();
-            response.setOrderId(msg.getOrderId());
-            response.setStatus(StockValidationStatus.CANCELLED_NO_STOCK);
-
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.STOCK_RESPONSE_EXCHANGE,
-                RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
-                response
-            );
-
-            throw new AmqpRejectAndDontRequeueException("Error inesperado: " + e.getMessage(), e);
+            responses.emit(msg.getOrderId(), StockValidationStatus.CANCELLED_NO_STOCK, lifecycle);
         }
     }
 }
@@ -0,0 +1,117 @@
+package com.itm.edu.stock.infrastructure.messaging;
+
+import com.itm.edu.common.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.common.dto.events.StockValidationStatus;
+import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Único punto de salida de las respuestas de stock hacia órdenes. Cada lote de
+ * órdenes consumido junta sus respuestas en un {@link Batch}: dentro de una
+ * transacción la respuesta entra al confirmarse y se descarta si se revierte; fuera
+ * de una, entra de inmediato. {@link Batch#publish()} envía el lote a
+ * {@code stock.response.exchange} sobre un mismo canal y espera la confirmación
+ * del broker antes de que el consumidor confirme las órdenes, así una caída antes
+ * de publicar devuelve las órdenes a la cola en lugar de perder sus respuestas.
+ * Cada respuesta sigue siendo un mensaje con su id de correlación y sus cabeceras.
+ */
+@Slf4j
+@Component
+public class StockResponseEmitter {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long confirmTimeoutMs;
+    private final Counter published;
+
+    public StockResponseEmitter(RabbitTemplate rabbitTemplate,
+                                @Value("${stock.responses.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                                MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.published = Counter.builder("stock.responses.published")
+            .description("Respuestas de validación de stock publicadas hacia órdenes")
+            .register(meterRegistry);
+    }
+
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Respuestas de un lote de órdenes. No es seguro entre hilos: lo usa el hilo
+     * del consumidor que recibió el lote.
+     */
+    public final class Batch {
+
+        private final List<PendingResponse> responses = new ArrayList<>();
+
+        /**
+         * Agenda la respuesta de una orden. Las cabeceras de ciclo de vida se aplican
+         * al publicarla, así la marca de respuesta incluye la espera del lote.
+         */
+        public void emit(UUID orderId, StockValidationStatus status, MessagePostProcessor lifecycle) {
+            StockUpdateResponseEvent response = new StockUpdateResponseEvent();
+            response.setOrderId(orderId);
+            response.setStatus(status);
+            PendingResponse entry = new PendingResponse(response, lifecycle);
+
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                responses.add(entry);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responses.add(entry);
+                }
+
+                @Override
+                public void afterCompletion(int completion) {
+                    if (completion != STATUS_COMMITTED) {
+                        log.debug("Transacción revertida; se descarta la respuesta {} de la orden {}",
+                            response.getStatus(), orderId);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Publica las respuestas del lote y espera a que el broker las confirme.
+         * Lanza {@link org.springframework.amqp.AmqpException} si alguna no se
+         * confirma; el consumidor la deja propagar para que las órdenes se reentreguen.
+         */
+        public int publish() {
+            if (responses.isEmpty()) {
+                return 0;
+            }
+            rabbitTemplate.invoke(operations -> {
+                for (PendingResponse entry : responses) {
+                    operations.convertAndSend(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE,
+                        RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY, entry.response(), entry.lifecycle());
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+            int count = responses.size();
+            responses.clear();
+            published.increment(count);
+            log.debug("Respuestas de stock publicadas y confirmadas: {}", count);
+            return count;
+        }
+    }
+
+    private record PendingResponse(StockUpdateResponseEvent response, MessagePostProcessor lifecycle) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.itm.edu.stock.infrastructure.messaging;
+
+import com.itm.edu.stock.application.ports.input.StockHoldUseCase;
+import com.itm.edu.stock.domain.exception.BusinessException;
+import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Confirma la reserva de una orden cuando órdenes la acepta. El cuerpo trae la
+ * lista de productos, pero lo apartado ya está guardado por orden: basta con la
+ * cabecera {@code x-order-id}. Si la reserva venció y ya no hay disponible para
+ * descontarla, la orden se cuenta en {@code stock.holds.oversold}.
+ */
+@Slf4j
+@Component
+public class StockUpdateConsumer {
+
+    private final StockHoldUseCase stockHoldUseCase;
+    private final Counter oversold;
+
+    public StockUpdateConsumer(StockHoldUseCase stockHoldUseCase, MeterRegistry meterRegistry) {
+        this.stockHoldUseCase = stockHoldUseCase;
+        this.oversold = Counter.builder("stock.holds.oversold")
+            .description("Órdenes aceptadas con la reserva vencida y sin disponible para descontarlas")
+            .register(meterRegistry);
+    }
+
+    @RabbitListener(
+        queues = RabbitMQConfig.STOCK_UPDATE_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void onStockUpdate(Message message) {
+        Object orderId = message.getMessageProperties().getHeader(LifecycleHeaders.ORDER_ID);
+        if (orderId == null) {
+            // Mensajes anteriores a la cabecera: no hay forma de saber qué reserva confirmar
+            log.warn("Actualización de stock sin cabecera {}; se descarta", LifecycleHeaders.ORDER_ID);
+            return;
+        }
+
+        UUID id;
+        try {
+            id = UUID.fromString(orderId.toString());
+        } catch (IllegalArgumentException e) {
+            throw new AmqpRejectAndDontRequeueException("ID de orden inválido: " + orderId, e);
+        }
+        try {
+            stockHoldUseCase.commitHold(id);
+        } catch (BusinessException e) {
+            // Reintentar no crea existencia: se registra para conciliar a mano
+            oversold.increment();
+            log.error("❌ {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.itm.edu.stock.infrastructure.perf;
+
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.stock.application.dto.IngredientResponse;
+import com.itm.edu.stock.application.ports.output.IngredientRepository;
+import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
+import com.itm.edu.stock.infrastructure.persistence.mapper.IngredientPersistenceMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Inventario de ingredientes en memoria para el perfil perf.
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryIngredientRepository implements IngredientRepository {
+    private final Map<UUID, IngredientDto> ingredients = new ConcurrentHashMap<>();
+    private final IngredientPersistenceMapper mapper;
+
+    @Override
+    public IngredientResponse save(IngredientDto ingredient) {
+        UUID id = ingredient.getId() != null ? ingredient.getId() : UUID.randomUUID();
+        IngredientDto[] previous = new IngredientDto[1];
+        // Lo apartado no se edita con el ingrediente, igual que la columna reserved
+        IngredientDto stored = ingredients.compute(id, (key, current) -> {
+            previous[0] = current;
+            return IngredientDto.builder()
+                    .id(id)
+                    .name(ingredient.getName())
+                    .description(ingredient.getDescription())
+                    .quantity(ingredient.getQuantity())
+                    .reserved(current == null ? BigDecimal.ZERO : current.getReserved())
+                    .unit(ingredient.getUnit())
+                    .price(ingredient.getPrice())
+                    .supplier(ingredient.getSupplier())
+                    .minimumStock(ingredient.getMinimumStock())
+                    .build();
+        });
+        InMemoryTransactionManager.onRollback(() -> restore(id, previous[0]));
+        return mapper.toResponse(stored);
+    }
+
+    @Override
+    public Optional<IngredientResponse> findById(UUID id) {
+        return Optional.ofNullable(ingredients.get(id)).map(mapper::toResponse);
+    }
+
+    @Override
+    public List<IngredientResponse> findAllById(Collection<UUID> ids) {
+        List<IngredientResponse> found = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            IngredientDto ingredient = ingredients.get(id);
+            if (ingredient != null) {
+                found.add(mapper.toResponse(ingredient));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<IngredientResponse> saveAll(Collection<IngredientDto> batch) {
+        return batch.stream()
+                .map(this::save)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<IngredientResponse> findAll() {
+        return ingredients.values().stream()
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        IngredientDto removed = ingredients.remove(id);
+        if (removed != null) {
+            InMemoryTransactionManager.onRollback(() -> ingredients.put(id, removed));
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return ingredients.containsKey(id);
+    }
+
+    @Override
+    public List<IngredientResponse> findBySupplier(String supplier) {
+        return ingredients.values().stream()
+                .filter(ingredient -> supplier.equals(ingredient.getSupplier()))
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<UUID> holdStock(Map<UUID, BigDecimal> quantities) {
+        List<UUID> failed = new ArrayList<>();
+        quantities.forEach((id, quantity) -> {
+            if (!adjust(id, BigDecimal.ZERO, quantity, true)) {
+                failed.add(id);
+            }
+        });
+        return failed;
+    }
+
+    @Override
+    public void commitHeldStock(Map<UUID, BigDecimal> quantities) {
+        quantities.forEach((id, quantity) -> adjust(id, quantity.negate(), quantity.negate(), false));
+    }
+
+    @Override
+    public void releaseHeldStock(Map<UUID, BigDecimal> quantities) {
+        quantities.forEach((id, quantity) -> adjust(id, BigDecimal.ZERO, quantity.negate(), false));
+    }
+
+    // Compare-and-set sobre el mapa, igual que los UPDATE de reserva; con checkAvailable solo
+    // aplica si el disponible alcanza para lo que se aparta
+    private boolean adjust(UUID id, BigDecimal quantityDelta, BigDecimal reservedDelta, boolean checkAvailable) {
+        while (true) {
+            IngredientDto current = ingredients.get(id);
+            if (current == null) {
+                return false;
+            }
+            BigDecimal reserved = current.getReserved() == null ? BigDecimal.ZERO : current.getReserved();
+            if (checkAvailable && current.getQuantity().subtract(reserved).compareTo(reservedDelta) < 0) {
+                return false;
+            }
+            IngredientDto adjusted = IngredientDto.builder()
+                    .id(current.getId())
+                    .name(current.getName())
+                    .description(current.getDescription())
+                    .quantity(current.getQuantity().add(quantityDelta))
+                    .reserved(reserved.add(reservedDelta))
+                    .unit(current.getUnit())
+                    .price(current.getPrice())
+                    .supplier(current.getSupplier())
+                    .minimumStock(current.getMinimumStock())
+                    .build();
+            if (ingredients.replace(id, current, adjusted)) {
+                InMemoryTransactionManager.onRollback(
+                    () -> adjust(id, quantityDelta.negate(), reservedDelta.negate(), false));
+                return true;
+            }
+        }
+    }
+
+    private void restore(UUID id, IngredientDto previous) {
+        if (previous != null) {
+            ingredients.put(id, previous);
+        } else {
+            ingredients.remove(id);
+        }
+    }
+}
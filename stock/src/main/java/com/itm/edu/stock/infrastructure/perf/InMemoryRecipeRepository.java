@@ -0,0 +1,92 @@
+package com.itm.edu.stock.infrastructure.perf;
+
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.stock.application.dto.RecipeResponse;
+import com.itm.edu.stock.application.ports.output.RecipeRepository;
+import com.itm.edu.stock.infrastructure.persistence.dto.RecipeDto;
+import com.itm.edu.stock.infrastructure.persistence.mapper.RecipeMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Recetas en memoria para el perfil perf. Los nombres de los ingredientes se
+ * resuelven al leer, igual que hace {@link RecipeMapper} con las filas de la base.
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryRecipeRepository implements RecipeRepository {
+    private final Map<UUID, RecipeDto> recipes = new ConcurrentHashMap<>();
+    private final RecipeMapper mapper;
+
+    @Override
+    public RecipeResponse save(RecipeDto recipe) {
+        RecipeDto stored = recipe.getId() != null ? recipe : recipe.toBuilder().id(UUID.randomUUID()).build();
+        RecipeDto previous = recipes.put(stored.getId(), stored);
+        InMemoryTransactionManager.onRollback(() -> restore(stored.getId(), previous));
+        return mapper.toResponse(stored);
+    }
+
+    @Override
+    public Optional<RecipeResponse> findById(UUID id) {
+        return Optional.ofNullable(recipes.get(id)).map(mapper::toResponse);
+    }
+
+    @Override
+    public List<RecipeResponse> findAllById(Collection<UUID> ids) {
+        List<RecipeResponse> found = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            RecipeDto recipe = recipes.get(id);
+            if (recipe != null) {
+                found.add(mapper.toResponse(recipe));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<RecipeResponse> findAll() {
+        return recipes.values().stream()
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        RecipeDto removed = recipes.remove(id);
+        if (removed != null) {
+            InMemoryTransactionManager.onRollback(() -> recipes.put(id, removed));
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return recipes.containsKey(id);
+    }
+
+    @Override
+    public List<RecipeResponse> findByDifficulty(String difficulty) {
+        return recipes.values().stream()
+                .filter(recipe -> difficulty.equals(recipe.getDifficulty()))
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void restore(UUID id, RecipeDto previous) {
+        if (previous != null) {
+            recipes.put(id, previous);
+        } else {
+            recipes.remove(id);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.itm.edu.stock.infrastructure.perf;
+
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas de stock en memoria para el perfil perf.
+ */
+@Component
+@Profile("perf")
+public class InMemoryStockHoldRepository implements StockHoldRepository {
+    private final Map<UUID, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<UUID, Hold> expired = new ConcurrentHashMap<>();
+    private final Map<UUID, Hold> committed = new ConcurrentHashMap<>();
+    private final Duration ttl;
+
+    public InMemoryStockHoldRepository(@Value("${stock.holds.ttl:PT5M}") Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Instant save(UUID orderId, Map<UUID, BigDecimal> quantities) {
+        Hold hold = new Hold(Map.copyOf(quantities), Instant.now().plus(ttl));
+        holds.put(orderId, hold);
+        InMemoryTransactionManager.onRollback(() -> holds.remove(orderId, hold));
+        return hold.expiresAt;
+    }
+
+    @Override
+    public Map<UUID, Map<UUID, BigDecimal>> commitByOrderIds(Collection<UUID> orderIds) {
+        Map<UUID, Map<UUID, BigDecimal>> taken = take(orderIds);
+        taken.keySet().forEach(orderId -> markCommitted(orderId, taken.get(orderId)));
+        return taken;
+    }
+
+    private Map<UUID, Map<UUID, BigDecimal>> take(Collection<UUID> orderIds) {
+        Map<UUID, Map<UUID, BigDecimal>> taken = new HashMap<>();
+        for (UUID orderId : orderIds) {
+            // remove es atómico: la confirmación y el vencimiento no se llevan la misma reserva
+            Hold hold = holds.remove(orderId);
+            if (hold != null) {
+                taken.put(orderId, hold.quantities);
+                InMemoryTransactionManager.onRollback(() -> holds.put(orderId, hold));
+            }
+        }
+        return taken;
+    }
+
+    @Override
+    public Map<UUID, Map<UUID, BigDecimal>> expireByOrderIds(Collection<UUID> orderIds) {
+        Map<UUID, Map<UUID, BigDecimal>> taken = take(orderIds);
+        taken.keySet().forEach(orderId -> {
+            Hold hold = new Hold(taken.get(orderId), Instant.now());
+            expired.put(orderId, hold);
+            InMemoryTransactionManager.onRollback(() -> expired.remove(orderId, hold));
+        });
+        return taken;
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> commitExpired(UUID orderId) {
+        Hold hold = expired.remove(orderId);
+        if (hold == null) {
+            return Map.of();
+        }
+        InMemoryTransactionManager.onRollback(() -> expired.put(orderId, hold));
+        markCommitted(orderId, hold.quantities);
+        return hold.quantities;
+    }
+
+    @Override
+    public int purgeExpired(Instant expiredBefore) {
+        int before = expired.size() + committed.size();
+        expired.values().removeIf(hold -> hold.expiresAt.isBefore(expiredBefore));
+        committed.values().removeIf(hold -> hold.expiresAt.isBefore(expiredBefore));
+        return before - expired.size() - committed.size();
+    }
+
+    @Override
+    public boolean existsForOrder(UUID orderId) {
+        return holds.containsKey(orderId) || expired.containsKey(orderId) || committed.containsKey(orderId);
+    }
+
+    @Override
+    public Map<UUID, Instant> findExpirations() {
+        return holds.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().expiresAt));
+    }
+
+    private void markCommitted(UUID orderId, Map<UUID, BigDecimal> quantities) {
+        Hold hold = new Hold(quantities, Instant.now());
+        committed.put(orderId, hold);
+        InMemoryTransactionManager.onRollback(() -> committed.remove(orderId, hold));
+    }
+
+    private static final class Hold {
+        private final Map<UUID, BigDecimal> quantities;
+        private final Instant expiresAt;
+
+        private Hold(Map<UUID, BigDecimal> quantities, Instant expiresAt) {
+            this.quantities = quantities;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.itm.edu.stock.infrastructure.perf;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.common.messaging.SmileMessageConverter;
+import com.itm.edu.common.messaging.WireFormat;
+import com.itm.edu.common.messaging.WireFormatMessageConverters;
+import com.itm.edu.common.perf.InJvmMessageBus;
+import com.itm.edu.common.perf.InMemoryTransactionManager;
+import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
+import com.itm.edu.stock.infrastructure.messaging.RabbitOrderConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Perfil perf: las órdenes entran por {@link PerfOrderController} y recorren el
+ * mismo consumidor y caso de uso que con RabbitMQ, pero sobre los repositorios en
+ * memoria y {@link InJvmMessageBus}. Las respuestas se cuentan en
+ * {@code stock.perf.responses} en lugar de viajar a órdenes.
+ */
+@Configuration
+@Profile("perf")
+public class PerfConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+
+    @Bean
+    public MessageConverter messageConverter(@Value("${stock.messaging.wire-format:json}") String wireFormat) {
+        return WireFormatMessageConverters.negotiating(
+            WireFormat.fromProperty(wireFormat), new Jackson2JsonMessageConverter(), new SmileMessageConverter());
+    }
+
+    @Bean
+    public InJvmMessageBus rabbitTemplate(MessageConverter messageConverter,
+                                          @Value("${stock.perf.bus.consumer-threads:4}") int consumerThreads) {
+        InJvmMessageBus bus = new InJvmMessageBus(messageConverter, consumerThreads);
+        bus.setExchange(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE);
+        bus.setRoutingKey(RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY);
+        return bus;
+    }
+
+    // Se suscribe al terminar de crear los singletons: el consumidor depende a su vez del bus
+    @Bean
+    public SmartInitializingSingleton inJvmBusSubscriptions(InJvmMessageBus bus,
+                                                            RabbitOrderConsumer orderConsumer,
+                                                            MeterRegistry meterRegistry) {
+        return () -> {
+            bus.subscribe(RabbitMQConfig.ORDER_EXCHANGE, RabbitMQConfig.ORDER_ROUTING_KEY, OrderMessageDTO.class,
+                orderConsumer::onOrderMessage);
+            bus.subscribe(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE, RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY,
+                StockUpdateResponseEvent.class, (response, message) ->
+                    meterRegistry.counter("stock.perf.responses", "status", String.valueOf(response.getStatus()))
+                        .increment());
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.itm.edu.stock.infrastructure.perf;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.perf.InJvmMessageBus;
+import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Punto de entrada del generador de carga en el perfil perf: publica la orden en
+ * el bus como lo haría el servicio de órdenes y responde sin esperar la validación.
+ */
+@RestController
+@Profile("perf")
+@RequestMapping("/perf/orders")
+@RequiredArgsConstructor
+public class PerfOrderController {
+
+    private final InJvmMessageBus bus;
+
+    @PostMapping
+    public ResponseEntity<Void> submit(@RequestBody OrderMessageDTO order) {
+        if (order.getOrderId() == null) {
+            order.setOrderId(UUID.randomUUID());
+        }
+        String correlationId = UUID.randomUUID().toString();
+        bus.convertAndSend(RabbitMQConfig.ORDER_EXCHANGE, RabbitMQConfig.ORDER_ROUTING_KEY, order, message -> {
+            message.getMessageProperties().setCorrelationId(correlationId);
+            return message;
+        });
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -6,18 +6,33 @@ import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
 import com.itm.edu.stock.infrastructure.persistence.repository.IngredientJpaRepository;
 import com.itm.edu.stock.infrastructure.persistence.mapper.IngredientPersistenceMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
+@Profile("!perf")
 public class IngredientRepositoryAdapter implements IngredientRepository {
     private final IngredientJpaRepository repository;
     private final IngredientPersistenceMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String HOLD_STOCK_SQL =
+            "UPDATE ingredients SET reserved = reserved + ? WHERE id = ? AND quantity - reserved >= ?";
+    private static final String COMMIT_HELD_STOCK_SQL =
+            "UPDATE ingredients SET quantity = quantity - ?, reserved = reserved - ? WHERE id = ?";
+    private static final String RELEASE_HELD_STOCK_SQL =
+            "UPDATE ingredients SET reserved = reserved - ? WHERE id = ?";
     
     @Override
     public IngredientResponse save(IngredientDto dto) {
@@ -33,6 +48,25 @@ public class IngredientRepositoryAdapter implements IngredientRepository {
                 .map(mapper::toResponse);
     }
     
+    @Override
+    public List<IngredientResponse> findAllById(Collection<UUID> ids) {
+        return repository.findAllById(ids).stream()
+                .map(mapper::toDto)
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<IngredientResponse> saveAll(Collection<IngredientDto> ingredients) {
+        var entities = ingredients.stream()
+                .map(mapper::toEntity)
+                .collect(Collectors.toList());
+        return repository.saveAll(entities).stream()
+                .map(mapper::toDto)
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<IngredientResponse> findAll() {
         return repository.findAll().stream()
@@ -57,4 +91,50 @@ public class IngredientRepositoryAdapter implements IngredientRepository {
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+
+    @Override
+    public List<UUID> holdStock(Map<UUID, BigDecimal> quantities) {
+        List<Map.Entry<UUID, BigDecimal>> lines = sortedById(quantities);
+
+        // Todos los ingredientes de la orden viajan en un solo lote JDBC
+        int[][] updated = jdbcTemplate.batchUpdate(HOLD_STOCK_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setBigDecimal(1, line.getValue());
+            ps.setObject(2, line.getKey());
+            ps.setBigDecimal(3, line.getValue());
+        });
+
+        List<UUID> failed = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (updated[0][i] == 0) {
+                failed.add(lines.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void commitHeldStock(Map<UUID, BigDecimal> quantities) {
+        List<Map.Entry<UUID, BigDecimal>> lines = sortedById(quantities);
+        jdbcTemplate.batchUpdate(COMMIT_HELD_STOCK_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setBigDecimal(1, line.getValue());
+            ps.setBigDecimal(2, line.getValue());
+            ps.setObject(3, line.getKey());
+        });
+    }
+
+    @Override
+    public void releaseHeldStock(Map<UUID, BigDecimal> quantities) {
+        List<Map.Entry<UUID, BigDecimal>> lines = sortedById(quantities);
+        jdbcTemplate.batchUpdate(RELEASE_HELD_STOCK_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setBigDecimal(1, line.getValue());
+            ps.setObject(2, line.getKey());
+        });
+    }
+
+    // Orden canónico por ID: consumidores concurrentes bloquean las filas en el mismo orden y no se interbloquean
+    private static List<Map.Entry<UUID, BigDecimal>> sortedById(Map<UUID, BigDecimal> quantities) {
+        List<Map.Entry<UUID, BigDecimal>> lines = new ArrayList<>(quantities.entrySet());
+        lines.sort(Map.Entry.comparingByKey());
+        return lines;
+    }
+}
\ No newline at end of file
@@ -6,8 +6,10 @@ import com.itm.edu.stock.infrastructure.persistence.dto.RecipeDto;
 import com.itm.edu.stock.infrastructure.persistence.mapper.RecipeMapper;
 import com.itm.edu.stock.infrastructure.persistence.repository.RecipeJpaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
+@Profile("!perf")
 public class RecipeRepositoryAdapter implements RecipeRepository {
     private final RecipeJpaRepository jpaRepository;
     private final RecipeMapper mapper;
@@ -41,6 +44,14 @@ public class RecipeRepositoryAdapter implements RecipeRepository {
                 .map(mapper::toResponse);
     }
 
+    @Override
+    public List<RecipeResponse> findAllById(Collection<UUID> ids) {
+        return jpaRepository.findAllWithIngredientsByIdIn(ids).stream()
+                .map(mapper::toDto)
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<RecipeResponse> findAll() {
         return jpaRepository.findAll().stream()
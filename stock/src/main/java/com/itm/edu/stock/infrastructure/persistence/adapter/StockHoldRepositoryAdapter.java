@@ -0,0 +1,107 @@
+package com.itm.edu.stock.infrastructure.persistence.adapter;
+
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
+import com.itm.edu.stock.infrastructure.persistence.entity.StockHoldJpaEntity;
+import com.itm.edu.stock.infrastructure.persistence.repository.StockHoldJpaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("!perf")
+public class StockHoldRepositoryAdapter implements StockHoldRepository {
+    private final StockHoldJpaRepository repository;
+    private final Duration ttl;
+
+    public StockHoldRepositoryAdapter(StockHoldJpaRepository repository,
+                                      @Value("${stock.holds.ttl:PT5M}") Duration ttl) {
+        this.repository = repository;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Instant save(UUID orderId, Map<UUID, BigDecimal> quantities) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        // IDs asignados aquí: las filas de la orden se insertan en un solo batch JDBC
+        List<StockHoldJpaEntity> holds = quantities.entrySet().stream()
+                .map(line -> StockHoldJpaEntity.builder()
+                        .id(UUID.randomUUID())
+                        .orderId(orderId)
+                        .ingredientId(line.getKey())
+                        .quantity(line.getValue())
+                        .expiresAt(expiresAt)
+                        .build())
+                .collect(Collectors.toList());
+        repository.saveAll(holds);
+        return expiresAt;
+    }
+
+    @Override
+    public Map<UUID, Map<UUID, BigDecimal>> commitByOrderIds(Collection<UUID> orderIds) {
+        List<StockHoldJpaEntity> holds = repository.findByOrderIdInAndExpiredFalseAndCommittedFalse(orderIds);
+        if (holds.isEmpty()) {
+            return Map.of();
+        }
+        repository.markCommitted(ids(holds));
+        return byOrder(holds);
+    }
+
+    @Override
+    public Map<UUID, Map<UUID, BigDecimal>> expireByOrderIds(Collection<UUID> orderIds) {
+        List<StockHoldJpaEntity> holds = repository.findByOrderIdInAndExpiredFalseAndCommittedFalse(orderIds);
+        if (holds.isEmpty()) {
+            return Map.of();
+        }
+        repository.markExpired(ids(holds));
+        return byOrder(holds);
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> commitExpired(UUID orderId) {
+        List<StockHoldJpaEntity> holds = repository.findByOrderIdAndExpiredTrueAndCommittedFalse(orderId);
+        if (holds.isEmpty()) {
+            return Map.of();
+        }
+        repository.markCommitted(ids(holds));
+        return byOrder(holds).get(orderId);
+    }
+
+    @Override
+    public int purgeExpired(Instant expiredBefore) {
+        return repository.deleteSettledBefore(expiredBefore);
+    }
+
+    @Override
+    public boolean existsForOrder(UUID orderId) {
+        return repository.existsByOrderId(orderId);
+    }
+
+    @Override
+    public Map<UUID, Instant> findExpirations() {
+        return repository.findExpirationsByOrder().stream()
+                .collect(Collectors.toMap(row -> (UUID) row[0], row -> (Instant) row[1]));
+    }
+
+    private static List<UUID> ids(List<StockHoldJpaEntity> holds) {
+        return holds.stream().map(StockHoldJpaEntity::getId).collect(Collectors.toList());
+    }
+
+    private static Map<UUID, Map<UUID, BigDecimal>> byOrder(List<StockHoldJpaEntity> holds) {
+        Map<UUID, Map<UUID, BigDecimal>> byOrder = new HashMap<>();
+        for (StockHoldJpaEntity hold : holds) {
+            byOrder.computeIfAbsent(hold.getOrderId(), id -> new HashMap<>())
+                    .merge(hold.getIngredientId(), hold.getQuantity(), BigDecimal::add);
+        }
+        return byOrder;
+    }
+}
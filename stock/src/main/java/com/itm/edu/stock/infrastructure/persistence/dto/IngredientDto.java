@@ -12,6 +12,7 @@ public class IngredientDto {
     String name;
     String description;
     BigDecimal quantity;
+    BigDecimal reserved;
     String unit;
     BigDecimal price;
     String supplier;
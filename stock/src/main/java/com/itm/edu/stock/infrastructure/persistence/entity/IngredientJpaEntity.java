@@ -3,6 +3,7 @@ package com.itm.edu.stock.infrastructure.persistence.entity;
 import com.itm.edu.stock.domain.entities.Ingredient;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -20,6 +21,10 @@ public class IngredientJpaEntity {
     private String name;
     private String description;
     private BigDecimal quantity;
+    // Cantidad apartada por reservas activas; solo la cambian las sentencias de reserva
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private BigDecimal reserved;
     private String unit;
     private BigDecimal price;
     private String supplier;
@@ -0,0 +1,21 @@
+package com.itm.edu.stock.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Última secuencia del diario de inventario ya escrita en {@code ingredients}.
+ * Se actualiza en la misma transacción que los movimientos que cubre.
+ */
+@Entity
+@Table(name = "inventory_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckpointJpaEntity {
+    @Id
+    private String id;
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+}
@@ -0,0 +1,42 @@
+package com.itm.edu.stock.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Cantidad de un ingrediente apartada para una orden hasta {@code expiresAt}. Al
+ * vencer, el reaper devuelve lo apartado y deja la fila marcada como vencida por si
+ * la confirmación de la orden llega después. Al confirmarse, la fila queda marcada
+ * como confirmada para reconocer una orden entregada de nuevo; el reaper borra las
+ * vencidas y las confirmadas pasado el tiempo de retención.
+ */
+@Entity
+@Table(name = "stock_holds", indexes = @Index(name = "idx_stock_holds_order_id", columnList = "order_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldJpaEntity {
+    @Id
+    private UUID id;
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+    @Column(name = "ingredient_id", nullable = false)
+    private UUID ingredientId;
+    @Column(nullable = false)
+    private BigDecimal quantity;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean expired;
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean committed;
+}
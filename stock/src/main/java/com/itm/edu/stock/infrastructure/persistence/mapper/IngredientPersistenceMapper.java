@@ -20,6 +20,7 @@ public class IngredientPersistenceMapper {
                 .name(entity.getName())
                 .description(entity.getDescription())
                 .quantity(entity.getQuantity())
+                .reserved(entity.getReserved())
                 .unit(entity.getUnit())
                 .price(entity.getPrice())
                 .supplier(entity.getSupplier())
@@ -52,6 +53,7 @@ public class IngredientPersistenceMapper {
             .name(dto.getName())
             .description(dto.getDescription())
             .quantity(dto.getQuantity())
+            .reserved(dto.getReserved())
             .unit(dto.getUnit())
             .supplier(dto.getSupplier())
             .minimumStock(dto.getMinimumStock())
@@ -2,10 +2,20 @@ package com.itm.edu.stock.infrastructure.persistence.repository;
 
 import com.itm.edu.stock.infrastructure.persistence.base.BaseJpaRepository;
 import com.itm.edu.stock.infrastructure.persistence.entity.RecipeJpaEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface RecipeJpaRepository extends BaseJpaRepository<RecipeJpaEntity> {
     List<RecipeJpaEntity> findByDifficulty(String difficulty);
+
+    // Trae las recetas con sus ingredientes en una sola consulta
+    @Query("select distinct r from RecipeJpaEntity r "
+            + "left join fetch r.recipeIngredients ri left join fetch ri.ingredient "
+            + "where r.id in :ids")
+    List<RecipeJpaEntity> findAllWithIngredientsByIdIn(@Param("ids") Collection<UUID> ids);
 } 
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.itm.edu.stock.infrastructure.persistence.repository;
+
+import com.itm.edu.stock.infrastructure.persistence.entity.StockHoldJpaEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockHoldJpaRepository extends JpaRepository<StockHoldJpaEntity, UUID> {
+
+    // FOR UPDATE: si la confirmación y el reaper compiten por una reserva, el segundo ya no la encuentra
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockHoldJpaEntity> findByOrderIdInAndExpiredFalseAndCommittedFalse(Collection<UUID> orderIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockHoldJpaEntity> findByOrderIdAndExpiredTrueAndCommittedFalse(UUID orderId);
+
+    boolean existsByOrderId(UUID orderId);
+
+    @Modifying
+    @Query("update StockHoldJpaEntity h set h.expired = true where h.id in :ids")
+    int markExpired(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update StockHoldJpaEntity h set h.committed = true where h.id in :ids")
+    int markCommitted(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from StockHoldJpaEntity h where (h.expired = true or h.committed = true) and h.expiresAt < :before")
+    int deleteSettledBefore(@Param("before") Instant before);
+
+    @Query("select h.orderId, min(h.expiresAt) from StockHoldJpaEntity h "
+            + "where h.expired = false and h.committed = false group by h.orderId")
+    List<Object[]> findExpirationsByOrder();
+}
@@ -0,0 +1,221 @@
+package com.itm.edu.stock.application.services;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.ProductOrderDTO;
+import com.itm.edu.common.dto.events.StockValidationStatus;
+import com.itm.edu.stock.application.dto.IngredientResponse;
+import com.itm.edu.stock.application.dto.RecipeIngredientResponse;
+import com.itm.edu.stock.application.dto.RecipeResponse;
+import com.itm.edu.stock.application.ports.output.HoldExpiryScheduler;
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
+import com.itm.edu.stock.application.ports.output.IngredientRepository;
+import com.itm.edu.stock.application.ports.output.RecipeRepository;
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
+import com.itm.edu.stock.domain.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessOrderServiceTest {
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private IngredientLocks ingredientLocks;
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private HoldExpiryScheduler holdExpiryScheduler;
+
+    @InjectMocks
+    private ProcessOrderService processOrderService;
+
+    private final UUID flourId = UUID.randomUUID();
+    private final UUID oilId = UUID.randomUUID();
+
+    @Test
+    void shouldLoadEverythingOnceAndHoldInOneWrite() {
+        // Arrange
+        RecipeResponse bread = recipe(line(flourId, "2"), line(oilId, "1"));
+        RecipeResponse pizza = recipe(line(flourId, "3"));
+        OrderMessageDTO order = order(product(bread, 2), product(pizza, 1));
+        Instant expiresAt = Instant.now().plusSeconds(300);
+        when(recipeRepository.findAllById(anyCollection())).thenReturn(List.of(bread, pizza));
+        when(ingredientRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(ingredient(flourId, "20"), ingredient(oilId, "5")));
+        when(stockHoldRepository.save(eq(order.getOrderId()), any())).thenReturn(expiresAt);
+
+        // Act
+        StockValidationStatus status = processOrderService.processOrder(order);
+
+        // Assert
+        InOrder inOrder = inOrder(ingredientLocks, ingredientRepository);
+        inOrder.verify(ingredientLocks).lockUntilCompletion(Set.of(flourId, oilId));
+        inOrder.verify(ingredientRepository).findAllById(anyCollection());
+        verify(recipeRepository, times(1)).findAllById(anyCollection());
+        verify(ingredientRepository, times(1)).findAllById(anyCollection());
+        verify(ingredientRepository, never()).findById(any());
+        verify(ingredientRepository, never()).save(any());
+        verify(ingredientRepository, never()).saveAll(any());
+        Map<UUID, BigDecimal> holds = heldQuantities();
+        assertEquals(0, new BigDecimal("7").compareTo(holds.get(flourId)));
+        assertEquals(0, new BigDecimal("2").compareTo(holds.get(oilId)));
+        verify(stockHoldRepository).save(order.getOrderId(), holds);
+        verify(holdExpiryScheduler).schedule(order.getOrderId(), expiresAt);
+        assertEquals(StockValidationStatus.RESERVED, status);
+    }
+
+    @Test
+    void shouldRejectWhenSharedIngredientIsShortAcrossProducts() {
+        // Arrange: cada producto cabe por separado, pero juntos piden 8 de 6
+        RecipeResponse bread = recipe(line(flourId, "4"));
+        RecipeResponse pizza = recipe(line(flourId, "4"));
+        when(recipeRepository.findAllById(anyCollection())).thenReturn(List.of(bread, pizza));
+        when(ingredientRepository.findAllById(anyCollection())).thenReturn(List.of(ingredient(flourId, "6")));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> processOrderService.processOrder(order(product(bread, 1), product(pizza, 1))));
+        assertTrue(exception.getMessage().contains("Requerido: 8"));
+        verify(ingredientRepository, never()).holdStock(any());
+    }
+
+    @Test
+    void shouldNotPromiseQuantityHeldByOtherOrders() {
+        // Arrange: hay 10 en existencia, pero 7 están apartados por otras órdenes
+        RecipeResponse bread = recipe(line(flourId, "4"));
+        when(recipeRepository.findAllById(anyCollection())).thenReturn(List.of(bread));
+        when(ingredientRepository.findAllById(anyCollection())).thenReturn(List.of(IngredientResponse.builder()
+                .id(flourId)
+                .name("Harina")
+                .quantity(new BigDecimal("10"))
+                .reserved(new BigDecimal("7"))
+                .unit("kg")
+                .build()));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> processOrderService.processOrder(order(product(bread, 1))));
+        assertTrue(exception.getMessage().contains("Disponible: 3"));
+        verify(ingredientRepository, never()).holdStock(any());
+        verify(stockHoldRepository, never()).save(any(), any());
+        verifyNoInteractions(holdExpiryScheduler);
+    }
+
+    @Test
+    void shouldRejectWhenConcurrentConsumerTookTheStockFirst() {
+        // Arrange
+        RecipeResponse bread = recipe(line(flourId, "2"));
+        when(recipeRepository.findAllById(anyCollection())).thenReturn(List.of(bread));
+        when(ingredientRepository.findAllById(anyCollection())).thenReturn(List.of(ingredient(flourId, "10")));
+        when(ingredientRepository.holdStock(any())).thenReturn(List.of(flourId));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> processOrderService.processOrder(order(product(bread, 1))));
+        assertEquals("Stock insuficiente para el ingrediente: Ingrediente " + flourId, exception.getMessage());
+        verify(stockHoldRepository, never()).save(any(), any());
+        verifyNoInteractions(holdExpiryScheduler);
+    }
+
+    @Test
+    void shouldAnswerRedeliveredOrderWithoutHoldingAgain() {
+        // Arrange: la orden ya se apartó, pero su respuesta no alcanzó a confirmarse
+        RecipeResponse bread = recipe(line(flourId, "2"));
+        OrderMessageDTO order = order(product(bread, 1));
+        when(recipeRepository.findAllById(anyCollection())).thenReturn(List.of(bread));
+        when(stockHoldRepository.existsForOrder(order.getOrderId())).thenReturn(true);
+
+        // Act
+        StockValidationStatus status = processOrderService.processOrder(order);
+
+        // Assert
+        assertEquals(StockValidationStatus.RESERVED, status);
+        verify(ingredientLocks).lockUntilCompletion(Set.of(flourId));
+        verifyNoInteractions(ingredientRepository, holdExpiryScheduler);
+        verify(stockHoldRepository, never()).save(any(), any());
+    }
+
+    @Test
+    void shouldCancelWithoutTouchingStockWhenRecipeIsMissing() {
+        // Arrange
+        RecipeResponse bread = recipe(line(flourId, "1"));
+        when(recipeRepository.findAllById(anyCollection())).thenReturn(List.of(bread));
+
+        // Act
+        StockValidationStatus status = processOrderService.processOrder(order(product(bread, 1),
+                ProductOrderDTO.builder().productId(UUID.randomUUID()).quantity(1).build()));
+
+        // Assert
+        assertEquals(StockValidationStatus.CANCELLED_NO_STOCK, status);
+        verifyNoInteractions(ingredientRepository, stockHoldRepository, holdExpiryScheduler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, BigDecimal> heldQuantities() {
+        ArgumentCaptor<Map<UUID, BigDecimal>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(ingredientRepository).holdStock(captor.capture());
+        return captor.getValue();
+    }
+
+    private OrderMessageDTO order(ProductOrderDTO... products) {
+        return OrderMessageDTO.builder()
+                .orderId(UUID.randomUUID())
+                .products(List.of(products))
+                .build();
+    }
+
+    private ProductOrderDTO product(RecipeResponse recipe, int quantity) {
+        return ProductOrderDTO.builder().productId(recipe.getId()).quantity(quantity).build();
+    }
+
+    private RecipeResponse recipe(RecipeIngredientResponse... lines) {
+        return RecipeResponse.builder()
+                .id(UUID.randomUUID())
+                .name("Receta")
+                .ingredients(List.of(lines))
+                .build();
+    }
+
+    private RecipeIngredientResponse line(UUID ingredientId, String quantity) {
+        return RecipeIngredientResponse.builder()
+                .ingredientId(ingredientId)
+                .ingredientName("Ingrediente")
+                .quantity(new BigDecimal(quantity))
+                .unit("kg")
+                .build();
+    }
+
+    private IngredientResponse ingredient(UUID id, String quantity) {
+        return IngredientResponse.builder()
+                .id(id)
+                .name("Ingrediente " + id)
+                .quantity(new BigDecimal(quantity))
+                .unit("kg")
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.itm.edu.stock.application.services;
+
+import com.itm.edu.stock.application.ports.input.StockHoldUseCase.CommitResult;
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
+import com.itm.edu.stock.application.ports.output.IngredientRepository;
+import com.itm.edu.stock.application.ports.output.StockHoldRepository;
+import com.itm.edu.stock.domain.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockHoldServiceTest {
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private IngredientLocks ingredientLocks;
+
+    @InjectMocks
+    private StockHoldService stockHoldService;
+
+    private final UUID flourId = UUID.randomUUID();
+    private final UUID oilId = UUID.randomUUID();
+
+    @Test
+    void commitHoldShouldMoveHeldQuantitiesOutOfStock() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        Map<UUID, BigDecimal> held = Map.of(flourId, new BigDecimal("7"));
+        when(stockHoldRepository.commitByOrderIds(List.of(orderId))).thenReturn(Map.of(orderId, held));
+
+        // Act
+        CommitResult result = stockHoldService.commitHold(orderId);
+
+        // Assert
+        assertEquals(CommitResult.COMMITTED, result);
+        verify(ingredientRepository).commitHeldStock(held);
+        verify(stockHoldRepository, never()).commitExpired(any());
+    }
+
+    @Test
+    void commitHoldShouldDeductExpiredHoldWhenStockIsStillAvailable() {
+        // Arrange: el reaper liberó la reserva antes de que llegara la confirmación
+        UUID orderId = UUID.randomUUID();
+        Map<UUID, BigDecimal> expired = Map.of(flourId, new BigDecimal("7"), oilId, BigDecimal.ONE);
+        when(stockHoldRepository.commitByOrderIds(List.of(orderId))).thenReturn(Map.of());
+        when(stockHoldRepository.commitExpired(orderId)).thenReturn(expired);
+        when(ingredientRepository.holdStock(expired)).thenReturn(List.of());
+
+        // Act
+        CommitResult result = stockHoldService.commitHold(orderId);
+
+        // Assert
+        assertEquals(CommitResult.COMMITTED_AFTER_EXPIRY, result);
+        InOrder inOrder = inOrder(ingredientLocks, ingredientRepository);
+        inOrder.verify(ingredientLocks).lockUntilCompletion(expired.keySet());
+        inOrder.verify(ingredientRepository).holdStock(expired);
+        inOrder.verify(ingredientRepository).commitHeldStock(expired);
+    }
+
+    @Test
+    void commitHoldShouldSignalOversellWhenExpiredHoldNoLongerFits() {
+        // Arrange: otra orden tomó la harina que liberó el reaper
+        UUID orderId = UUID.randomUUID();
+        Map<UUID, BigDecimal> expired = Map.of(flourId, new BigDecimal("7"), oilId, BigDecimal.ONE);
+        when(stockHoldRepository.commitByOrderIds(List.of(orderId))).thenReturn(Map.of());
+        when(stockHoldRepository.commitExpired(orderId)).thenReturn(expired);
+        when(ingredientRepository.holdStock(expired)).thenReturn(List.of(flourId));
+
+        // Act & Assert: la excepción revierte lo apartado y conserva la reserva vencida
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> stockHoldService.commitHold(orderId));
+        assertTrue(exception.getMessage().contains(orderId.toString()));
+        verify(ingredientRepository, never()).commitHeldStock(any());
+    }
+
+    @Test
+    void commitHoldShouldDoNothingWhenHoldAlreadyCommitted() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(stockHoldRepository.commitByOrderIds(List.of(orderId))).thenReturn(Map.of());
+        when(stockHoldRepository.commitExpired(orderId)).thenReturn(Map.of());
+
+        // Act
+        CommitResult result = stockHoldService.commitHold(orderId);
+
+        // Assert
+        assertEquals(CommitResult.NOT_FOUND, result);
+        verifyNoInteractions(ingredientRepository);
+    }
+
+    @Test
+    void releaseHoldsShouldReleaseAllOrdersWithOneWritePerIngredient() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID alreadyCommitted = UUID.randomUUID();
+        List<UUID> expired = List.of(first, second, alreadyCommitted);
+        when(stockHoldRepository.expireByOrderIds(expired)).thenReturn(Map.of(
+                first, Map.of(flourId, new BigDecimal("2"), oilId, BigDecimal.ONE),
+                second, Map.of(flourId, new BigDecimal("3"))));
+
+        // Act
+        int released = stockHoldService.releaseHolds(expired);
+
+        // Assert
+        assertEquals(2, released);
+        verify(stockHoldRepository, never()).commitByOrderIds(any());
+        verify(ingredientRepository, times(1)).releaseHeldStock(any());
+        verify(ingredientRepository).releaseHeldStock(Map.of(flourId, new BigDecimal("5"), oilId, BigDecimal.ONE));
+    }
+
+    @Test
+    void purgeExpiredHoldsShouldDelegateToRepository() {
+        // Arrange
+        Instant cutoff = Instant.now();
+        when(stockHoldRepository.purgeExpired(cutoff)).thenReturn(3);
+
+        // Act
+        int purged = stockHoldService.purgeExpiredHolds(cutoff);
+
+        // Assert
+        assertEquals(3, purged);
+    }
+}
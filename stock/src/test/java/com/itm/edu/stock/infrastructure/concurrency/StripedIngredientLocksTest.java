@@ -0,0 +1,115 @@
+package com.itm.edu.stock.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedIngredientLocksTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StripedIngredientLocks locks;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        locks = new StripedIngredientLocks(16, meterRegistry);
+    }
+
+    @Test
+    void shouldSerializeOrdersSharingAnIngredientUntilTransactionCompletes() throws Exception {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            locks.lockUntilCompletion(List.of(flour));
+            firstLocked.countDown();
+            await(releaseFirst);
+        }));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                inTransaction(() -> locks.lockUntilCompletion(List.of(flour))));
+        Thread.sleep(100);
+        boolean waitedForFirst = !second.isDone();
+        releaseFirst.countDown();
+
+        // Assert
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(waitedForFirst);
+        assertEquals(1.0, meterRegistry.counter("stock.ingredient.lock.contention",
+                "stripe", String.valueOf(locks.stripeOf(flour))).count());
+    }
+
+    @Test
+    void shouldLetOrdersOnDisjointStripesProceedInParallel() throws Exception {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+        UUID oil = idOnAnotherStripe(flour);
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            locks.lockUntilCompletion(List.of(flour));
+            firstLocked.countDown();
+            await(releaseFirst);
+        }));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                inTransaction(() -> locks.lockUntilCompletion(List.of(oil))));
+
+        // Assert
+        second.get(5, TimeUnit.SECONDS);
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0.0, meterRegistry.find("stock.ingredient.lock.contention").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void shouldRequireActiveTransaction() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilCompletion(List.of(UUID.randomUUID())));
+    }
+
+    private UUID idOnAnotherStripe(UUID id) {
+        UUID other = UUID.randomUUID();
+        while (locks.stripeOf(other) == locks.stripeOf(id)) {
+            other = UUID.randomUUID();
+        }
+        return other;
+    }
+
+    // Simula el ciclo de una transacción: al terminar se disparan los afterCompletion registrados
+    private void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.itm.edu.stock.infrastructure.config;
 
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.ProductOrderDTO;
+import com.itm.edu.common.messaging.WireFormat;
+import com.itm.edu.common.messaging.WireFormatMessageConverters;
 import org.junit.jupiter.api.Test;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -10,6 +14,10 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -112,7 +120,7 @@ class RabbitMQConfigTest {
     @Test
     void rabbitTemplate_ShouldConfigureTemplate() {
         // Arrange
-        MessageConverter converter = rabbitMQConfig.jsonMessageConverter();
+        MessageConverter converter = rabbitMQConfig.messageConverter("json");
 
         // Act
         RabbitTemplate template = rabbitMQConfig.rabbitTemplate(connectionFactory, converter);
@@ -127,13 +135,40 @@ class RabbitMQConfigTest {
     @Test
     void rabbitListenerContainerFactory_ShouldConfigureFactory() {
         // Arrange
-        MessageConverter converter = rabbitMQConfig.jsonMessageConverter();
+        MessageConverter converter = rabbitMQConfig.messageConverter("json");
 
         // Act
         SimpleRabbitListenerContainerFactory factory = rabbitMQConfig.rabbitListenerContainerFactory(
-            connectionFactory, converter);
+            connectionFactory, converter, 4, 8, 10);
 
         // Assert
         assertNotNull(factory);
+        assertEquals(4, ReflectionTestUtils.getField(factory, "concurrentConsumers"));
+        assertEquals(8, ReflectionTestUtils.getField(factory, "maxConcurrentConsumers"));
+    }
+
+    @Test
+    void messageConverter_ShouldReadJsonAndSmileDuringRollout() {
+        // Arrange
+        OrderMessageDTO order = OrderMessageDTO.builder()
+            .orderId(UUID.randomUUID())
+            .products(List.of(new ProductOrderDTO(UUID.randomUUID(), 2)))
+            .build();
+        MessageConverter jsonPublisher = rabbitMQConfig.messageConverter("json");
+        MessageConverter smilePublisher = WireFormatMessageConverters.negotiating(WireFormat.SMILE_V1,
+            rabbitMQConfig.jsonMessageConverter(), rabbitMQConfig.smileMessageConverter());
+        Message json = jsonPublisher.toMessage(order, new MessageProperties());
+        Message smile = smilePublisher.toMessage(order, new MessageProperties());
+
+        // Act
+        Object fromJson = smilePublisher.fromMessage(json);
+        Object fromSmile = jsonPublisher.fromMessage(smile);
+
+        // Assert
+        assertEquals(WireFormat.JSON.getContentType(), json.getMessageProperties().getContentType());
+        assertEquals(WireFormat.SMILE_V1.getContentType(), smile.getMessageProperties().getContentType());
+        assertTrue(smile.getBody().length < json.getBody().length);
+        assertEquals(order, fromJson);
+        assertEquals(order, fromSmile);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.itm.edu.stock.infrastructure.holds;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldExpiryWheelTest {
+
+    @Test
+    void advanceShouldReturnOnlyExpiredOrders() {
+        // Arrange
+        HoldExpiryWheel wheel = new HoldExpiryWheel(100, 8, 0);
+        UUID soon = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        wheel.schedule(soon, 250);
+        wheel.schedule(later, 600);
+
+        // Act
+        List<UUID> beforeExpiry = wheel.advance(200);
+        List<UUID> afterFirst = wheel.advance(300);
+        List<UUID> afterSecond = wheel.advance(650);
+
+        // Assert
+        assertTrue(beforeExpiry.isEmpty());
+        assertEquals(List.of(soon), afterFirst);
+        assertEquals(List.of(later), afterSecond);
+    }
+
+    @Test
+    void holdsBeyondOneTurnShouldWaitForTheirRound() {
+        // Arrange: una vuelta son 800 ms
+        HoldExpiryWheel wheel = new HoldExpiryWheel(100, 8, 0);
+        UUID farAway = UUID.randomUUID();
+        wheel.schedule(farAway, 1_050);
+
+        // Act
+        List<UUID> firstTurn = wheel.advance(800);
+        List<UUID> secondTurn = wheel.advance(1_100);
+
+        // Assert
+        assertTrue(firstTurn.isEmpty());
+        assertEquals(List.of(farAway), secondTurn);
+    }
+
+    @Test
+    void alreadyExpiredHoldShouldComeOutOnNextAdvance() {
+        // Arrange
+        HoldExpiryWheel wheel = new HoldExpiryWheel(100, 8, 0);
+        wheel.advance(500);
+        UUID late = UUID.randomUUID();
+        wheel.schedule(late, 100);
+
+        // Act
+        List<UUID> expired = wheel.advance(600);
+
+        // Assert
+        assertEquals(List.of(late), expired);
+    }
+
+    @Test
+    void longPauseShouldSweepEveryOverdueSlotOnce() {
+        // Arrange
+        HoldExpiryWheel wheel = new HoldExpiryWheel(100, 8, 0);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        wheel.schedule(first, 150);
+        wheel.schedule(second, 700);
+
+        // Act
+        List<UUID> expired = wheel.advance(5_000);
+
+        // Assert
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of(first, second)));
+        assertTrue(wheel.advance(6_000).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import com.itm.edu.stock.application.dto.IngredientResponse;
+import com.itm.edu.stock.application.ports.output.IngredientLocks;
+import com.itm.edu.stock.infrastructure.persistence.adapter.IngredientRepositoryAdapter;
+import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryEngineIngredientRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private IngredientRepositoryAdapter delegate;
+
+    @Mock
+    private IngredientLocks ingredientLocks;
+
+    private InventoryEngine engine;
+    private InventoryEngineIngredientRepository repository;
+    private final UUID flourId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        engine = new InventoryEngine(16, 2, tempDir.resolve("journal.log"));
+        engine.load(flourId, BigDecimal.TEN, BigDecimal.ZERO);
+        repository = new InventoryEngineIngredientRepository(delegate, engine, ingredientLocks);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        engine.close();
+    }
+
+    @Test
+    void saveShouldLockStripeAndSetQuantityOnlyAfterCommit() {
+        // Arrange
+        IngredientDto edit = IngredientDto.builder().id(flourId).name("Harina").quantity(new BigDecimal("4")).build();
+        when(delegate.save(edit)).thenReturn(response(new BigDecimal("4")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        repository.save(edit);
+        BigDecimal beforeCommit = engine.quantityOf(flourId);
+        complete(true);
+
+        // Assert
+        InOrder inOrder = inOrder(ingredientLocks, delegate);
+        inOrder.verify(ingredientLocks).lockUntilCompletion(List.of(flourId));
+        inOrder.verify(delegate).save(edit);
+        assertEquals(0, BigDecimal.TEN.compareTo(beforeCommit));
+        assertEquals(0, new BigDecimal("4").compareTo(engine.quantityOf(flourId)));
+    }
+
+    @Test
+    void saveShouldLeaveEngineUntouchedWhenTransactionRollsBack() {
+        // Arrange: por ejemplo, el nombre choca con la restricción única al hacer flush
+        IngredientDto edit = IngredientDto.builder().id(flourId).name("Harina").quantity(new BigDecimal("4")).build();
+        when(delegate.save(edit)).thenReturn(response(new BigDecimal("4")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        repository.save(edit);
+        complete(false);
+
+        // Assert
+        assertEquals(0, BigDecimal.TEN.compareTo(engine.quantityOf(flourId)));
+        assertEquals(0, engine.pendingCount());
+    }
+
+    private IngredientResponse response(BigDecimal quantity) {
+        return IngredientResponse.builder().id(flourId).name("Harina").quantity(quantity).unit("kg").build();
+    }
+
+    private void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
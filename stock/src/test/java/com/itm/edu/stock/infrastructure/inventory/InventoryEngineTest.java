@@ -0,0 +1,157 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InventoryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new InventoryEngine(16, 2, tempDir.resolve("journal.log"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void holdShouldSetAsideAllLinesAndQueueMovements() {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+        UUID cheese = UUID.randomUUID();
+        engine.load(flour, new BigDecimal("10"), BigDecimal.ZERO);
+        engine.load(cheese, new BigDecimal("2.5"), BigDecimal.ZERO);
+
+        // Act
+        List<UUID> failed = engine.hold(Map.of(flour, new BigDecimal("3.25"), cheese, new BigDecimal("2.5")));
+
+        // Assert
+        assertTrue(failed.isEmpty());
+        assertEquals(0, BigDecimal.TEN.compareTo(engine.quantityOf(flour)));
+        assertEquals(0, new BigDecimal("3.25").compareTo(engine.reservedOf(flour)));
+        assertEquals(0, new BigDecimal("2.5").compareTo(engine.reservedOf(cheese)));
+        assertEquals(2, engine.pendingCount());
+    }
+
+    @Test
+    void holdShouldApplyNothingWhenAnyLineIsShort() {
+        // Arrange: el queso tiene 3, pero 2 ya están apartados
+        UUID flour = UUID.randomUUID();
+        UUID cheese = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        engine.load(flour, new BigDecimal("10"), BigDecimal.ZERO);
+        engine.load(cheese, new BigDecimal("3"), new BigDecimal("2"));
+
+        // Act
+        List<UUID> failed = engine.hold(Map.of(
+                flour, BigDecimal.ONE, cheese, new BigDecimal("2"), unknown, BigDecimal.ONE));
+
+        // Assert
+        assertEquals(2, failed.size());
+        assertTrue(failed.containsAll(List.of(cheese, unknown)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(engine.reservedOf(flour)));
+        assertTrue(engine.hold(Map.of(flour, BigDecimal.TEN)).isEmpty());
+        assertEquals(1, engine.pendingCount());
+    }
+
+    @Test
+    void commitAndReleaseShouldSettleHeldQuantities() {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+        engine.load(flour, new BigDecimal("10"), BigDecimal.ZERO);
+        engine.hold(Map.of(flour, new BigDecimal("4")));
+        engine.hold(Map.of(flour, new BigDecimal("3")));
+
+        // Act
+        engine.commit(Map.of(flour, new BigDecimal("4")));
+        engine.release(Map.of(flour, new BigDecimal("3")));
+
+        // Assert
+        assertEquals(0, new BigDecimal("6").compareTo(engine.quantityOf(flour)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(engine.reservedOf(flour)));
+        assertTrue(engine.hold(Map.of(flour, new BigDecimal("6"))).isEmpty());
+    }
+
+    @Test
+    void concurrentHoldsShouldNeverOverpromise() throws Exception {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+        engine.load(flour, new BigDecimal("100"), BigDecimal.ZERO);
+        AtomicInteger held = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(executor.submit(() -> {
+                if (engine.hold(Map.of(flour, new BigDecimal("0.5"))).isEmpty()) {
+                    held.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(200, held.get());
+        assertEquals(0, new BigDecimal("100").compareTo(engine.reservedOf(flour)));
+        assertEquals(200, engine.pendingCount());
+    }
+
+    @Test
+    void recoverShouldReplayOnlyMovementsAfterCheckpoint() {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+        engine.load(flour, new BigDecimal("10"), BigDecimal.ZERO);
+        engine.hold(Map.of(flour, new BigDecimal("1")));
+        engine.hold(Map.of(flour, new BigDecimal("2")));
+        engine.commit(Map.of(flour, new BigDecimal("2")));
+        engine.close();
+
+        // Act: la base ya tiene el primer movimiento (1 apartado)
+        InventoryEngine restarted = new InventoryEngine(16, 2, tempDir.resolve("journal.log"));
+        restarted.load(flour, new BigDecimal("10"), BigDecimal.ONE);
+        int replayed = restarted.recover(1);
+
+        // Assert
+        assertEquals(2, replayed);
+        assertEquals(0, new BigDecimal("8").compareTo(restarted.quantityOf(flour)));
+        assertEquals(0, BigDecimal.ONE.compareTo(restarted.reservedOf(flour)));
+        assertEquals(3, restarted.pendingBatch(10).get(1).getSequence());
+        engine = restarted;
+    }
+
+    @Test
+    void shouldRejectQuantitiesFinerThanScale() {
+        // Arrange
+        UUID flour = UUID.randomUUID();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> engine.load(flour, new BigDecimal("1.005"), BigDecimal.ZERO));
+    }
+}
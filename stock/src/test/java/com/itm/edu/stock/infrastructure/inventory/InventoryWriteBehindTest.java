@@ -0,0 +1,119 @@
+package com.itm.edu.stock.infrastructure.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra H2 directamente, igual que IngredientStockDecrementTest: solo interesa el SQL y el diario
+class InventoryWriteBehindTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private InventoryEngine engine;
+    private InventoryWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE ingredients (id UUID PRIMARY KEY, quantity NUMERIC(38, 2), "
+                + "reserved NUMERIC(38, 2) DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE inventory_checkpoint (id VARCHAR(255) PRIMARY KEY, last_sequence BIGINT NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+        database.shutdown();
+    }
+
+    @Test
+    void flushShouldWriteFoldedMovementsAndCheckpoint() {
+        // Arrange
+        UUID flour = insertIngredient("10");
+        UUID cheese = insertIngredient("4");
+        start();
+        engine.hold(Map.of(flour, new BigDecimal("1.5"), cheese, BigDecimal.ONE));
+        engine.hold(Map.of(flour, new BigDecimal("2")));
+        engine.commit(Map.of(flour, new BigDecimal("1.5")));
+        engine.set(cheese, new BigDecimal("20"));
+        engine.release(Map.of(cheese, BigDecimal.ONE));
+
+        // Act
+        int written = writeBehind.flushPending();
+
+        // Assert
+        assertEquals(6, written);
+        assertEquals(0, new BigDecimal("8.5").compareTo(column(flour, "quantity")));
+        assertEquals(0, new BigDecimal("2").compareTo(column(flour, "reserved")));
+        assertEquals(0, new BigDecimal("20").compareTo(column(cheese, "quantity")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(column(cheese, "reserved")));
+        assertEquals(6L, checkpoint());
+        assertEquals(0, engine.pendingCount());
+    }
+
+    @Test
+    void restartShouldRecoverMovementsNotYetWritten() {
+        // Arrange: un movimiento escrito y otro solo en el diario al caer el proceso
+        UUID flour = insertIngredient("10");
+        start();
+        engine.hold(Map.of(flour, new BigDecimal("3")));
+        writeBehind.flushPending();
+        engine.commit(Map.of(flour, new BigDecimal("3")));
+        engine.close();
+
+        // Act
+        start();
+
+        // Assert
+        assertEquals(0, new BigDecimal("7").compareTo(engine.quantityOf(flour)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(engine.reservedOf(flour)));
+        assertEquals(0, new BigDecimal("3").compareTo(column(flour, "reserved")));
+        assertEquals(1, writeBehind.flushPending());
+        assertEquals(0, new BigDecimal("7").compareTo(column(flour, "quantity")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(column(flour, "reserved")));
+        assertEquals(2L, checkpoint());
+    }
+
+    private void start() {
+        engine = new InventoryEngine(16, 2, tempDir.resolve("journal.log"));
+        writeBehind = new InventoryWriteBehind(engine, jdbcTemplate,
+                new DataSourceTransactionManager(database), 100, new SimpleMeterRegistry());
+        writeBehind.start();
+    }
+
+    private UUID insertIngredient(String quantity) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO ingredients (id, quantity) VALUES (?, ?)", id, new BigDecimal(quantity));
+        return id;
+    }
+
+    private BigDecimal column(UUID id, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM ingredients WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private long checkpoint() {
+        return jdbcTemplate.queryForObject("SELECT last_sequence FROM inventory_checkpoint WHERE id = ?",
+                Long.class, InventoryWriteBehind.CHECKPOINT_ID);
+    }
+}
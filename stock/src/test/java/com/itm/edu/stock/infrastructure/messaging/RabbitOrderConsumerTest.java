@@ -2,21 +2,24 @@ package com.itm.edu.stock.infrastructure.messaging;
 
 import com.itm.edu.common.dto.OrderMessageDTO;
 import com.itm.edu.common.dto.events.StockValidationStatus;
-import com.itm.edu.common.dto.events.StockUpdateResponseEvent;
 import com.itm.edu.stock.application.ports.input.ProcessOrderUseCase;
 import com.itm.edu.stock.domain.exception.BusinessException;
-import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.AmqpRejectAndDontRequeueException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,14 +34,14 @@ class RabbitOrderConsumerTest {
     private ProcessOrderUseCase processOrderUseCase;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private StockResponseEmitter stockResponseEmitter;
+
+    @Mock
+    private StockResponseEmitter.Batch responses;
 
     @InjectMocks
     private RabbitOrderConsumer rabbitOrderConsumer;
 
-    @Captor
-    private ArgumentCaptor<StockUpdateResponseEvent> responseCaptor;
-
     private OrderMessageDTO testMessage;
     private UUID orderId;
 
@@ -51,25 +54,40 @@ class RabbitOrderConsumerTest {
 
     @Test
     void onOrderMessage_Success() {
+        // Arrange
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        when(processOrderUseCase.processOrder(testMessage)).thenReturn(StockValidationStatus.RESERVED);
+
         // Act
         rabbitOrderConsumer.onOrderMessage(testMessage);
 
         // Assert
         verify(processOrderUseCase).processOrder(testMessage);
-        verify(rabbitTemplate).convertAndSend(
-            eq(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE),
-            eq(RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY),
-            responseCaptor.capture()
-        );
-
-        StockUpdateResponseEvent response = responseCaptor.getValue();
-        assertEquals(orderId, response.getOrderId());
-        assertEquals(StockValidationStatus.RESERVED, response.getStatus());
+        InOrder inOrder = inOrder(responses);
+        inOrder.verify(responses, times(1)).emit(
+            eq(orderId), eq(StockValidationStatus.RESERVED), any(MessagePostProcessor.class));
+        inOrder.verify(responses).publish();
+        verifyNoMoreInteractions(responses);
+    }
+
+    @Test
+    void onOrderMessage_ShouldEmitStatusReturnedByUseCase() {
+        // Arrange: falta una receta y el caso de uso cancela sin lanzar excepción
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        when(processOrderUseCase.processOrder(testMessage)).thenReturn(StockValidationStatus.CANCELLED_NO_STOCK);
+
+        // Act
+        rabbitOrderConsumer.onOrderMessage(testMessage);
+
+        // Assert
+        verify(responses, times(1)).emit(
+            eq(orderId), eq(StockValidationStatus.CANCELLED_NO_STOCK), any(MessagePostProcessor.class));
     }
 
     @Test
     void onOrderMessage_BusinessException() {
         // Arrange
+        when(stockResponseEmitter.batch()).thenReturn(responses);
         doThrow(new BusinessException("No hay stock suficiente"))
             .when(processOrderUseCase).processOrder(any(OrderMessageDTO.class));
 
@@ -78,42 +96,98 @@ class RabbitOrderConsumerTest {
 
         // Assert
         verify(processOrderUseCase).processOrder(testMessage);
-        verify(rabbitTemplate).convertAndSend(
-            eq(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE),
-            eq(RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY),
-            responseCaptor.capture()
-        );
-
-        StockUpdateResponseEvent response = responseCaptor.getValue();
-        assertEquals(orderId, response.getOrderId());
-        assertEquals(StockValidationStatus.CANCELLED_NO_STOCK, response.getStatus());
+        verify(responses, times(1)).emit(
+            eq(orderId), eq(StockValidationStatus.CANCELLED_NO_STOCK), any(MessagePostProcessor.class));
+        verify(responses).publish();
     }
 
     @Test
     void onOrderMessage_UnexpectedException() {
         // Arrange
-        RuntimeException unexpectedException = new RuntimeException("Error inesperado");
-        doThrow(unexpectedException)
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        doThrow(new RuntimeException("Error inesperado"))
             .when(processOrderUseCase).processOrder(any(OrderMessageDTO.class));
 
-        // Act & Assert
-        AmqpRejectAndDontRequeueException exception = assertThrows(
-            AmqpRejectAndDontRequeueException.class,
-            () -> rabbitOrderConsumer.onOrderMessage(testMessage)
-        );
+        // Act
+        rabbitOrderConsumer.onOrderMessage(testMessage);
 
+        // Assert: se cancela la orden y no se reintenta
         verify(processOrderUseCase).processOrder(testMessage);
-        verify(rabbitTemplate).convertAndSend(
-            eq(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE),
-            eq(RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY),
-            responseCaptor.capture()
-        );
-
-        StockUpdateResponseEvent response = responseCaptor.getValue();
-        assertEquals(orderId, response.getOrderId());
-        assertEquals(StockValidationStatus.CANCELLED_NO_STOCK, response.getStatus());
-        assertEquals("Error inesperado: Error inesperado", exception.getMessage());
-        assertEquals(unexpectedException, exception.getCause());
+        verify(responses, times(1)).emit(
+            eq(orderId), eq(StockValidationStatus.CANCELLED_NO_STOCK), any(MessagePostProcessor.class));
+        verify(responses).publish();
+    }
+
+    @Test
+    void onOrderMessages_ShouldPublishOneResponsePerOrderBeforeReturning() {
+        // Arrange
+        UUID otherOrderId = UUID.randomUUID();
+        OrderMessageDTO other = new OrderMessageDTO();
+        other.setOrderId(otherOrderId);
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        when(processOrderUseCase.processOrder(testMessage)).thenReturn(StockValidationStatus.RESERVED);
+        doThrow(new BusinessException("No hay stock suficiente")).when(processOrderUseCase).processOrder(other);
+
+        // Act
+        rabbitOrderConsumer.onOrderMessages(List.of(
+            MessageBuilder.withPayload(testMessage).build(),
+            MessageBuilder.withPayload(other).build()));
+
+        // Assert
+        InOrder inOrder = inOrder(responses);
+        inOrder.verify(responses).emit(eq(orderId), eq(StockValidationStatus.RESERVED), any(MessagePostProcessor.class));
+        inOrder.verify(responses).emit(
+            eq(otherOrderId), eq(StockValidationStatus.CANCELLED_NO_STOCK), any(MessagePostProcessor.class));
+        inOrder.verify(responses, times(1)).publish();
+        verifyNoMoreInteractions(responses);
+    }
+
+    @Test
+    void onOrderMessages_ShouldPropagatePublishFailureSoOrdersAreRedelivered() {
+        // Arrange
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        when(processOrderUseCase.processOrder(testMessage)).thenReturn(StockValidationStatus.RESERVED);
+        when(responses.publish()).thenThrow(new AmqpException("nack"));
+
+        // Act & Assert
+        assertThrows(AmqpException.class, () ->
+            rabbitOrderConsumer.onOrderMessages(List.of(MessageBuilder.withPayload(testMessage).build())));
+    }
+
+    @Test
+    void onOrderMessages_ShouldEchoCorrelationIdAndLifecycleHeaders() {
+        // Arrange
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        when(processOrderUseCase.processOrder(testMessage)).thenReturn(StockValidationStatus.RESERVED);
+        long before = System.currentTimeMillis();
+
+        // Act
+        rabbitOrderConsumer.onOrderMessages(List.of(MessageBuilder.withPayload(testMessage)
+            .setHeader(AmqpHeaders.CORRELATION_ID, "evt-1")
+            .setHeader("x-order-created-at", 1_000L)
+            .setHeader("x-order-published-at", 1_010L)
+            .build()));
+
+        // Assert
+        assertLifecycleEchoed(before);
+    }
+
+    @Test
+    void onOrderMessage_ShouldEchoCorrelationIdAndLifecycleHeaders() {
+        // Arrange
+        when(stockResponseEmitter.batch()).thenReturn(responses);
+        MessageProperties inbound = new MessageProperties();
+        inbound.setCorrelationId("evt-1");
+        inbound.setHeader("x-order-created-at", 1_000L);
+        inbound.setHeader("x-order-published-at", 1_010L);
+        when(processOrderUseCase.processOrder(testMessage)).thenReturn(StockValidationStatus.RESERVED);
+        long before = System.currentTimeMillis();
+
+        // Act
+        rabbitOrderConsumer.onOrderMessage(testMessage, new Message(new byte[0], inbound));
+
+        // Assert
+        assertLifecycleEchoed(before);
     }
 
     @Test
@@ -123,6 +197,21 @@ class RabbitOrderConsumerTest {
             () -> rabbitOrderConsumer.onOrderMessage(null));
 
         verify(processOrderUseCase, never()).processOrder(any());
-        verifyNoInteractions(rabbitTemplate);
+        verifyNoInteractions(stockResponseEmitter);
+    }
+
+    private void assertLifecycleEchoed(long before) {
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(responses).emit(eq(orderId), eq(StockValidationStatus.RESERVED), postProcessor.capture());
+        MessageProperties reply = postProcessor.getValue()
+            .postProcessMessage(new Message(new byte[0], new MessageProperties()))
+            .getMessageProperties();
+        assertEquals("evt-1", reply.getCorrelationId());
+        assertEquals(1_000L, (Long) reply.getHeader("x-order-created-at"));
+        assertEquals(1_010L, (Long) reply.getHeader("x-order-published-at"));
+        long receivedAt = reply.getHeader("x-stock-received-at");
+        long repliedAt = reply.getHeader("x-stock-replied-at");
+        assertTrue(receivedAt >= before);
+        assertTrue(repliedAt >= receivedAt);
     }
-} 
\ No newline at end of file
+}
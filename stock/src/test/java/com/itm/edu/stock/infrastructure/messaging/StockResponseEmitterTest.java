@@ -0,0 +1,149 @@
+package com.itm.edu.stock.infrastructure.messaging;
+
+import com.itm.edu.common.dto.events.StockUpdateResponseEvent;
+import com.itm.edu.common.dto.events.StockValidationStatus;
+import com.itm.edu.stock.infrastructure.config.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockResponseEmitterTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MessagePostProcessor lifecycle;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockResponseEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emitter = new StockResponseEmitter(rabbitTemplate, 1000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldPublishBatchOverOneChannelAndWaitForConfirms() {
+        // Arrange
+        publishThroughTemplate();
+        UUID first = UUID.randomUUID();
+        StockResponseEmitter.Batch batch = emitter.batch();
+        batch.emit(first, StockValidationStatus.RESERVED, lifecycle);
+        batch.emit(UUID.randomUUID(), StockValidationStatus.CANCELLED_NO_STOCK, lifecycle);
+        batch.emit(UUID.randomUUID(), StockValidationStatus.RESERVED, lifecycle);
+
+        // Act
+        int published = batch.publish();
+
+        // Assert
+        assertEquals(3, published);
+        verify(rabbitTemplate, times(1)).invoke(any());
+        ArgumentCaptor<Object> responses = ArgumentCaptor.forClass(Object.class);
+        InOrder inOrder = inOrder(rabbitTemplate);
+        inOrder.verify(rabbitTemplate, times(3)).convertAndSend(eq(RabbitMQConfig.STOCK_RESPONSE_EXCHANGE),
+                eq(RabbitMQConfig.STOCK_RESPONSE_ROUTING_KEY), responses.capture(), eq(lifecycle));
+        inOrder.verify(rabbitTemplate).waitForConfirmsOrDie(1000);
+        StockUpdateResponseEvent response = (StockUpdateResponseEvent) responses.getAllValues().get(0);
+        assertEquals(first, response.getOrderId());
+        assertEquals(StockValidationStatus.RESERVED, response.getStatus());
+        assertEquals(3.0, meterRegistry.counter("stock.responses.published").count());
+        assertEquals(0, batch.publish());
+    }
+
+    @Test
+    void shouldAddResponseOnlyAfterCommit() {
+        // Arrange
+        publishThroughTemplate();
+        StockResponseEmitter.Batch batch = emitter.batch();
+        TransactionSynchronizationManager.initSynchronization();
+        batch.emit(UUID.randomUUID(), StockValidationStatus.RESERVED, lifecycle);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Act
+        int beforeCommit = batch.publish();
+        completeTransaction(synchronizations, true);
+        int afterCommit = batch.publish();
+
+        // Assert
+        assertEquals(0, beforeCommit);
+        assertEquals(1, afterCommit);
+    }
+
+    @Test
+    void shouldDropResponseWhenTransactionRollsBack() {
+        // Arrange
+        StockResponseEmitter.Batch batch = emitter.batch();
+        TransactionSynchronizationManager.initSynchronization();
+        batch.emit(UUID.randomUUID(), StockValidationStatus.RESERVED, lifecycle);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Act
+        completeTransaction(synchronizations, false);
+        int published = batch.publish();
+
+        // Assert
+        assertEquals(0, published);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldFailWhenBrokerDoesNotConfirm() {
+        // Arrange: el consumidor deja propagar el error y las órdenes vuelven a la cola
+        publishThroughTemplate();
+        doThrow(new AmqpException("nack")).when(rabbitTemplate).waitForConfirmsOrDie(anyLong());
+        StockResponseEmitter.Batch batch = emitter.batch();
+        batch.emit(UUID.randomUUID(), StockValidationStatus.RESERVED, lifecycle);
+
+        // Act & Assert
+        assertThrows(AmqpException.class, batch::publish);
+        assertEquals(0.0, meterRegistry.counter("stock.responses.published").count());
+    }
+
+    private void publishThroughTemplate() {
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+    }
+
+    private void completeTransaction(List<TransactionSynchronization> synchronizations, boolean committed) {
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.itm.edu.stock.infrastructure.messaging;
+
+import com.itm.edu.stock.application.ports.input.StockHoldUseCase;
+import com.itm.edu.stock.domain.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockUpdateConsumerTest {
+
+    @Mock
+    private StockHoldUseCase stockHoldUseCase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockUpdateConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new StockUpdateConsumer(stockHoldUseCase, meterRegistry);
+    }
+
+    @Test
+    void shouldCommitHoldOfOrderInHeader() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+
+        // Act
+        consumer.onStockUpdate(message(orderId.toString()));
+
+        // Assert
+        verify(stockHoldUseCase).commitHold(orderId);
+    }
+
+    @Test
+    void shouldCountOversoldOrderWithoutRequeue() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(stockHoldUseCase.commitHold(orderId)).thenThrow(new BusinessException("Sobreventa"));
+
+        // Act
+        consumer.onStockUpdate(message(orderId.toString()));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("stock.holds.oversold").count());
+    }
+
+    @Test
+    void shouldDiscardMessagesWithoutOrderId() {
+        // Act
+        consumer.onStockUpdate(message(null));
+
+        // Assert
+        verifyNoInteractions(stockHoldUseCase);
+    }
+
+    @Test
+    void shouldRejectInvalidOrderIdWithoutRequeue() {
+        // Act & Assert
+        assertThrows(AmqpRejectAndDontRequeueException.class, () -> consumer.onStockUpdate(message("no-es-un-uuid")));
+        verifyNoInteractions(stockHoldUseCase);
+    }
+
+    private Message message(String orderId) {
+        MessageProperties properties = new MessageProperties();
+        if (orderId != null) {
+            properties.setHeader(LifecycleHeaders.ORDER_ID, orderId);
+        }
+        return new Message("[]".getBytes(), properties);
+    }
+}
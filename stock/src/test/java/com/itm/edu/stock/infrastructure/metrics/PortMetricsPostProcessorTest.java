@@ -0,0 +1,85 @@
+package com.itm.edu.stock.infrastructure.metrics;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.events.StockValidationStatus;
+import com.itm.edu.common.metrics.PortMetricsPostProcessor;
+import com.itm.edu.stock.application.ports.input.ProcessOrderUseCase;
+import com.itm.edu.stock.application.ports.output.QuantityMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortMetricsPostProcessorTest {
+
+    private MeterRegistry meterRegistry;
+    private PortMetricsPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        postProcessor = new PortMetricsPostProcessor("com.itm.edu.stock.application.ports",
+                beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void shouldTimeInputAndOutputPortsSeparately() {
+        // Arrange
+        ProcessOrderUseCase useCase = (ProcessOrderUseCase) postProcessor.postProcessAfterInitialization(
+                new NoOpProcessOrder(), "processOrder");
+        @SuppressWarnings("unchecked")
+        QuantityMapper<BigDecimal> mapper = (QuantityMapper<BigDecimal>) postProcessor.postProcessAfterInitialization(
+                new IdentityQuantityMapper(), "quantityMapper");
+
+        // Act
+        useCase.processOrder(new OrderMessageDTO());
+        mapper.toInfrastructure(BigDecimal.ONE);
+        mapper.toInfrastructure(BigDecimal.TEN);
+
+        // Assert
+        assertEquals(1, meterRegistry.get(PortMetricsPostProcessor.METRIC)
+                .tags("port", "ProcessOrderUseCase", "direction", "input", "outcome", "success")
+                .timer().count());
+        assertEquals(2, meterRegistry.get(PortMetricsPostProcessor.METRIC)
+                .tags("port", "QuantityMapper", "method", "toInfrastructure", "direction", "output")
+                .timer().count());
+    }
+
+    @Test
+    void shouldLeaveNonPortBeansUntouched() {
+        // Arrange
+        Object bean = new Object();
+
+        // Act
+        Object result = postProcessor.postProcessAfterInitialization(bean, "plain");
+
+        // Assert
+        assertSame(bean, result);
+    }
+
+    static class NoOpProcessOrder implements ProcessOrderUseCase {
+        @Override
+        public StockValidationStatus processOrder(OrderMessageDTO orderMessage) {
+            return StockValidationStatus.RESERVED;
+        }
+    }
+
+    static class IdentityQuantityMapper implements QuantityMapper<BigDecimal> {
+        @Override
+        public BigDecimal toInfrastructure(BigDecimal quantity) {
+            return quantity;
+        }
+
+        @Override
+        public BigDecimal quantityToDomain(BigDecimal infrastructureValue) {
+            return infrastructureValue;
+        }
+    }
+}
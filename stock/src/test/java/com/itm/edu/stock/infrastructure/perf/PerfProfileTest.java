@@ -0,0 +1,140 @@
+package com.itm.edu.stock.infrastructure.perf;
+
+import com.itm.edu.common.dto.OrderMessageDTO;
+import com.itm.edu.common.dto.ProductOrderDTO;
+import com.itm.edu.common.perf.InJvmMessageBus;
+import com.itm.edu.stock.application.ports.output.IngredientRepository;
+import com.itm.edu.stock.application.ports.output.RecipeRepository;
+import com.itm.edu.stock.infrastructure.persistence.dto.IngredientDto;
+import com.itm.edu.stock.infrastructure.persistence.dto.RecipeDto;
+import com.itm.edu.stock.infrastructure.persistence.dto.RecipeIngredientDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("perf")
+class PerfProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private PerfOrderController perfOrderController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldStartWithoutDatabaseOrBroker() {
+        // Assert
+        assertTrue(context.getBeansOfType(DataSource.class).isEmpty());
+        assertInstanceOf(InJvmMessageBus.class, context.getBean("rabbitTemplate"));
+        assertInstanceOf(InMemoryIngredientRepository.class, ingredientRepository);
+        assertInstanceOf(InMemoryRecipeRepository.class, recipeRepository);
+    }
+
+    @Test
+    void shouldHoldIngredientsThroughInJvmBus() throws InterruptedException {
+        // Arrange
+        UUID flourId = ingredientRepository.save(ingredient(new BigDecimal("10"))).getId();
+        UUID recipeId = recipeRepository.save(recipe(flourId, new BigDecimal("2"))).getId();
+
+        // Act
+        perfOrderController.submit(order(recipeId, 2));
+
+        // Assert
+        assertTrue(awaitAvailable(flourId, new BigDecimal("6")));
+        assertEquals(0, BigDecimal.TEN.compareTo(ingredientRepository.findById(flourId).orElseThrow().getQuantity()));
+    }
+
+    @Test
+    void shouldLeaveIngredientsUntouchedWhenOrderIsCancelled() throws InterruptedException {
+        // Arrange
+        UUID flourId = ingredientRepository.save(ingredient(new BigDecimal("10"))).getId();
+        UUID sugarId = ingredientRepository.save(ingredient(new BigDecimal("1"))).getId();
+        UUID recipeId = recipeRepository.save(RecipeDto.builder()
+                .id(UUID.randomUUID())
+                .name("Torta")
+                .recipeIngredients(List.of(line(flourId, new BigDecimal("2")), line(sugarId, new BigDecimal("5"))))
+                .build()).getId();
+        double cancelledBefore = cancelledResponses();
+
+        // Act
+        perfOrderController.submit(order(recipeId, 1));
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cancelledResponses() == cancelledBefore && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(cancelledResponses() > cancelledBefore);
+        assertEquals(0, new BigDecimal("10").compareTo(ingredientRepository.findById(flourId).orElseThrow().getQuantity()));
+    }
+
+    private boolean awaitAvailable(UUID ingredientId, BigDecimal expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.compareTo(ingredientRepository.findById(ingredientId).orElseThrow().getAvailableQuantity()) == 0) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private double cancelledResponses() {
+        return meterRegistry.counter("stock.perf.responses", "status", "CANCELLED_NO_STOCK").count();
+    }
+
+    private IngredientDto ingredient(BigDecimal quantity) {
+        return IngredientDto.builder()
+                .name("Harina")
+                .description("Harina de trigo")
+                .quantity(quantity)
+                .unit("kg")
+                .price(new BigDecimal("2.50"))
+                .supplier("Molinos")
+                .minimumStock(BigDecimal.ONE)
+                .build();
+    }
+
+    private RecipeDto recipe(UUID ingredientId, BigDecimal quantity) {
+        return RecipeDto.builder()
+                .id(UUID.randomUUID())
+                .name("Pan")
+                .recipeIngredients(List.of(line(ingredientId, quantity)))
+                .build();
+    }
+
+    private RecipeIngredientDto line(UUID ingredientId, BigDecimal quantity) {
+        return RecipeIngredientDto.builder()
+                .id(UUID.randomUUID())
+                .ingredientId(ingredientId)
+                .quantity(quantity)
+                .unit("kg")
+                .build();
+    }
+
+    private OrderMessageDTO order(UUID recipeId, int quantity) {
+        return OrderMessageDTO.builder()
+                .products(List.of(ProductOrderDTO.builder().productId(recipeId).quantity(quantity).build()))
+                .build();
+    }
+}
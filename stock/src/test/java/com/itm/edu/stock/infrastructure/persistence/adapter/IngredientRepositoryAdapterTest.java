@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -31,6 +32,9 @@ class IngredientRepositoryAdapterTest {
     @Mock
     private IngredientPersistenceMapper mapper;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private IngredientRepositoryAdapter adapter;
 
@@ -301,4 +305,37 @@ class IngredientRepositoryAdapterTest {
         verify(mapper).toResponse(testDto);
         verify(mapper).toResponse(secondDto);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testFindAllById_Success() {
+        // Arrange
+        List<UUID> ids = List.of(testId);
+        when(repository.findAllById(ids)).thenReturn(List.of(testEntity));
+        when(mapper.toDto(testEntity)).thenReturn(testDto);
+        when(mapper.toResponse(testDto)).thenReturn(testResponse);
+
+        // Act
+        List<IngredientResponse> results = adapter.findAllById(ids);
+
+        // Assert
+        assertEquals(List.of(testResponse), results);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void testSaveAll_WritesAllIngredientsInOneCall() {
+        // Arrange
+        when(mapper.toEntity(testDto)).thenReturn(testEntity);
+        when(repository.saveAll(List.of(testEntity))).thenReturn(List.of(testEntity));
+        when(mapper.toDto(testEntity)).thenReturn(testDto);
+        when(mapper.toResponse(testDto)).thenReturn(testResponse);
+
+        // Act
+        List<IngredientResponse> results = adapter.saveAll(List.of(testDto));
+
+        // Assert
+        assertEquals(List.of(testResponse), results);
+        verify(repository).saveAll(List.of(testEntity));
+        verify(repository, never()).save(any());
+    }
+}
@@ -0,0 +1,79 @@
+package com.itm.edu.stock.infrastructure.persistence.adapter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra H2 directamente: el contexto de la aplicación arrastra RabbitMQ y aquí solo interesa el SQL
+class IngredientStockHoldTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IngredientRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build());
+        jdbcTemplate.execute("CREATE TABLE ingredients (id UUID PRIMARY KEY, quantity NUMERIC(38, 2), "
+                + "reserved NUMERIC(38, 2) DEFAULT 0 NOT NULL)");
+        adapter = new IngredientRepositoryAdapter(null, null, jdbcTemplate);
+    }
+
+    @Test
+    void holdStockShouldReserveOnlyRowsWithEnoughAvailable() {
+        // Arrange
+        UUID enough = insertIngredient("5.5", "0");
+        UUID heldElsewhere = insertIngredient("3", "2");
+        UUID missing = UUID.randomUUID();
+
+        // Act
+        List<UUID> failed = adapter.holdStock(Map.of(
+                enough, new BigDecimal("5.5"), heldElsewhere, new BigDecimal("2"), missing, BigDecimal.ONE));
+
+        // Assert
+        assertEquals(2, failed.size());
+        assertTrue(failed.containsAll(List.of(heldElsewhere, missing)));
+        assertEquals(0, new BigDecimal("5.5").compareTo(column(enough, "quantity")));
+        assertEquals(0, new BigDecimal("5.5").compareTo(column(enough, "reserved")));
+        assertEquals(0, new BigDecimal("2").compareTo(column(heldElsewhere, "reserved")));
+    }
+
+    @Test
+    void commitShouldMoveHeldQuantityOutOfStockAndReleaseShouldFreeIt() {
+        // Arrange
+        UUID committed = insertIngredient("10", "4");
+        UUID released = insertIngredient("10", "4");
+
+        // Act
+        adapter.commitHeldStock(Map.of(committed, new BigDecimal("4")));
+        adapter.releaseHeldStock(Map.of(released, new BigDecimal("4")));
+
+        // Assert
+        assertEquals(0, new BigDecimal("6").compareTo(column(committed, "quantity")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(column(committed, "reserved")));
+        assertEquals(0, BigDecimal.TEN.compareTo(column(released, "quantity")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(column(released, "reserved")));
+    }
+
+    private UUID insertIngredient(String quantity, String reserved) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO ingredients (id, quantity, reserved) VALUES (?, ?, ?)",
+                id, new BigDecimal(quantity), new BigDecimal(reserved));
+        return id;
+    }
+
+    private BigDecimal column(UUID id, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM ingredients WHERE id = ?", BigDecimal.class, id);
+    }
+}
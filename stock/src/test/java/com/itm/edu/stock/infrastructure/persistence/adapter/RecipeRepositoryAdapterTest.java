@@ -270,6 +270,22 @@ class RecipeRepositoryAdapterTest {
         verify(mapper, never()).toResponse(any());
     }
 
+    @Test
+    void testFindAllById_LoadsRecipesWithIngredientsInOneQuery() {
+        // Arrange
+        List<UUID> ids = List.of(recipeId);
+        when(jpaRepository.findAllWithIngredientsByIdIn(ids)).thenReturn(List.of(recipeEntity));
+        when(mapper.toDto(recipeEntity)).thenReturn(recipeDto);
+        when(mapper.toResponse(recipeDto)).thenReturn(recipeResponse);
+
+        // Act
+        List<RecipeResponse> results = adapter.findAllById(ids);
+
+        // Assert
+        assertEquals(List.of(recipeResponse), results);
+        verify(jpaRepository, never()).findById(any());
+    }
+
     @Test
     void testFindAll_Success() {
         // Arrange
@@ -0,0 +1,99 @@
+package com.itm.edu.stock.infrastructure.persistence.adapter;
+
+import com.itm.edu.stock.infrastructure.persistence.entity.StockHoldJpaEntity;
+import com.itm.edu.stock.infrastructure.persistence.repository.StockHoldJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockHoldRepositoryAdapterTest {
+
+    @Mock
+    private StockHoldJpaRepository repository;
+
+    private StockHoldRepositoryAdapter adapter;
+
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID flourId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        adapter = new StockHoldRepositoryAdapter(repository, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void commitByOrderIdsShouldMarkHoldsCommittedInsteadOfDeletingThem() {
+        // Arrange
+        StockHoldJpaEntity hold = hold(false);
+        when(repository.findByOrderIdInAndExpiredFalseAndCommittedFalse(List.of(orderId))).thenReturn(List.of(hold));
+
+        // Act
+        Map<UUID, Map<UUID, BigDecimal>> committed = adapter.commitByOrderIds(List.of(orderId));
+
+        // Assert
+        assertEquals(Map.of(orderId, Map.of(flourId, new BigDecimal("7"))), committed);
+        verify(repository).markCommitted(List.of(hold.getId()));
+        verify(repository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void commitExpiredShouldMarkExpiredHoldsCommitted() {
+        // Arrange
+        StockHoldJpaEntity hold = hold(true);
+        when(repository.findByOrderIdAndExpiredTrueAndCommittedFalse(orderId)).thenReturn(List.of(hold));
+
+        // Act
+        Map<UUID, BigDecimal> committed = adapter.commitExpired(orderId);
+
+        // Assert
+        assertEquals(Map.of(flourId, new BigDecimal("7")), committed);
+        verify(repository).markCommitted(List.of(hold.getId()));
+    }
+
+    @Test
+    void existsForOrderShouldSeeCommittedHolds() {
+        // Arrange: la orden ya se confirmó y su mensaje vuelve a llegar
+        when(repository.existsByOrderId(orderId)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(adapter.existsForOrder(orderId));
+    }
+
+    @Test
+    void purgeExpiredShouldDeleteExpiredAndCommittedHolds() {
+        // Arrange
+        Instant cutoff = Instant.now();
+        when(repository.deleteSettledBefore(cutoff)).thenReturn(4);
+
+        // Act
+        int purged = adapter.purgeExpired(cutoff);
+
+        // Assert
+        assertEquals(4, purged);
+    }
+
+    private StockHoldJpaEntity hold(boolean expired) {
+        return StockHoldJpaEntity.builder()
+                .id(UUID.randomUUID())
+                .orderId(orderId)
+                .ingredientId(flourId)
+                .quantity(new BigDecimal("7"))
+                .expiresAt(Instant.now())
+                .expired(expired)
+                .build();
+    }
+}